@@ -0,0 +1,58 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.hidrometro.display.CodificadorJpeg;
+import main.java.br.com.simulador.hidrometro.display.HidrometroRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de codificar um quadro em JPEG, em memória (sem o disco): o {@link CodificadorJpeg} reaproveitado,
+ * usado pelo {@code ImagePersistenceService}, contra o {@code ImageIO.write} usado antes.
+ *
+ * A gravação em disco fica de fora de propósito: o custo dela depende da máquina, e não do código.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CodificacaoJpegBenchmark {
+
+    @Param({"0.75"})
+    private float qualidade;
+
+    private BufferedImage quadro;
+    private CodificadorJpeg codificador;
+    private ByteArrayOutputStream saidaImageIO;
+
+    @Setup
+    public void preparar() {
+        quadro = new HidrometroRenderer().gerarImagemAnalogica(1234.5678f);
+        codificador = new CodificadorJpeg(qualidade);
+        saidaImageIO = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @TearDown
+    public void encerrar() {
+        codificador.close();
+    }
+
+    @Benchmark
+    public int codificadorReaproveitado() throws IOException {
+        codificador.codificar(quadro);
+        return codificador.getTamanho();
+    }
+
+    @Benchmark
+    public int imageIOWrite() throws IOException {
+        saidaImageIO.reset();
+        ImageIO.write(quadro, "jpeg", saidaImageIO);
+        return saidaImageIO.size();
+    }
+}
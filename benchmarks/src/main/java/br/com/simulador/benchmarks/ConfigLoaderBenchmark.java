@@ -0,0 +1,34 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.config.ConfigLoader;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de ler e interpretar o {@code config.txt} completo com o {@link ConfigLoader}
+ * (o mesmo caminho percorrido na inicialização e a cada recarga da configuração).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigLoaderBenchmark {
+
+    private String caminho;
+    private ConfigLoader loader;
+
+    @Setup
+    public void preparar() {
+        caminho = ConfiguracaoDeReferencia.copiarParaArquivoTemporario().toString();
+        loader = new ConfigLoader();
+    }
+
+    @Benchmark
+    public SimulatorConfig carregarDeArquivo() {
+        return loader.carregarDeArquivo(caminho);
+    }
+}
@@ -0,0 +1,49 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.config.ConfigLoader;
+import main.java.br.com.simulador.config.SimulatorConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A configuração usada por todos os benchmarks: o próprio {@code config/config.txt} do simulador,
+ * empacotado no jar dos benchmarks e copiado para um arquivo temporário (o {@link ConfigLoader} só lê arquivos).
+ *
+ * Assim os números medem o arquivo que o simulador realmente usa, e não uma versão simplificada.
+ */
+public final class ConfiguracaoDeReferencia {
+
+    private static final String RECURSO = "/config.txt";
+
+    private ConfiguracaoDeReferencia() {}
+
+    /**
+     * Copia o arquivo de configuração para um arquivo temporário, apagado ao final da JVM.
+     *
+     * @return O caminho do arquivo temporário.
+     */
+    public static Path copiarParaArquivoTemporario() {
+        try (InputStream origem = ConfiguracaoDeReferencia.class.getResourceAsStream(RECURSO)) {
+            if (origem == null) {
+                throw new IllegalStateException("config.txt não encontrado no jar dos benchmarks.");
+            }
+            Path arquivo = Files.createTempFile("benchmark-config", ".txt");
+            arquivo.toFile().deleteOnExit();
+            Files.copy(origem, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            return arquivo;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao copiar a configuração dos benchmarks", e);
+        }
+    }
+
+    /**
+     * Carrega a configuração de referência.
+     */
+    public static SimulatorConfig carregar() {
+        return new ConfigLoader().carregarDeArquivo(copiarParaArquivoTemporario().toString());
+    }
+}
@@ -0,0 +1,71 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.CalculadoraDeEntrada;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.Entrada;
+import main.java.br.com.simulador.hidrometro.GeradorReprodutivel;
+import main.java.br.com.simulador.strategy.PerfilDeConsumoFactory;
+import main.java.br.com.simulador.strategy.PerfilDeConsumoStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de calcular a entrada de um passo: o objeto {@link Entrada} criado a cada passo (caminho antigo)
+ * contra a {@link CalculadoraDeEntrada} reaproveitada (caminho usado hoje pelo simulador).
+ *
+ * O tempo avança uma hora por chamada, dando a volta a cada dia, para que todos os perfis de consumo
+ * sejam percorridos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntradaBenchmark {
+
+    private SimulatorConfig config;
+    private List<PerfilDeConsumoStrategy> estrategias;
+    private ControleVazao controleVazao;
+    private GeradorReprodutivel random;
+    private CalculadoraDeEntrada calculadora;
+    private int tempo;
+
+    @Setup
+    public void preparar() {
+        config = ConfiguracaoDeReferencia.carregar();
+        estrategias = PerfilDeConsumoFactory.criarEstrategias(config);
+        controleVazao = new ControleVazao();
+        random = new GeradorReprodutivel(42L);
+        calculadora = new CalculadoraDeEntrada(config, PerfilDeConsumoFactory.criarAgenda(config), controleVazao,
+                new GeradorReprodutivel(42L));
+    }
+
+    /**
+     * Avança uma hora dentro de um dia. Sem a volta em 86400, o int estoura ainda no aquecimento e as
+     * horas negativas não casam com nenhum perfil, o que mede um caminho diferente (sem sortear valores).
+     */
+    private static int proximaHora(int tempo) {
+        return (tempo + 3600) % 86400;
+    }
+
+    @Benchmark
+    public void novaEntrada(Blackhole bh) {
+        tempo = proximaHora(tempo);
+        Entrada entrada = new Entrada(tempo, config, estrategias, controleVazao, random);
+        bh.consume(entrada.calcularFluxo());
+        bh.consume(entrada.getPressao());
+    }
+
+    @Benchmark
+    public void calculadoraReaproveitada(Blackhole bh) {
+        tempo = proximaHora(tempo);
+        calculadora.calcular(tempo);
+        bh.consume(calculadora.getFluxo());
+        bh.consume(calculadora.getPressao());
+    }
+}
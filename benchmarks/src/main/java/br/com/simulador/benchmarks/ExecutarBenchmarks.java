@@ -0,0 +1,46 @@
+package main.java.br.com.simulador.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do jar dos benchmarks.
+ *
+ * Executa os benchmarks sempre com o profiler de GC do JMH, que acrescenta a cada resultado a alocação
+ * por operação ({@code gc.alloc.rate.norm}, em bytes/op) e a quantidade de coletas, e grava os resultados
+ * em JSON, para que execuções diferentes possam ser comparadas.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar [filtro...]
+ * </pre>
+ * Cada filtro é uma expressão regular sobre o nome dos benchmarks (ex: {@code Renderizacao}); sem filtros,
+ * todos são executados. O arquivo de resultados pode ser trocado com {@code -Dbenchmarks.resultado=arquivo.json}.
+ *
+ * Para usar as demais opções do JMH, chame a linha de comando dele diretamente:
+ * {@code java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main -h}.
+ */
+public class ExecutarBenchmarks {
+
+    private static final String RESULTADO_PADRAO = "jmh-resultados.json";
+
+    public static void main(String[] args) throws RunnerException {
+        String resultado = System.getProperty("benchmarks.resultado", RESULTADO_PADRAO);
+
+        ChainedOptionsBuilder opcoes = new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado);
+        if (args.length == 0) {
+            opcoes.include(ExecutarBenchmarks.class.getPackageName() + ".*");
+        }
+        for (String filtro : args) {
+            opcoes.include(filtro);
+        }
+
+        new Runner(opcoes.build()).run();
+        System.out.println("Resultados gravados em " + resultado);
+    }
+}
@@ -0,0 +1,32 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.hidrometro.Medidor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de acumular uma leitura no {@link Medidor}, a operação mais frequente da simulação.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedidorBenchmark {
+
+    private Medidor medidor;
+
+    @Setup
+    public void preparar() {
+        medidor = new Medidor(Bitola.fromString("3/4"));
+    }
+
+    @Benchmark
+    public float atualizarMedicao() {
+        medidor.atualizarMedicao(0.0004f, 4.5f, 1);
+        return medidor.getM3();
+    }
+}
@@ -0,0 +1,46 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.hidrometro.display.HidrometroRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de desenhar o mostrador: {@link HidrometroRenderer#gerarImagemAnalogica(float)}, que cria uma imagem
+ * nova a cada chamada (usado para as imagens gravadas em disco), contra {@code renderizar} em um buffer
+ * reaproveitado (usado pela tela, pela transmissão e pelo lote).
+ *
+ * O volume muda a cada chamada, para que os dígitos e os ponteiros mudem de posição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderizacaoBenchmark {
+
+    private HidrometroRenderer renderer;
+    private BufferedImage quadro;
+    private float m3;
+
+    @Setup
+    public void preparar() {
+        renderer = new HidrometroRenderer();
+        quadro = new BufferedImage(HidrometroRenderer.LARGURA, HidrometroRenderer.ALTURA, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public BufferedImage gerarImagemAnalogica() {
+        m3 += 0.0137f;
+        return renderer.gerarImagemAnalogica(m3);
+    }
+
+    @Benchmark
+    public BufferedImage renderizarEmBufferReaproveitado() {
+        m3 += 0.0137f;
+        renderer.renderizar(m3, quadro);
+        return quadro;
+    }
+}
@@ -0,0 +1,42 @@
+package main.java.br.com.simulador.benchmarks;
+
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.HidrometroSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de um passo completo da simulação ({@link HidrometroSimulator#avancarSimulacao()}), sem observadores:
+ * mede apenas o núcleo (cálculo da entrada e acumulação no medidor), sem tela, log ou disco.
+ *
+ * Um simulador novo é criado a cada iteração, para que o volume acumulado (um {@code float}) não cresça
+ * a ponto de mudar o custo das operações ao longo da medição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimuladorBenchmark {
+
+    private SimulatorConfig config;
+    private HidrometroSimulator simulador;
+
+    @Setup(Level.Trial)
+    public void carregarConfiguracao() {
+        config = ConfiguracaoDeReferencia.carregar();
+    }
+
+    @Setup(Level.Iteration)
+    public void criarSimulador() {
+        simulador = new HidrometroSimulator(config, new ControleVazao());
+    }
+
+    @Benchmark
+    public void avancarSimulacao() {
+        simulador.avancarSimulacao();
+    }
+}
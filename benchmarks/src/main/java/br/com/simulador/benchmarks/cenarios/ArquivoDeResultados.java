@@ -0,0 +1,75 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Grava e lê o JSON dos resultados dos cenários.
+ *
+ * O arquivo tem um cabeçalho com o ambiente (versão do Java, processadores, data) e a lista
+ * {@code cenarios}, com um objeto plano por linha. A leitura entende apenas esse formato, gravado por
+ * {@link #gravar(Path, List)}: basta para comparar execuções sem acrescentar uma biblioteca de JSON ao projeto.
+ */
+public final class ArquivoDeResultados {
+
+    /** Um objeto sem objetos aninhados: cada cenário. */
+    private static final Pattern OBJETO = Pattern.compile("\\{[^{}]*\\}");
+    private static final Pattern CAMPO = Pattern.compile("\"(\\w+)\"\\s*:\\s*(?:\"([^\"]*)\"|([-+0-9.eE]+))");
+
+    private ArquivoDeResultados() {}
+
+    public static void gravar(Path arquivo, List<ResultadoDeCenario> resultados) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"processadores\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"data\": \"").append(OffsetDateTime.now()).append("\",\n");
+        json.append("  \"cenarios\": [\n");
+        for (int i = 0; i < resultados.size(); i++) {
+            json.append("    ").append(resultados.get(i).paraJson());
+            json.append(i < resultados.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        try {
+            Files.writeString(arquivo, json, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar os resultados dos cenários: " + arquivo, e);
+        }
+    }
+
+    /**
+     * @return Os resultados do arquivo, pelo nome do cenário, na ordem do arquivo.
+     */
+    public static Map<String, ResultadoDeCenario> ler(Path arquivo) {
+        String json;
+        try {
+            json = Files.readString(arquivo, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler os resultados dos cenários: " + arquivo, e);
+        }
+        Map<String, ResultadoDeCenario> resultados = new LinkedHashMap<>();
+        Matcher objeto = OBJETO.matcher(json);
+        while (objeto.find()) {
+            Map<String, String> campos = new HashMap<>();
+            Matcher campo = CAMPO.matcher(objeto.group());
+            while (campo.find()) {
+                campos.put(campo.group(1), campo.group(2) != null ? campo.group(2) : campo.group(3));
+            }
+            ResultadoDeCenario resultado = ResultadoDeCenario.deCampos(campos);
+            resultados.put(resultado.nome(), resultado);
+        }
+        if (resultados.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum cenário encontrado em " + arquivo);
+        }
+        return resultados;
+    }
+}
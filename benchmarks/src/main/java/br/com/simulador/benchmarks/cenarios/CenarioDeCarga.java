@@ -0,0 +1,25 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+/**
+ * Um cenário de ponta a ponta: os mesmos componentes que o {@code Controller} monta no modo headless,
+ * executados passo a passo para que cada passo possa ser cronometrado individualmente.
+ *
+ * Cada instância é usada uma única vez: {@link #preparar()}, vários {@link #avancar()} e {@link #encerrar()}.
+ */
+public interface CenarioDeCarga {
+
+    /** Nome curto, usado no JSON e na comparação com a linha de base. */
+    String getNome();
+
+    /** Quantidade de passos de uma execução completa. */
+    int getPassos();
+
+    /** Cria e conecta os componentes. Fica fora da medição. */
+    void preparar();
+
+    /** Executa um passo completo da simulação, incluindo a notificação dos observadores. */
+    void avancar();
+
+    /** Notifica o fim da simulação e libera os recursos (filas, threads, arquivos). Fica fora da medição. */
+    void encerrar();
+}
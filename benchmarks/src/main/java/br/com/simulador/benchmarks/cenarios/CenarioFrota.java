@@ -0,0 +1,58 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import main.java.br.com.simulador.benchmarks.ConfiguracaoDeReferencia;
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.config.ModoExecucao;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.frota.FrotaSimulator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Uma frota de 10.000 hidrômetros durante uma semana simulada, em passos de 1 minuto (10.080 passos),
+ * no pool comum do ForkJoin. Cada passo avança os 10.000 medidores.
+ */
+public class CenarioFrota implements CenarioDeCarga {
+
+    private static final int MEDIDORES = 10_000;
+    private static final int DURACAO_SEGUNDOS = 7 * 24 * 3600;
+    private static final int PASSO_SEGUNDOS = 60;
+
+    private FrotaSimulator frota;
+
+    @Override
+    public String getNome() {
+        return "frota10kSemana";
+    }
+
+    @Override
+    public int getPassos() {
+        return DURACAO_SEGUNDOS / PASSO_SEGUNDOS;
+    }
+
+    @Override
+    public void preparar() {
+        SimulatorConfig config = ConfiguracaoDeReferencia.carregar();
+        config.setModoExecucao(ModoExecucao.HEADLESS);
+        config.setTempoExecucao(DURACAO_SEGUNDOS);
+        config.setEscalaDeTempo(PASSO_SEGUNDOS);
+
+        frota = new FrotaSimulator(config, new ControleVazao(), MEDIDORES, 42L, ForkJoinPool.commonPool());
+        Bitola[] bitolas = Bitola.values();
+        for (int i = 0; i < MEDIDORES; i++) {
+            frota.adicionarMedidor(bitolas[i % bitolas.length]);
+        }
+        frota.notificarObservadores();
+    }
+
+    @Override
+    public void avancar() {
+        frota.avancarSimulacao();
+    }
+
+    @Override
+    public void encerrar() {
+        frota.notificarFimSimulacao();
+    }
+}
@@ -0,0 +1,63 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import main.java.br.com.simulador.benchmarks.ConfiguracaoDeReferencia;
+import main.java.br.com.simulador.config.ModoExecucao;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.HidrometroSimulator;
+import main.java.br.com.simulador.hidrometro.Saida;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * 24 horas de um único hidrômetro, com resolução de 1 segundo (86.400 passos), com o log no console ({@link Saida}).
+ *
+ * A {@code Saida} formata cada leitura normalmente, mas o {@code System.out} é trocado por um fluxo que
+ * descarta os bytes durante a execução: o que se mede é o custo do simulador e da formatação, e não a
+ * velocidade do terminal, que varia de máquina para máquina.
+ */
+public class CenarioMedidorUnico implements CenarioDeCarga {
+
+    private static final int DURACAO_SEGUNDOS = 24 * 3600;
+
+    private HidrometroSimulator simulador;
+    private PrintStream saidaOriginal;
+
+    @Override
+    public String getNome() {
+        return "medidorUnico24h";
+    }
+
+    @Override
+    public int getPassos() {
+        return DURACAO_SEGUNDOS;
+    }
+
+    @Override
+    public void preparar() {
+        SimulatorConfig config = ConfiguracaoDeReferencia.carregar();
+        config.setModoExecucao(ModoExecucao.HEADLESS);
+        config.setTempoExecucao(DURACAO_SEGUNDOS);
+        config.setEscalaDeTempo(1);
+        config.setSemente(42L);
+
+        simulador = new HidrometroSimulator(config, new ControleVazao());
+        simulador.adicionarObservador(new Saida(config));
+
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        simulador.notificarObservadores();
+    }
+
+    @Override
+    public void avancar() {
+        simulador.avancarSimulacao();
+    }
+
+    @Override
+    public void encerrar() {
+        simulador.notificarFimSimulacao();
+        System.setOut(saidaOriginal);
+    }
+}
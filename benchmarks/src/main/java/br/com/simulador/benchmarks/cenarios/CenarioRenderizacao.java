@@ -0,0 +1,129 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import main.java.br.com.simulador.benchmarks.ConfiguracaoDeReferencia;
+import main.java.br.com.simulador.config.ModoExecucao;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.HidrometroSimulator;
+import main.java.br.com.simulador.hidrometro.Medidor;
+import main.java.br.com.simulador.hidrometro.display.HidrometroRenderer;
+import main.java.br.com.simulador.hidrometro.display.ImagePersistenceService;
+import main.java.br.com.simulador.observer.Observador;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Execução pesada em renderização: passos de 30 minutos, em que o volume passa de um m³ inteiro
+ * praticamente a cada passo, e uma imagem é desenhada e gravada a cada m³, como faz o {@code Display}.
+ *
+ * O {@code Display} exige uma janela, então este cenário usa um observador equivalente, sem a tela:
+ * {@link HidrometroRenderer#gerarImagemAnalogica(float)} na thread da simulação e o
+ * {@link ImagePersistenceService} com a configuração padrão (fila limitada, política {@code bloquear}).
+ * Com a fila cheia a simulação espera, então o ritmo dos passos inclui o custo da codificação JPEG.
+ *
+ * As imagens vão para {@code Medicoes_cenario-renderizacao} no diretório atual, apagado ao final.
+ */
+public class CenarioRenderizacao implements CenarioDeCarga {
+
+    private static final String MATRICULA = "cenario-renderizacao";
+    private static final int PASSO_SEGUNDOS = 1800;
+    private static final int PASSOS = 1000;
+
+    private HidrometroSimulator simulador;
+    private ImagePersistenceService imagens;
+    private PrintStream saidaOriginal;
+
+    @Override
+    public String getNome() {
+        return "renderizacaoPorM3";
+    }
+
+    @Override
+    public int getPassos() {
+        return PASSOS;
+    }
+
+    @Override
+    public void preparar() {
+        SimulatorConfig config = ConfiguracaoDeReferencia.carregar();
+        config.setModoExecucao(ModoExecucao.HEADLESS);
+        config.setTempoExecucao(PASSOS * PASSO_SEGUNDOS);
+        config.setEscalaDeTempo(PASSO_SEGUNDOS);
+        config.setSemente(42L);
+        config.setMatricula(MATRICULA);
+
+        // O serviço anuncia cada imagem salva no console.
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        imagens = new ImagePersistenceService(config);
+        simulador = new HidrometroSimulator(config, new ControleVazao());
+        simulador.adicionarObservador(new GravadorDeImagens(new HidrometroRenderer(), imagens));
+        simulador.notificarObservadores();
+    }
+
+    @Override
+    public void avancar() {
+        simulador.avancarSimulacao();
+    }
+
+    @Override
+    public void encerrar() {
+        simulador.notificarFimSimulacao();
+        imagens.shutdown();
+        System.setOut(saidaOriginal);
+        apagarImagens();
+    }
+
+    private static void apagarImagens() {
+        Path diretorio = Path.of("Medicoes_" + MATRICULA);
+        if (!Files.exists(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> {
+                try {
+                    Files.delete(arquivo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("AVISO: Não foi possível apagar as imagens do cenário em " + diretorio);
+        }
+    }
+
+    /**
+     * A parte do {@code Display} que grava as imagens: uma imagem nova a cada m³ inteiro.
+     */
+    private static final class GravadorDeImagens implements Observador {
+        private final HidrometroRenderer renderer;
+        private final ImagePersistenceService imagens;
+        private int ultimoM3Salvo = 0;
+
+        GravadorDeImagens(HidrometroRenderer renderer, ImagePersistenceService imagens) {
+            this.renderer = renderer;
+            this.imagens = imagens;
+        }
+
+        @Override
+        public void atualizar(Medidor medidor, int tempoSimulado) {
+            float totalM3 = medidor.getM3();
+            int m3Inteiro = (int) totalM3;
+            if (m3Inteiro > ultimoM3Salvo) {
+                ultimoM3Salvo = m3Inteiro;
+                imagens.salvarImagem(renderer.gerarImagemAnalogica(totalM3), m3Inteiro);
+            }
+        }
+
+        @Override
+        public void simulacaoFinalizada(Medidor estadoFinal) {}
+    }
+}
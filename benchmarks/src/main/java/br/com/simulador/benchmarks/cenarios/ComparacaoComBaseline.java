@@ -0,0 +1,84 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara uma execução dos cenários com uma linha de base gravada e aponta as regressões.
+ *
+ * Uma métrica regride quando piora mais que a tolerância relativa <b>e</b> mais que uma folga absoluta
+ * própria dela. A folga evita alarmes em valores minúsculos: um passo que aloca 8 bytes em vez de 4
+ * dobrou, mas não é uma regressão que mereça atenção. A latência máxima é mostrada, mas não reprova
+ * (depende de pausas do sistema operacional, e não do código).
+ */
+public class ComparacaoComBaseline {
+
+    private static final List<Metrica> METRICAS = List.of(
+            new Metrica("passosPorSegundo", true, 0.0),
+            new Metrica("latenciaP50Nanos", false, 1_000.0),
+            new Metrica("latenciaP99Nanos", false, 5_000.0),
+            new Metrica("picoHeapBytes", false, 8.0 * 1024 * 1024),
+            new Metrica("bytesAlocadosPorPasso", false, 64.0));
+
+    private final double tolerancia;
+
+    /**
+     * @param tolerancia A piora relativa aceita, de 0.0 a 1.0 (ex: 0.10 para 10%).
+     */
+    public ComparacaoComBaseline(double tolerancia) {
+        if (!(tolerancia >= 0.0)) {
+            throw new IllegalArgumentException("A tolerância deve ser maior ou igual a zero: " + tolerancia);
+        }
+        this.tolerancia = tolerancia;
+    }
+
+    /**
+     * Imprime a comparação de cada cenário presente nas duas execuções.
+     *
+     * @return {@code true} se alguma métrica regrediu.
+     */
+    public boolean comparar(Map<String, ResultadoDeCenario> baseline, Map<String, ResultadoDeCenario> atual) {
+        boolean regrediu = false;
+        for (ResultadoDeCenario depois : atual.values()) {
+            ResultadoDeCenario antes = baseline.get(depois.nome());
+            System.out.println("--- " + depois.nome() + " ---");
+            if (antes == null) {
+                System.out.println("  (sem linha de base)");
+                continue;
+            }
+            for (Metrica metrica : METRICAS) {
+                double valorAntes = antes.metrica(metrica.chave());
+                double valorDepois = depois.metrica(metrica.chave());
+                boolean regressao = metrica.regrediu(valorAntes, valorDepois, tolerancia);
+                regrediu |= regressao;
+                System.out.printf(Locale.ROOT, "  %-22s %16.1f -> %16.1f  %+7.1f%%%s%n", metrica.chave(),
+                        valorAntes, valorDepois, variacao(valorAntes, valorDepois),
+                        regressao ? "  REGRESSÃO" : "");
+            }
+            System.out.printf(Locale.ROOT, "  %-22s %16d -> %16d%n", "latenciaMaximaNanos",
+                    antes.latenciaMaximaNanos(), depois.latenciaMaximaNanos());
+        }
+        for (String nome : baseline.keySet()) {
+            if (!atual.containsKey(nome)) {
+                System.out.println("--- " + nome + " --- (ausente na execução atual)");
+            }
+        }
+        return regrediu;
+    }
+
+    private static double variacao(double antes, double depois) {
+        return antes == 0 ? 0.0 : (depois - antes) / antes * 100.0;
+    }
+
+    /**
+     * @param maiorEhMelhor Se a métrica melhora ao crescer (taxa) ou ao diminuir (latência, memória).
+     * @param folgaAbsoluta A piora mínima, na unidade da métrica, para que haja regressão.
+     */
+    private record Metrica(String chave, boolean maiorEhMelhor, double folgaAbsoluta) {
+        boolean regrediu(double antes, double depois, double tolerancia) {
+            double piora = maiorEhMelhor ? antes - depois : depois - antes;
+            return piora > folgaAbsoluta && piora > Math.abs(antes) * tolerancia;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Linha de comando dos cenários de ponta a ponta.
+ * <pre>
+ * java -cp benchmarks.jar main.java.br.com.simulador.benchmarks.cenarios.ExecutarCenarios executar [--saida arquivo.json] [cenario...]
+ * java -cp benchmarks.jar main.java.br.com.simulador.benchmarks.cenarios.ExecutarCenarios comparar baseline.json atual.json [--tolerancia 10]
+ * </pre>
+ * {@code executar} roda os cenários informados (ou todos) e grava o JSON (padrão: {@code cenarios-resultados.json}).
+ * {@code comparar} mostra a diferença de cada métrica e termina com código 1 se houver regressão
+ * acima da tolerância, em porcentagem (padrão: 10).
+ */
+public class ExecutarCenarios {
+
+    private static final String SAIDA_PADRAO = "cenarios-resultados.json";
+    private static final double TOLERANCIA_PADRAO = 10.0;
+
+    private static final Map<String, Supplier<CenarioDeCarga>> CENARIOS = new LinkedHashMap<>();
+    static {
+        registrar(CenarioMedidorUnico::new);
+        registrar(CenarioFrota::new);
+        registrar(CenarioRenderizacao::new);
+    }
+
+    private static void registrar(Supplier<CenarioDeCarga> fabrica) {
+        CENARIOS.put(fabrica.get().getNome(), fabrica);
+    }
+
+    public static void main(String[] args) {
+        // Nenhum cenário abre janela; precisa ser definido antes de qualquer classe do AWT ser carregada.
+        System.setProperty("java.awt.headless", "true");
+
+        if (args.length == 0) {
+            imprimirUso();
+            System.exit(2);
+        }
+        switch (args[0]) {
+            case "executar":
+                executar(args);
+                break;
+            case "comparar":
+                System.exit(comparar(args) ? 1 : 0);
+                break;
+            default:
+                imprimirUso();
+                System.exit(2);
+        }
+    }
+
+    private static void executar(String[] args) {
+        Path saida = Path.of(SAIDA_PADRAO);
+        List<String> nomes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--saida") && i + 1 < args.length) {
+                saida = Path.of(args[++i]);
+            } else if (CENARIOS.containsKey(args[i])) {
+                nomes.add(args[i]);
+            } else {
+                throw new IllegalArgumentException("Cenário desconhecido: " + args[i] + " (disponíveis: " + CENARIOS.keySet() + ")");
+            }
+        }
+        if (nomes.isEmpty()) {
+            nomes.addAll(CENARIOS.keySet());
+        }
+
+        MedicaoDeCenario medicao = new MedicaoDeCenario();
+        List<ResultadoDeCenario> resultados = new ArrayList<>();
+        for (String nome : nomes) {
+            System.out.println("Executando " + nome + "...");
+            ResultadoDeCenario resultado = medicao.medir(CENARIOS.get(nome));
+            System.out.printf("  %.1f passos/s, p50 %d ns, p99 %d ns, pico do heap %d MB, %.1f bytes/passo%n",
+                    resultado.passosPorSegundo(), resultado.latenciaP50Nanos(), resultado.latenciaP99Nanos(),
+                    resultado.picoHeapBytes() / (1024 * 1024), resultado.bytesAlocadosPorPasso());
+            resultados.add(resultado);
+        }
+        ArquivoDeResultados.gravar(saida, resultados);
+        System.out.println("Resultados gravados em " + saida);
+    }
+
+    /**
+     * @return {@code true} se houve regressão.
+     */
+    private static boolean comparar(String[] args) {
+        if (args.length < 3) {
+            imprimirUso();
+            System.exit(2);
+        }
+        double tolerancia = TOLERANCIA_PADRAO;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--tolerancia") && i + 1 < args.length) {
+                tolerancia = Double.parseDouble(args[++i]);
+            }
+        }
+        boolean regrediu = new ComparacaoComBaseline(tolerancia / 100.0)
+                .comparar(ArquivoDeResultados.ler(Path.of(args[1])), ArquivoDeResultados.ler(Path.of(args[2])));
+        System.out.println(regrediu ? "REGRESSÃO acima de " + tolerancia + "% encontrada." : "Nenhuma regressão acima de " + tolerancia + "%.");
+        return regrediu;
+    }
+
+    private static void imprimirUso() {
+        System.err.println("Uso: ExecutarCenarios executar [--saida arquivo.json] [cenario...]");
+        System.err.println("     ExecutarCenarios comparar <baseline.json> <atual.json> [--tolerancia 10]");
+        System.err.println("Cenários: " + CENARIOS.keySet());
+    }
+}
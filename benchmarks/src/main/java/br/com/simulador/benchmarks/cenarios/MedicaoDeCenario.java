@@ -0,0 +1,124 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Executa um cenário e mede cada passo.
+ *
+ * Antes da medição, uma instância separada do cenário roda 10% dos passos, para que o JIT compile o
+ * caminho quente; depois, com o heap recém-coletado, uma instância nova roda o cenário inteiro.
+ *
+ * Durante a medição nada é alocado pela própria medição: a duração de cada passo vai para um
+ * {@code long[]} pré-alocado, ordenado só no final para os percentis. A alocação é lida dos contadores
+ * por thread da JVM ({@code com.sun.management.ThreadMXBean}), somando todas as threads vivas no fim da
+ * execução, antes de o cenário encerrar as suas.
+ */
+public class MedicaoDeCenario {
+
+    private static final double FRACAO_AQUECIMENTO = 0.1;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<MemoryPoolMXBean> areasDoHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(area -> area.getType() == MemoryType.HEAP)
+            .toList();
+
+    public MedicaoDeCenario() {
+        if (threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Aquece e mede o cenário.
+     *
+     * @param fabrica Cria uma instância nova do cenário (uma para o aquecimento e outra para a medição).
+     * @return O resultado da execução medida.
+     */
+    public ResultadoDeCenario medir(Supplier<CenarioDeCarga> fabrica) {
+        CenarioDeCarga aquecimento = fabrica.get();
+        aquecimento.preparar();
+        int passosAquecimento = Math.max(1, (int) (aquecimento.getPassos() * FRACAO_AQUECIMENTO));
+        for (int i = 0; i < passosAquecimento; i++) {
+            aquecimento.avancar();
+        }
+        aquecimento.encerrar();
+
+        CenarioDeCarga cenario = fabrica.get();
+        cenario.preparar();
+        long[] latencias = new long[cenario.getPassos()];
+
+        System.gc();
+        for (MemoryPoolMXBean area : areasDoHeap) {
+            area.resetPeakUsage();
+        }
+        Map<Long, Long> alocadoNoInicio = alocadoPorThread();
+
+        long total = 0;
+        for (int i = 0; i < latencias.length; i++) {
+            long inicio = System.nanoTime();
+            cenario.avancar();
+            long duracao = System.nanoTime() - inicio;
+            latencias[i] = duracao;
+            total += duracao;
+        }
+
+        long alocado = alocadoDesde(alocadoNoInicio);
+        long picoHeap = 0;
+        for (MemoryPoolMXBean area : areasDoHeap) {
+            picoHeap += area.getPeakUsage().getUsed();
+        }
+        cenario.encerrar();
+
+        Arrays.sort(latencias);
+        return new ResultadoDeCenario(cenario.getNome(), latencias.length, total,
+                percentil(latencias, 0.50), percentil(latencias, 0.99), latencias[latencias.length - 1],
+                picoHeap, alocado < 0 ? -1 : (double) alocado / latencias.length);
+    }
+
+    private Map<Long, Long> alocadoPorThread() {
+        Map<Long, Long> alocado = new HashMap<>();
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            return alocado;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            alocado.put(ids[i], bytes[i]);
+        }
+        return alocado;
+    }
+
+    /**
+     * Bytes alocados desde o retrato informado, somando todas as threads vivas agora. Threads criadas
+     * durante a execução contam desde zero.
+     *
+     * @return O total, ou -1 se a JVM não oferecer os contadores.
+     */
+    private long alocadoDesde(Map<Long, Long> inicio) {
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                total += bytes[i] - inicio.getOrDefault(ids[i], 0L);
+            }
+        }
+        return total;
+    }
+
+    private static long percentil(long[] ordenados, double p) {
+        int indice = (int) Math.ceil(p * ordenados.length) - 1;
+        return ordenados[Math.max(0, Math.min(indice, ordenados.length - 1))];
+    }
+}
@@ -0,0 +1,76 @@
+package main.java.br.com.simulador.benchmarks.cenarios;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultado da execução medida de um cenário.
+ *
+ * @param nome O nome do cenário.
+ * @param passos Quantos passos foram executados.
+ * @param nanosTotais O tempo real somado de todos os passos.
+ * @param latenciaP50Nanos A mediana do tempo de um passo.
+ * @param latenciaP99Nanos O percentil 99 do tempo de um passo.
+ * @param latenciaMaximaNanos O passo mais lento.
+ * @param picoHeapBytes O pico de uso do heap durante a execução (soma dos picos de cada área do heap).
+ * @param bytesAlocadosPorPasso Bytes alocados por passo, somando todas as threads (simulação, pool, codificadores).
+ */
+public record ResultadoDeCenario(String nome, long passos, long nanosTotais, long latenciaP50Nanos,
+                                 long latenciaP99Nanos, long latenciaMaximaNanos, long picoHeapBytes,
+                                 double bytesAlocadosPorPasso) {
+
+    public double passosPorSegundo() {
+        return nanosTotais == 0 ? 0.0 : passos / (nanosTotais / 1_000_000_000.0);
+    }
+
+    /**
+     * O valor de uma métrica pelo nome usado no JSON, para a comparação com a linha de base.
+     */
+    public double metrica(String chave) {
+        switch (chave) {
+            case "passosPorSegundo": return passosPorSegundo();
+            case "latenciaP50Nanos": return latenciaP50Nanos;
+            case "latenciaP99Nanos": return latenciaP99Nanos;
+            case "latenciaMaximaNanos": return latenciaMaximaNanos;
+            case "picoHeapBytes": return picoHeapBytes;
+            case "bytesAlocadosPorPasso": return bytesAlocadosPorPasso;
+            default: throw new IllegalArgumentException("Métrica desconhecida: " + chave);
+        }
+    }
+
+    /**
+     * O resultado como um objeto JSON de uma linha.
+     */
+    public String paraJson() {
+        return String.format(Locale.ROOT,
+                "{\"nome\": \"%s\", \"passos\": %d, \"nanosTotais\": %d, \"passosPorSegundo\": %.1f, "
+                        + "\"latenciaP50Nanos\": %d, \"latenciaP99Nanos\": %d, \"latenciaMaximaNanos\": %d, "
+                        + "\"picoHeapBytes\": %d, \"bytesAlocadosPorPasso\": %.1f}",
+                nome, passos, nanosTotais, passosPorSegundo(), latenciaP50Nanos, latenciaP99Nanos,
+                latenciaMaximaNanos, picoHeapBytes, bytesAlocadosPorPasso);
+    }
+
+    /**
+     * Reconstrói um resultado a partir dos campos de um objeto JSON gravado por {@link #paraJson()}.
+     * A taxa de passos é recalculada a partir de {@code passos} e {@code nanosTotais}.
+     */
+    static ResultadoDeCenario deCampos(Map<String, String> campos) {
+        return new ResultadoDeCenario(
+                campo(campos, "nome"),
+                Long.parseLong(campo(campos, "passos")),
+                Long.parseLong(campo(campos, "nanosTotais")),
+                Long.parseLong(campo(campos, "latenciaP50Nanos")),
+                Long.parseLong(campo(campos, "latenciaP99Nanos")),
+                Long.parseLong(campo(campos, "latenciaMaximaNanos")),
+                Long.parseLong(campo(campos, "picoHeapBytes")),
+                Double.parseDouble(campo(campos, "bytesAlocadosPorPasso")));
+    }
+
+    private static String campo(Map<String, String> campos, String chave) {
+        String valor = campos.get(chave);
+        if (valor == null) {
+            throw new IllegalArgumentException("Campo ausente no resultado do cenário: " + chave);
+        }
+        return valor;
+    }
+}
@@ -30,6 +30,11 @@ public enum Bitola {
     private final float diametro; // em metros
     /** A vazão máxima (Qmax) suportada pelo hidrômetro, em metros cúbicos por segundo (m³/s). */
     private final float qmax;     // em m³/s
+    /**
+     * A área da seção interna (m²), pré-calculada uma única vez a partir do diâmetro.
+     * Evita recalcular {@code Math.PI * raio * raio} a cada passo da simulação.
+     */
+    private final float area;     // em m²
 
     /**
      * Construtor do enum. Em enums, o construtor é sempre 'private' por padrão.
@@ -43,6 +48,8 @@ public enum Bitola {
         this.polegada = polegada;
         this.diametro = diametro;
         this.qmax = qmax;
+        float raio = diametro / 2.0f;
+        this.area = (float) (Math.PI * raio * raio);
     }
 
     // --- Métodos de Acesso (Getters) ---
@@ -61,6 +68,10 @@ public enum Bitola {
         return qmax;
     }
 
+    public float getArea() {
+        return area;
+    }
+
     /**
      * Método de fábrica estático para converter uma String em uma constante Bitola.
      *
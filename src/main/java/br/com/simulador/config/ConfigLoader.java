@@ -53,9 +53,10 @@ public class ConfigLoader {
                 String valor = partes[1].trim();
 
                 // 4. Preenche o objeto 'config' usando seus métodos setters.
-                // Trata de forma especial as chaves relacionadas ao perfil de consumo,
+                // Trata de forma especial as chaves relacionadas ao perfil de consumo e ao calendário,
                 // adicionando-as a um mapa para maior flexibilidade.
-                if (chave.startsWith("madrugada_") || chave.startsWith("manha_") || chave.startsWith("tarde_") || chave.startsWith("noite_")) {
+                if (chave.startsWith("madrugada_") || chave.startsWith("manha_") || chave.startsWith("tarde_") || chave.startsWith("noite_")
+                        || chave.startsWith("perfil.") || chave.startsWith("calendario.")) {
                     config.addPerfilDeConsumoProperty(chave, valor);
                     continue; // Pula para a próxima linha após processar a propriedade de perfil.
                 }
@@ -87,6 +88,75 @@ public class ConfigLoader {
                     case "matricula":
                         config.setMatricula(valor);
                         break;
+                    case "modoExecucao":
+                        config.setModoExecucao(ModoExecucao.fromString(valor));
+                        break;
+                    case "notificacaoAssincrona":
+                        config.setNotificacaoAssincrona(Boolean.parseBoolean(valor));
+                        break;
+                    case "registro.arquivo":
+                        config.setRegistroArquivo(valor);
+                        break;
+                    case "registro.formato":
+                        config.setRegistroFormato(valor);
+                        break;
+                    case "registro.amostragem":
+                        config.setRegistroAmostragem(Integer.parseInt(valor));
+                        break;
+                    case "registro.somenteMudancaVolume":
+                        config.setRegistroSomenteMudancaVolume(Boolean.parseBoolean(valor));
+                        break;
+                    case "historico.diretorio":
+                        config.setHistoricoDiretorio(valor);
+                        break;
+                    case "checkpoint.arquivo":
+                        config.setCheckpointArquivo(valor);
+                        break;
+                    case "checkpoint.intervaloPassos":
+                        config.setCheckpointIntervaloPassos(Integer.parseInt(valor));
+                        break;
+                    case "semente":
+                        config.setSemente(Long.parseLong(valor));
+                        break;
+                    case "replay.gravar":
+                        config.setReplayGravar(valor);
+                        break;
+                    case "replay.reproduzir":
+                        config.setReplayReproduzir(valor);
+                        break;
+                    case "vazao.roteiro":
+                        config.setVazaoRoteiro(valor);
+                        break;
+                    case "recarregarConfiguracao":
+                        config.setRecarregarConfiguracao(Boolean.parseBoolean(valor));
+                        break;
+                    case "imagem.qualidade":
+                        config.setImagemQualidade(Float.parseFloat(valor));
+                        break;
+                    case "imagem.fila":
+                        config.setImagemFila(Integer.parseInt(valor));
+                        break;
+                    case "imagem.codificadores":
+                        config.setImagemCodificadores(Integer.parseInt(valor));
+                        break;
+                    case "imagem.politica":
+                        config.setImagemPolitica(valor);
+                        break;
+                    case "mjpeg.porta":
+                        config.setMjpegPorta(Integer.parseInt(valor));
+                        break;
+                    case "mjpeg.fps":
+                        config.setMjpegFps(Integer.parseInt(valor));
+                        break;
+                    case "metricas.ativas":
+                        config.setMetricasAtivas(Boolean.parseBoolean(valor));
+                        break;
+                    case "metricas.intervaloLog":
+                        config.setMetricasIntervaloLog(Integer.parseInt(valor));
+                        break;
+                    case "jfr.eventos":
+                        config.setJfrEventos(Boolean.parseBoolean(valor));
+                        break;
                     default:
                         // Se uma chave no arquivo não for reconhecida, ela é ignorada, e um aviso é impresso.
                         // Isso torna o sistema mais robusto a configurações desconhecidas.
@@ -0,0 +1,47 @@
+package main.java.br.com.simulador.config;
+
+/**
+ * Enumeração que define como o {@code Controller} conduz o laço principal da simulação.
+ */
+public enum ModoExecucao {
+
+    /**
+     * Modo padrão: abre a janela Swing e pausa entre os passos, respeitando o
+     * {@code intervaloAtualizacao} para que a simulação possa ser acompanhada visualmente.
+     */
+    TEMPO_REAL("tempoReal"),
+
+    /**
+     * Modo "o mais rápido possível": não abre nenhuma janela e executa os passos em sequência,
+     * sem pausas. O tempo avança apenas no relógio virtual da simulação. Usado em relatórios
+     * noturnos e execuções de regressão.
+     */
+    HEADLESS("headless");
+
+    /** O valor usado no arquivo de configuração. */
+    private final String chave;
+
+    ModoExecucao(String chave) {
+        this.chave = chave;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Converte o valor lido do arquivo de configuração em uma constante do enum.
+     *
+     * @param chave O valor em texto (ex: "tempoReal", "headless").
+     * @return A constante {@link ModoExecucao} correspondente.
+     * @throws IllegalArgumentException se o valor não corresponder a nenhum modo suportado.
+     */
+    public static ModoExecucao fromString(String chave) {
+        for (ModoExecucao modo : ModoExecucao.values()) {
+            if (modo.chave.equalsIgnoreCase(chave)) {
+                return modo;
+            }
+        }
+        throw new IllegalArgumentException("Modo de execução não suportado: " + chave);
+    }
+}
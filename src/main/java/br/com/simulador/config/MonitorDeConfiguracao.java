@@ -0,0 +1,116 @@
+package main.java.br.com.simulador.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Observa o arquivo de configuração e o recarrega quando ele é alterado, sem reiniciar a simulação.
+ *
+ * Usa o {@link WatchService} do sistema de arquivos em uma thread própria. Quando o arquivo muda, ele é
+ * lido novamente pelo {@link ConfigLoader} e a nova configuração é entregue ao consumidor informado, ainda
+ * nesta thread: toda a conversão e validação acontecem fora da thread da simulação. Se o arquivo novo for
+ * inválido, o erro é impresso e a configuração em uso continua valendo.
+ */
+public class MonitorDeConfiguracao implements AutoCloseable {
+
+    /**
+     * Editores costumam gravar um arquivo em várias etapas; espera este tempo, sem novos eventos,
+     * antes de recarregar, para não ler um arquivo pela metade.
+     */
+    private static final long ESPERA_ESTABILIZAR_MS = 200;
+
+    private final Path arquivo;
+    private final WatchService watchService;
+    private final Consumer<SimulatorConfig> consumidor;
+    private final Thread thread;
+
+    private volatile long recargas = 0;
+
+    /**
+     * Começa a observar o arquivo.
+     *
+     * @param arquivo O arquivo de configuração.
+     * @param consumidor Recebe cada nova configuração carregada (na thread do monitor).
+     *                   Pode lançar exceção para rejeitá-la.
+     * @throws RuntimeException se o diretório do arquivo não puder ser observado.
+     */
+    public MonitorDeConfiguracao(Path arquivo, Consumer<SimulatorConfig> consumidor) {
+        this.arquivo = arquivo.toAbsolutePath();
+        this.consumidor = consumidor;
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            // O WatchService observa diretórios; os eventos são filtrados pelo nome do arquivo.
+            this.arquivo.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao observar arquivo de configuração: " + arquivo, e);
+        }
+        this.thread = new Thread(this::observar, "monitor-configuracao");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void observar() {
+        try {
+            while (true) {
+                WatchKey chave = watchService.take();
+                boolean alterado = filtrar(chave);
+                // Agrupa a rajada de eventos de uma única gravação.
+                while (alterado && (chave = watchService.poll(ESPERA_ESTABILIZAR_MS, TimeUnit.MILLISECONDS)) != null) {
+                    filtrar(chave);
+                }
+                if (alterado) {
+                    recarregar();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Monitor encerrado.
+        }
+    }
+
+    /**
+     * Consome os eventos da chave e informa se algum deles se refere ao arquivo observado.
+     */
+    private boolean filtrar(WatchKey chave) {
+        boolean alterado = false;
+        for (WatchEvent<?> evento : chave.pollEvents()) {
+            Object contexto = evento.context();
+            if (contexto instanceof Path nome && nome.equals(arquivo.getFileName())) {
+                alterado = true;
+            }
+        }
+        chave.reset();
+        return alterado;
+    }
+
+    private void recarregar() {
+        try {
+            SimulatorConfig nova = new ConfigLoader().carregarDeArquivo(arquivo.toString());
+            consumidor.accept(nova);
+            recargas++;
+            System.out.println("Configuração recarregada: " + arquivo);
+        } catch (RuntimeException e) {
+            System.err.println("Configuração alterada é inválida e foi ignorada: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao encerrar monitor de configuração: " + arquivo, e);
+        }
+        thread.interrupt();
+    }
+
+    public long getRecargas() { return recargas; }
+}
@@ -1,6 +1,7 @@
 package main.java.br.com.simulador.config;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -18,7 +19,48 @@ public class SimulatorConfig {
     private float pressaoMaxima;
     private boolean simularAr;
     private String matricula;
-    private final Map<String, String> perfilDeConsumoProps = new HashMap<>();
+    private ModoExecucao modoExecucao = ModoExecucao.TEMPO_REAL;
+    private boolean notificacaoAssincrona;
+    /** Arquivo onde as leituras são gravadas em formato estruturado, ou {@code null} para apenas o log no console. */
+    private String registroArquivo;
+    private String registroFormato = "csv";
+    private int registroAmostragem = 1;
+    private boolean registroSomenteMudancaVolume;
+    /** Diretório do histórico de leituras mapeado em memória, ou {@code null} se desativado. */
+    private String historicoDiretorio;
+    /** Arquivo de checkpoint mapeado em memória, ou {@code null} se desativado. */
+    private String checkpointArquivo;
+    private int checkpointIntervaloPassos = 60;
+    /** Semente do gerador aleatório, ou {@code null} para uma semente diferente a cada execução. */
+    private Long semente;
+    /** Log onde as entradas externas são gravadas, ou {@code null}. */
+    private String replayGravar;
+    /** Log cujas entradas são reproduzidas (sem janela), ou {@code null}. */
+    private String replayReproduzir;
+    /** Arquivo com o roteiro de vazão, ou {@code null} para apenas o slider. */
+    private String vazaoRoteiro;
+    /** Se o arquivo de configuração é observado e recarregado durante a execução. */
+    private boolean recarregarConfiguracao;
+    /** Qualidade JPEG das imagens salvas, de 0.0 a 1.0 (0.75 é o padrão do ImageIO). */
+    private float imagemQualidade = 0.75f;
+    /** Quantas imagens podem esperar na fila de gravação. */
+    private int imagemFila = 8;
+    /** Quantas threads codificam e gravam imagens em paralelo. */
+    private int imagemCodificadores = 2;
+    /** O que fazer quando a fila de imagens está cheia (bloquear, descartarMaisAntigo, conflatar). */
+    private String imagemPolitica = "bloquear";
+    /** Porta local da transmissão MJPEG, ou {@code null} se desativada. */
+    private Integer mjpegPorta;
+    /** Taxa máxima de quadros por segundo da transmissão MJPEG. */
+    private int mjpegFps = 10;
+    /** Se os histogramas de latência e os contadores são coletados e publicados no JMX. */
+    private boolean metricasAtivas;
+    /** Intervalo, em segundos, do retrato periódico das métricas no console (0 desativa). */
+    private int metricasIntervaloLog = 60;
+    /** Se os eventos próprios do simulador são emitidos para o Java Flight Recorder. */
+    private boolean jfrEventos;
+    /** Mantém a ordem do arquivo, pois a ordem de declaração dos perfis define a prioridade entre eles. */
+    private final Map<String, String> perfilDeConsumoProps = new LinkedHashMap<>();
 
     /**
      * Construtor padrão. Cria um objeto de configuração vazio.
@@ -52,6 +94,29 @@ public class SimulatorConfig {
         this.pressaoMaxima = outraConfig.pressaoMaxima;
         this.simularAr = outraConfig.simularAr;
         this.matricula = outraConfig.matricula;
+        this.modoExecucao = outraConfig.modoExecucao;
+        this.notificacaoAssincrona = outraConfig.notificacaoAssincrona;
+        this.registroArquivo = outraConfig.registroArquivo;
+        this.registroFormato = outraConfig.registroFormato;
+        this.registroAmostragem = outraConfig.registroAmostragem;
+        this.registroSomenteMudancaVolume = outraConfig.registroSomenteMudancaVolume;
+        this.historicoDiretorio = outraConfig.historicoDiretorio;
+        this.checkpointArquivo = outraConfig.checkpointArquivo;
+        this.checkpointIntervaloPassos = outraConfig.checkpointIntervaloPassos;
+        this.semente = outraConfig.semente;
+        this.replayGravar = outraConfig.replayGravar;
+        this.replayReproduzir = outraConfig.replayReproduzir;
+        this.vazaoRoteiro = outraConfig.vazaoRoteiro;
+        this.recarregarConfiguracao = outraConfig.recarregarConfiguracao;
+        this.imagemQualidade = outraConfig.imagemQualidade;
+        this.imagemFila = outraConfig.imagemFila;
+        this.imagemCodificadores = outraConfig.imagemCodificadores;
+        this.imagemPolitica = outraConfig.imagemPolitica;
+        this.mjpegPorta = outraConfig.mjpegPorta;
+        this.mjpegFps = outraConfig.mjpegFps;
+        this.metricasAtivas = outraConfig.metricasAtivas;
+        this.metricasIntervaloLog = outraConfig.metricasIntervaloLog;
+        this.jfrEventos = outraConfig.jfrEventos;
         // Limpa o mapa atual e copia todos os dados do mapa do outro objeto.
         this.perfilDeConsumoProps.clear();
         this.perfilDeConsumoProps.putAll(outraConfig.perfilDeConsumoProps);
@@ -66,7 +131,31 @@ public class SimulatorConfig {
     public int getEscalaDeTempo() { return escalaDeTempo; }
     public float getPressaoMinima() { return pressaoMinima; }
     public float getPressaoMaxima() { return pressaoMaxima; }
+    public ModoExecucao getModoExecucao() { return modoExecucao; }
+    public boolean isNotificacaoAssincrona() { return notificacaoAssincrona; }
+    public String getRegistroArquivo() { return registroArquivo; }
+    public String getRegistroFormato() { return registroFormato; }
+    public int getRegistroAmostragem() { return registroAmostragem; }
+    public boolean isRegistroSomenteMudancaVolume() { return registroSomenteMudancaVolume; }
+    public String getHistoricoDiretorio() { return historicoDiretorio; }
+    public String getCheckpointArquivo() { return checkpointArquivo; }
+    public int getCheckpointIntervaloPassos() { return checkpointIntervaloPassos; }
+    public Long getSemente() { return semente; }
+    public String getReplayGravar() { return replayGravar; }
+    public String getReplayReproduzir() { return replayReproduzir; }
+    public String getVazaoRoteiro() { return vazaoRoteiro; }
+    public boolean isRecarregarConfiguracao() { return recarregarConfiguracao; }
+    public float getImagemQualidade() { return imagemQualidade; }
+    public int getImagemFila() { return imagemFila; }
+    public int getImagemCodificadores() { return imagemCodificadores; }
+    public String getImagemPolitica() { return imagemPolitica; }
+    public Integer getMjpegPorta() { return mjpegPorta; }
+    public int getMjpegFps() { return mjpegFps; }
+    public boolean isMetricasAtivas() { return metricasAtivas; }
+    public int getMetricasIntervaloLog() { return metricasIntervaloLog; }
+    public boolean isJfrEventos() { return jfrEventos; }
     public String getPerfilDeConsumoProperty(String key) { return perfilDeConsumoProps.get(key); }
+    public Map<String, String> getPerfilDeConsumoProperties() { return Collections.unmodifiableMap(perfilDeConsumoProps); }
 
     // --- SETTERS ---
     // Usados pelo ConfigLoader para preencher um objeto vazio.
@@ -78,5 +167,28 @@ public class SimulatorConfig {
     public void setPressaoMaxima(float pressaoMaxima) { this.pressaoMaxima = pressaoMaxima; }
     public void setSimularAr(boolean simularAr) { this.simularAr = simularAr; }
     public void setMatricula(String matricula) { this.matricula = matricula; }
+    public void setModoExecucao(ModoExecucao modoExecucao) { this.modoExecucao = modoExecucao; }
+    public void setNotificacaoAssincrona(boolean notificacaoAssincrona) { this.notificacaoAssincrona = notificacaoAssincrona; }
+    public void setRegistroArquivo(String registroArquivo) { this.registroArquivo = registroArquivo; }
+    public void setRegistroFormato(String registroFormato) { this.registroFormato = registroFormato; }
+    public void setRegistroAmostragem(int registroAmostragem) { this.registroAmostragem = registroAmostragem; }
+    public void setRegistroSomenteMudancaVolume(boolean registroSomenteMudancaVolume) { this.registroSomenteMudancaVolume = registroSomenteMudancaVolume; }
+    public void setHistoricoDiretorio(String historicoDiretorio) { this.historicoDiretorio = historicoDiretorio; }
+    public void setCheckpointArquivo(String checkpointArquivo) { this.checkpointArquivo = checkpointArquivo; }
+    public void setCheckpointIntervaloPassos(int checkpointIntervaloPassos) { this.checkpointIntervaloPassos = checkpointIntervaloPassos; }
+    public void setSemente(Long semente) { this.semente = semente; }
+    public void setReplayGravar(String replayGravar) { this.replayGravar = replayGravar; }
+    public void setReplayReproduzir(String replayReproduzir) { this.replayReproduzir = replayReproduzir; }
+    public void setVazaoRoteiro(String vazaoRoteiro) { this.vazaoRoteiro = vazaoRoteiro; }
+    public void setRecarregarConfiguracao(boolean recarregarConfiguracao) { this.recarregarConfiguracao = recarregarConfiguracao; }
+    public void setImagemQualidade(float imagemQualidade) { this.imagemQualidade = imagemQualidade; }
+    public void setImagemFila(int imagemFila) { this.imagemFila = imagemFila; }
+    public void setImagemCodificadores(int imagemCodificadores) { this.imagemCodificadores = imagemCodificadores; }
+    public void setImagemPolitica(String imagemPolitica) { this.imagemPolitica = imagemPolitica; }
+    public void setMjpegPorta(Integer mjpegPorta) { this.mjpegPorta = mjpegPorta; }
+    public void setMjpegFps(int mjpegFps) { this.mjpegFps = mjpegFps; }
+    public void setMetricasAtivas(boolean metricasAtivas) { this.metricasAtivas = metricasAtivas; }
+    public void setMetricasIntervaloLog(int metricasIntervaloLog) { this.metricasIntervaloLog = metricasIntervaloLog; }
+    public void setJfrEventos(boolean jfrEventos) { this.jfrEventos = jfrEventos; }
     public void addPerfilDeConsumoProperty(String key, String value) { this.perfilDeConsumoProps.put(key, value); }
 }
\ No newline at end of file
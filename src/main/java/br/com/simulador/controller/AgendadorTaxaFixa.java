@@ -0,0 +1,132 @@
+package main.java.br.com.simulador.controller;
+
+import main.java.br.com.simulador.hidrometro.HidrometroSimulator;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Conduz a simulação em tempo real a uma taxa fixa, sem acumular atraso (drift).
+ *
+ * O laço antigo fazia {@code Thread.sleep(intervalo)} depois de cada passo, de modo que o tempo
+ * gasto no próprio passo (cálculo, renderização, impressão no console) se somava ao intervalo e
+ * a simulação ia ficando cada vez mais atrasada em relação ao relógio de parede.
+ *
+ * Aqui, o prazo de cada passo é calculado a partir do instante de início em um relógio monotônico
+ * ({@link System#nanoTime()}): o passo {@code n} vence em {@code inicio + n * periodo}. Se o
+ * agendador acordar atrasado, executa de uma vez todos os passos já vencidos (até um limite por lote)
+ * e notifica os observadores uma única vez, com o estado mais recente.
+ *
+ * As métricas são {@code volatile} para que possam ser lidas por outra thread durante a execução.
+ */
+public class AgendadorTaxaFixa {
+
+    private final long periodoNanos;
+    private final int maxPassosPorLote;
+
+    private volatile long passosExecutados = 0;
+    private volatile long lotesExecutados = 0;
+    /** Quantidade de lotes em que mais de um passo estava vencido (o agendador ficou para trás). */
+    private volatile long lotesComAtraso = 0;
+    private volatile long atrasoAtualNanos = 0;
+    private volatile long atrasoMaximoNanos = 0;
+
+    private volatile boolean paradaSolicitada = false;
+    private volatile Thread executora;
+
+    /**
+     * @param periodoMillis O intervalo de tempo real entre dois passos, em milissegundos.
+     * @param maxPassosPorLote Limite de passos executados em um único lote de recuperação. Evita que
+     *                         um atraso muito grande congele os observadores por tempo demais.
+     */
+    public AgendadorTaxaFixa(long periodoMillis, int maxPassosPorLote) {
+        if (periodoMillis <= 0) {
+            throw new IllegalArgumentException("O período do agendador deve ser positivo: " + periodoMillis);
+        }
+        if (maxPassosPorLote < 1) {
+            throw new IllegalArgumentException("O lote deve ter pelo menos um passo: " + maxPassosPorLote);
+        }
+        this.periodoNanos = periodoMillis * 1_000_000L;
+        this.maxPassosPorLote = maxPassosPorLote;
+    }
+
+    /**
+     * Executa a simulação até que ela termine, a thread seja interrompida ou uma parada seja solicitada.
+     * Em caso de interrupção, o status de interrupção da thread é restaurado.
+     *
+     * @param simulator O simulador a ser avançado.
+     */
+    public void executar(HidrometroSimulator simulator) {
+        executora = Thread.currentThread();
+        long inicio = System.nanoTime();
+        long proximoPrazo = inicio + periodoNanos;
+
+        while (!simulator.isFinalizado()) {
+            // 1. Aguarda até o prazo do próximo passo, medido no relógio monotônico.
+            long agora = System.nanoTime();
+            while (agora < proximoPrazo) {
+                LockSupport.parkNanos(proximoPrazo - agora);
+                if (Thread.currentThread().isInterrupted() || paradaSolicitada) {
+                    System.out.println("Simulação interrompida.");
+                    return;
+                }
+                agora = System.nanoTime();
+            }
+
+            // 2. Calcula quantos passos já venceram desde o último lote.
+            long vencidos = (agora - proximoPrazo) / periodoNanos + 1;
+            int passosNoLote = (int) Math.min(vencidos, maxPassosPorLote);
+
+            // 3. Executa os passos vencidos e notifica os observadores uma única vez.
+            for (int i = 0; i < passosNoLote && !simulator.isFinalizado(); i++) {
+                simulator.avancarSemNotificar();
+            }
+            simulator.notificarObservadores();
+
+            // 4. Atualiza as métricas. O prazo avança só pelo que foi executado, de modo que
+            // passos que excederam o limite do lote continuam vencidos e serão recuperados no próximo.
+            proximoPrazo += passosNoLote * periodoNanos;
+            long atraso = Math.max(0, System.nanoTime() - proximoPrazo + periodoNanos);
+            passosExecutados += passosNoLote;
+            lotesExecutados++;
+            if (vencidos > 1) {
+                lotesComAtraso++;
+            }
+            atrasoAtualNanos = atraso;
+            if (atraso > atrasoMaximoNanos) {
+                atrasoMaximoNanos = atraso;
+            }
+        }
+    }
+
+    /**
+     * Pede que {@link #executar(HidrometroSimulator)} retorne antes do próximo passo, sem interromper a thread.
+     * Ao contrário da interrupção, a thread continua livre para esperar a finalização dos observadores.
+     */
+    public void solicitarParada() {
+        paradaSolicitada = true;
+        Thread thread = executora;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Imprime no console o resumo do ritmo da execução, no mesmo formato de bloco usado pela {@code Saida}.
+     */
+    public void imprimirResumo() {
+        System.out.println("=============================================");
+        System.out.println("         RITMO DO TEMPO REAL");
+        System.out.println("=============================================");
+        System.out.println("Passos executados: " + passosExecutados);
+        System.out.println("Lotes executados: " + lotesExecutados);
+        System.out.println("Lotes com atraso: " + lotesComAtraso);
+        System.out.printf("Atraso máximo: %.1f ms%n", atrasoMaximoNanos / 1_000_000.0);
+        System.out.println("=============================================");
+    }
+
+    public long getPassosExecutados() { return passosExecutados; }
+    public long getLotesExecutados() { return lotesExecutados; }
+    public long getLotesComAtraso() { return lotesComAtraso; }
+    public long getAtrasoAtualNanos() { return atrasoAtualNanos; }
+    public long getAtrasoMaximoNanos() { return atrasoMaximoNanos; }
+}
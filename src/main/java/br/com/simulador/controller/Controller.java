@@ -1,10 +1,36 @@
 package main.java.br.com.simulador.controller;
 
+import main.java.br.com.simulador.config.ModoExecucao;
+import main.java.br.com.simulador.config.MonitorDeConfiguracao;
 import main.java.br.com.simulador.config.SimulatorConfig;
 import main.java.br.com.simulador.hidrometro.ControleVazao;
 import main.java.br.com.simulador.hidrometro.display.Display;
+import main.java.br.com.simulador.hidrometro.display.TransmissaoMjpeg;
 import main.java.br.com.simulador.hidrometro.HidrometroSimulator;
 import main.java.br.com.simulador.hidrometro.Saida;
+import main.java.br.com.simulador.hidrometro.GeradorReprodutivel;
+import main.java.br.com.simulador.hidrometro.ParametrosDaSimulacao;
+import main.java.br.com.simulador.hidrometro.RoteiroDeVazao;
+import main.java.br.com.simulador.hidrometro.checkpoint.ArquivoDeCheckpoint;
+import main.java.br.com.simulador.hidrometro.replay.GravadorDeEntradas;
+import main.java.br.com.simulador.hidrometro.replay.ReprodutorDeEntradas;
+import main.java.br.com.simulador.hidrometro.historico.ArmazemDeSeries;
+import main.java.br.com.simulador.jfr.ObservadorComEventosJfr;
+import main.java.br.com.simulador.metricas.MetricasDaSimulacao;
+import main.java.br.com.simulador.hidrometro.registro.FormatoRegistro;
+import main.java.br.com.simulador.hidrometro.registro.RegistradorDeLeituras;
+import main.java.br.com.simulador.observer.AcumuladorDeLote;
+import main.java.br.com.simulador.observer.BarramentoDeEventos;
+import main.java.br.com.simulador.observer.CanalDeObservador;
+import main.java.br.com.simulador.observer.Observador;
+import main.java.br.com.simulador.observer.ObservadorComEstado;
+import main.java.br.com.simulador.observer.PoliticaDeEntrega;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Orquestra o ciclo de vida completo da aplicação de simulação.
@@ -20,6 +46,39 @@ public class Controller {
     private final SimulatorConfig config;
     /** Referência para o motor principal da simulação. */
     private final HidrometroSimulator simulator;
+    /** Agendador que mantém a taxa fixa de passos no modo de tempo real. */
+    private final AgendadorTaxaFixa agendador;
+
+    /** Monitor que recarrega o arquivo de configuração, ou {@code null} se a recarga estiver desativada. */
+    private final MonitorDeConfiguracao monitorDeConfiguracao;
+    /** Arquivo de checkpoint, ou {@code null} se os checkpoints estiverem desativados. */
+    private final ArquivoDeCheckpoint checkpoint;
+    /** Transmissão MJPEG para o navegador, ou {@code null} se desativada. */
+    private final TransmissaoMjpeg transmissao;
+
+    /** Histogramas e contadores publicados no JMX, ou {@code null} se as métricas estiverem desativadas. */
+    private final MetricasDaSimulacao metricas;
+
+    /** Barramento assíncrono dos observadores, ou {@code null} se a notificação for síncrona. */
+    private final BarramentoDeEventos barramento;
+
+    /**
+     * Acumuladores dos registros de leituras (e o canal de cada um no barramento, se houver), descarregados
+     * antes de cada checkpoint.
+     */
+    private final List<RegistroDescarregavel> registros = new ArrayList<>();
+
+    /** Limite de passos atrasados recuperados em um único lote no modo de tempo real. */
+    private static final int MAX_PASSOS_POR_LOTE = 10;
+    /** Quantidade de leituras acumuladas antes de cada entrega ao registro estruturado. */
+    private static final int TAMANHO_LOTE_REGISTRO = 4096;
+    /**
+     * Tempo real máximo, em milissegundos, que uma leitura fica num lote parcial antes de chegar ao registro.
+     * Em tempo real, um lote de {@value #TAMANHO_LOTE_REGISTRO} leituras levaria mais de uma hora para encher.
+     */
+    private static final long INTERVALO_DESCARGA_REGISTRO_MS = 1000;
+    /** Tempo máximo, em segundos, que o encerramento da JVM espera a simulação descarregar os observadores. */
+    private static final long TEMPO_MAXIMO_ENCERRAMENTO_S = 10;
 
     /**
      * Constrói o Controller, inicializando e interconectando todo o sistema.
@@ -32,6 +91,22 @@ public class Controller {
         // Nota: Em uma refatoração anterior, movemos esta lógica para uma classe 'ConfigLoader'.
         this.config = new SimulatorConfig(configPath);
 
+        // Na reprodução de um log, a semente, a escala de tempo e a duração vêm do próprio log,
+        // e a execução é sempre headless, o mais rápido possível.
+        ReprodutorDeEntradas reprodutor = null;
+        if (config.getReplayReproduzir() != null) {
+            reprodutor = ReprodutorDeEntradas.carregar(Paths.get(config.getReplayReproduzir()));
+            config.setSemente(reprodutor.getSemente());
+            config.setEscalaDeTempo(reprodutor.getEscalaDeTempo());
+            config.setModoExecucao(ModoExecucao.HEADLESS);
+            if (config.getTempoExecucao() == -1 && reprodutor.getTempoFinal() >= 0) {
+                config.setTempoExecucao(reprodutor.getTempoFinal());
+            }
+        } else if (config.getReplayGravar() != null && config.getSemente() == null) {
+            // Para que a gravação possa ser reproduzida, a semente precisa ser conhecida.
+            config.setSemente(new GeradorReprodutivel().nextLong());
+        }
+
         // --- ETAPA 2: CRIAR E CONECTAR OS COMPONENTES (COMPOSITION ROOT) ---
 
         // Cria a instância ÚNICA do objeto de estado que será compartilhado entre a UI e a simulação.
@@ -41,49 +116,339 @@ public class Controller {
         // Cria o motor da simulação, injetando as dependências de que ele precisa.
         // Nota: Em uma refatoração posterior, injetamos uma 'EntradaFactory' em vez do 'ControleVazao'.
         this.simulator = new HidrometroSimulator(config, controleVazao);
+        // Se configurado, os caminhos quentes (passo, observadores, renderização, gravação) são medidos.
+        // Desativadas, nenhum componente recebe as métricas e nada é medido.
+        this.metricas = config.isMetricasAtivas() ? new MetricasDaSimulacao() : null;
+        if (metricas != null) {
+            simulator.ativarMetricas(metricas);
+        }
+        // Se configurado, passos, notificações, renderizações e gravações viram eventos do Java Flight Recorder.
+        if (config.isJfrEventos()) {
+            simulator.ativarEventosJfr();
+        }
+        // Se configurado, a vazão também segue um roteiro programado no tempo simulado, além do slider.
+        if (config.getVazaoRoteiro() != null) {
+            simulator.usarRoteiro(RoteiroDeVazao.carregar(Paths.get(config.getVazaoRoteiro())));
+        }
+        if (reprodutor != null) {
+            simulator.reproduzirEntradas(reprodutor);
+        }
+
+        // Se configurado, os observadores são desacoplados da thread da simulação por um barramento
+        // assíncrono: cada um ganha sua própria fila e thread, e um observador lento não atrasa os passos.
+        this.barramento = config.isNotificacaoAssincrona() ? new BarramentoDeEventos() : null;
+        if (barramento != null) {
+            simulator.adicionarObservador(barramento);
+        }
 
         // Cria a View da interface gráfica (Display) e a registra como um "ouvinte" (Observador) do simulador.
         // É crucial que a mesma instância de 'controleVazao' seja passada para o Display.
-        simulator.adicionarObservador(new Display(controleVazao, this.config));
+        // No modo headless nenhuma janela é criada: apenas os observadores sem UI são registrados.
+        // A tela só precisa do estado mais recente, então, no barramento, suas atualizações são conflatadas.
+        // Observadores com estado próprio que precisa ser gravado nos checkpoints.
+        List<ObservadorComEstado> participantesCheckpoint = new ArrayList<>();
+        if (config.getModoExecucao() != ModoExecucao.HEADLESS) {
+            Display display = new Display(controleVazao, this.config, metricas);
+            participantesCheckpoint.add(display);
+            registrarObservador(display, PoliticaDeEntrega.CONFLATAR, 4);
+        }
+
+        // Se configurado, a imagem também é transmitida para o navegador (MJPEG em http://localhost:<porta>/).
+        // Assim como a tela, a transmissão só precisa da leitura mais recente.
+        if (config.getMjpegPorta() != null) {
+            this.transmissao = new TransmissaoMjpeg(config.getMjpegPorta(), config.getMjpegFps(), config.getImagemQualidade());
+            registrarObservador(transmissao, PoliticaDeEntrega.CONFLATAR, 4);
+            System.out.println("Transmissão ao vivo em http://localhost:" + transmissao.getPorta() + "/");
+        } else {
+            this.transmissao = null;
+        }
 
         // Cria a View de saída de texto (Saida) e também a registra como um observador.
-        simulator.adicionarObservador(new Saida(this.config));
+        // O log não pode perder leituras, então a simulação espera se a fila dele encher.
+        registrarObservador(new Saida(this.config), PoliticaDeEntrega.BLOQUEAR, 1024);
+
+        // Se configurado, o estado da simulação é gravado periodicamente em um arquivo mapeado em memória.
+        // Se o arquivo já tiver um checkpoint, a simulação continua de onde parou.
+        // Na reprodução de um log o checkpoint é ignorado: a execução gravada sempre começa em t=0,
+        // e o checkpoint da execução real não pode ser sobrescrito pela reprodução.
+        // Ao terminar normalmente, o checkpoint é descartado (ver encerrarServicos): só uma execução
+        // interrompida é retomada.
+        boolean retomada = false;
+        if (config.getCheckpointArquivo() != null && reprodutor == null) {
+            this.checkpoint = new ArquivoDeCheckpoint(Paths.get(config.getCheckpointArquivo()),
+                    1, 1, participantesCheckpoint.size());
+            if (checkpoint.carregar() && config.getTempoExecucao() != -1 && checkpoint.getTempo() >= config.getTempoExecucao()) {
+                // Deixado por uma execução que já tinha chegado ao fim: não há o que retomar.
+                System.out.println("Checkpoint de uma execução já concluída descartado: " + checkpoint.getArquivo());
+                checkpoint.descartar();
+            }
+            retomada = simulator.restaurarCheckpoint(checkpoint, participantesCheckpoint);
+            if (retomada) {
+                System.out.println("Simulação retomada do checkpoint em t=" + simulator.getTempoTotalSimulado() + "s");
+            }
+            simulator.ativarCheckpoint(checkpoint, config.getCheckpointIntervaloPassos(), participantesCheckpoint,
+                    this::descarregarRegistros);
+        } else {
+            this.checkpoint = null;
+        }
+
+        // Se configurado, as entradas externas são gravadas para reprodução. O log só guarda a semente e a
+        // escala, e a reprodução começa em t=0: uma execução retomada de um checkpoint não é gravada.
+        boolean gravando = false;
+        if (config.getReplayGravar() != null && reprodutor == null) {
+            if (retomada) {
+                System.err.println("AVISO: A execução foi retomada de um checkpoint e não pode ser reproduzida desde o início. "
+                        + "O log de entradas não será gravado: " + config.getReplayGravar());
+            } else {
+                simulator.gravarEntradas(new GravadorDeEntradas(Paths.get(config.getReplayGravar()),
+                        config.getSemente(), config.getEscalaDeTempo()));
+                gravando = true;
+            }
+        }
+
+        // Se configurado, as leituras também são gravadas em arquivo estruturado (CSV, JSONL ou binário).
+        // O acumulador junta as leituras em lotes, e o registrador as grava em outra thread.
+        // Numa execução retomada de um checkpoint, as leituras são acrescentadas às da execução anterior.
+        // Em tempo real, os lotes parciais também são entregues periodicamente, para que o registro acompanhe a execução.
+        long intervaloDescarga = config.getModoExecucao() == ModoExecucao.HEADLESS ? 0 : INTERVALO_DESCARGA_REGISTRO_MS;
+        if (config.getRegistroArquivo() != null) {
+            RegistradorDeLeituras registrador = new RegistradorDeLeituras(
+                    Paths.get(config.getRegistroArquivo()),
+                    FormatoRegistro.fromString(config.getRegistroFormato()),
+                    config.getRegistroAmostragem(),
+                    config.isRegistroSomenteMudancaVolume(),
+                    retomada);
+            AcumuladorDeLote acumulador = new AcumuladorDeLote(registrador, TAMANHO_LOTE_REGISTRO, 0, intervaloDescarga);
+            registros.add(new RegistroDescarregavel(acumulador,
+                    registrarObservador(acumulador, PoliticaDeEntrega.BLOQUEAR, 1024)));
+        }
+
+        // Se configurado, o histórico completo das leituras é mantido em séries temporais mapeadas em memória,
+        // que podem ser consultadas por intervalo de tempo sem carregar tudo no heap.
+        if (config.getHistoricoDiretorio() != null) {
+            ArmazemDeSeries historico = new ArmazemDeSeries(Paths.get(config.getHistoricoDiretorio()));
+            AcumuladorDeLote acumulador = new AcumuladorDeLote(historico, TAMANHO_LOTE_REGISTRO, 0, intervaloDescarga);
+            registros.add(new RegistroDescarregavel(acumulador,
+                    registrarObservador(acumulador, PoliticaDeEntrega.BLOQUEAR, 1024)));
+        }
+
+        // Se configurado, o arquivo é observado: cada alteração vira um novo conjunto de parâmetros imutáveis,
+        // convertido e validado na thread do monitor e trocado pelo simulador entre dois passos.
+        // Na reprodução de um log a recarga é desativada, pois mudaria o resultado da execução gravada.
+        // Na gravação também: o log só registra a vazão, e uma recarga não deixaria rastro para a reprodução.
+        if (config.isRecarregarConfiguracao() && gravando) {
+            System.err.println("AVISO: A recarga da configuração fica desativada enquanto a execução é gravada (replay.gravar).");
+        }
+        if (config.isRecarregarConfiguracao() && reprodutor == null && !gravando) {
+            this.monitorDeConfiguracao = new MonitorDeConfiguracao(Paths.get(configPath), this::aplicarConfiguracaoRecarregada);
+        } else {
+            this.monitorDeConfiguracao = null;
+        }
+
+        this.agendador = new AgendadorTaxaFixa(config.getIntervaloAtualizacao(), MAX_PASSOS_POR_LOTE);
+
+        // Com todos os observadores registrados, as métricas são publicadas (JConsole, VisualVM).
+        if (metricas != null) {
+            if (config.getModoExecucao() != ModoExecucao.HEADLESS) {
+                metricas.monitorarAgendador(agendador::getLotesComAtraso, agendador::getAtrasoAtualNanos,
+                        agendador::getAtrasoMaximoNanos);
+            }
+            metricas.publicarNoJmx();
+            metricas.iniciarRelatorioPeriodico(config.getMetricasIntervaloLog());
+        }
+    }
+
+    /**
+     * Registra o observador diretamente no simulador ou, se a notificação for assíncrona, no barramento.
+     *
+     * Com as métricas ativas, o observador é registrado dentro de um {@code ObservadorMedido}; com os
+     * eventos do JFR, dentro de um {@code ObservadorComEventosJfr}.
+     *
+     * @param observador O observador a ser registrado.
+     * @param politica A política de entrega usada no barramento.
+     * @param capacidade A capacidade da fila do observador no barramento.
+     * @return O canal do observador no barramento, ou {@code null} se a notificação for síncrona.
+     */
+    private CanalDeObservador registrarObservador(Observador observador, PoliticaDeEntrega politica, int capacidade) {
+        // Os decoradores são aplicados por fora do observador real, que dá o nome às medições.
+        String nome = observador.getClass().getSimpleName();
+        if (metricas != null) {
+            observador = metricas.medir(observador);
+        }
+        if (config.isJfrEventos()) {
+            observador = new ObservadorComEventosJfr(observador, nome);
+        }
+        if (barramento != null) {
+            return barramento.registrar(observador, politica, capacidade);
+        }
+        simulator.adicionarObservador(observador);
+        return null;
+    }
+
+    /**
+     * Converte e agenda a configuração recarregada pelo monitor, na thread dele.
+     *
+     * @param nova A configuração lida do arquivo alterado.
+     * @throws IllegalArgumentException se ela for inválida; o monitor a ignora e mantém os parâmetros atuais.
+     */
+    private void aplicarConfiguracaoRecarregada(SimulatorConfig nova) {
+        // O modo de execução não muda com a recarga: uma execução headless com tempo infinito nunca terminaria.
+        if (config.getModoExecucao() == ModoExecucao.HEADLESS && nova.getTempoExecucao() == -1) {
+            throw new IllegalArgumentException("O modo headless exige um tempoExecucao finito.");
+        }
+        simulator.agendarParametros(ParametrosDaSimulacao.de(nova));
     }
 
     /**
-     * Inicia e gerencia o ciclo principal (loop) da simulação.
+     * Entrega aos registros as leituras ainda em lotes parciais e buffers, esperando antes que o barramento
+     * repasse as que estão na fila. Chamado pelo simulador antes de cada checkpoint, na thread da simulação:
+     * assim, nenhuma leitura anterior ao checkpoint se perde se a execução for interrompida.
+     */
+    private void descarregarRegistros() {
+        for (RegistroDescarregavel registro : registros) {
+            if (registro.canal() != null) {
+                try {
+                    registro.canal().aguardarEntrega();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            registro.acumulador().descarregar();
+        }
+    }
+
+    /**
+     * Inicia e gerencia o ciclo principal (loop) da simulação, de acordo com o modo configurado.
      * Este método só retorna quando a simulação for concluída ou interrompida.
      */
     public void startSimulacao() {
-        // Notifica os observadores (Display, Saida) uma vez antes do loop começar.
-        // Isso garante que o estado inicial (tempo = 0) seja exibido na tela e no console.
+        if (config.getModoExecucao() == ModoExecucao.HEADLESS) {
+            executarHeadless().imprimir();
+        } else {
+            executarTempoReal();
+        }
+    }
+
+    /**
+     * Executa a simulação "o mais rápido possível", sem janela e sem pausas entre os passos.
+     *
+     * O tempo avança apenas no relógio virtual do simulador; os observadores continuam sendo
+     * notificados a cada passo. Ao final, mede quantos segundos simulados foram processados
+     * por segundo real.
+     *
+     * @return O relatório de desempenho da execução.
+     * @throws IllegalStateException se o tempo de execução for infinito (-1), pois o laço nunca terminaria.
+     */
+    public RelatorioExecucao executarHeadless() {
+        if (config.getTempoExecucao() == -1) {
+            throw new IllegalStateException("O modo headless exige um tempoExecucao finito.");
+        }
+
         simulator.notificarObservadores();
 
-        // --- O LOOP PRINCIPAL DA APLICAÇÃO ---
-        // O loop continua enquanto a condição de término da simulação (definida no config) não for atingida.
+        // Numa execução retomada de um checkpoint, o relógio não começa em zero.
+        int tempoInicial = simulator.getTempoTotalSimulado();
+        long passos = 0;
+        long inicio = System.nanoTime();
         while (!simulator.isFinalizado()) {
-            // 1. Avança a simulação em um passo de tempo.
-            // Esta chamada aciona a lógica no 'HidrometroSimulator', que por sua vez
-            // atualiza o 'Medidor' e notifica todos os observadores (Display, Saida).
             simulator.avancarSimulacao();
+            passos++;
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        simulator.notificarFimSimulacao();
+        encerrarServicos();
+        return new RelatorioExecucao(passos, simulator.getTempoTotalSimulado() - tempoInicial, duracao);
+    }
+
+    /**
+     * Executa a simulação no ritmo da visualização, pausando entre cada passo.
+     */
+    private void executarTempoReal() {
+        // Notifica os observadores (Display, Saida) uma vez antes do loop começar.
+        // Isso garante que o estado inicial (tempo = 0) seja exibido na tela e no console.
+        simulator.notificarObservadores();
 
-            // 2. Pausa a execução para controlar a velocidade da VISUALIZAÇÃO.
-            // Isso previne que a simulação execute rápido demais para ser acompanhada visualmente.
-            // O tempo de pausa é definido no arquivo de configuração.
+        // --- O LOOP PRINCIPAL DA APLICAÇÃO ---
+        // O ritmo é ditado pelo agendador de taxa fixa: cada passo tem um prazo calculado a partir
+        // do início, de modo que o tempo gasto no próprio passo (renderização, console) não se acumula.
+        // Se a execução ficar para trás, os passos vencidos são executados em lote e os observadores
+        // (Display, Saida) são notificados uma única vez com o estado mais recente.
+        // Fechar a janela (EXIT_ON_CLOSE) ou um Ctrl+C encerram a JVM no meio do loop. O gancho de encerramento
+        // pede que o agendador pare e espera a finalização abaixo, para que os lotes parciais, as filas do
+        // barramento e os buffers dos registros cheguem ao disco antes da saída.
+        CountDownLatch finalizacao = new CountDownLatch(1);
+        Thread ganchoDeEncerramento = new Thread(() -> {
+            agendador.solicitarParada();
             try {
-                Thread.sleep(config.getIntervaloAtualizacao());
+                if (!finalizacao.await(TEMPO_MAXIMO_ENCERRAMENTO_S, TimeUnit.SECONDS)) {
+                    System.err.println("AVISO: A simulação não terminou de descarregar os observadores antes da saída.");
+                }
             } catch (InterruptedException e) {
-                // Boa prática: se a thread for interrompida, restaura o status de interrupção e para o loop.
                 Thread.currentThread().interrupt();
-                System.out.println("Simulação interrompida.");
-                break;
             }
+        }, "encerramento-simulacao");
+        Runtime.getRuntime().addShutdownHook(ganchoDeEncerramento);
+
+        try {
+            agendador.executar(simulator);
+
+            // --- FINALIZAÇÃO ---
+            // Após o término do loop, notifica todos os observadores de que a simulação acabou.
+            // Isso permite que eles executem ações de finalização (ex: mudar título da janela, exibir resumo).
+            simulator.notificarFimSimulacao();
+            encerrarServicos();
+            agendador.imprimirResumo();
+        } finally {
+            finalizacao.countDown();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(ganchoDeEncerramento);
+        } catch (IllegalStateException e) {
+            // A JVM já está encerrando: o gancho está em execução e termina logo em seguida.
         }
+    }
 
-        // --- FINALIZAÇÃO ---
-        // Após o término do loop, notifica todos os observadores de que a simulação acabou.
-        // Isso permite que eles executem ações de finalização (ex: mudar título da janela, exibir resumo).
-        simulator.notificarFimSimulacao();
+    /**
+     * Encerra os serviços em segundo plano (checkpoint, monitor da configuração, transmissão MJPEG e métricas).
+     */
+    private void encerrarServicos() {
+        if (checkpoint != null) {
+            if (simulator.isFinalizado()) {
+                // A execução chegou ao fim: o checkpoint não deve ser retomado pela próxima.
+                checkpoint.descartar();
+            } else {
+                // Interrompida: a próxima execução continua exatamente do último passo registrado.
+                simulator.gravarCheckpoint();
+            }
+            checkpoint.close();
+        }
+        if (metricas != null) {
+            metricas.close();
+        }
+        if (monitorDeConfiguracao != null) {
+            monitorDeConfiguracao.close();
+        }
+        if (transmissao != null) {
+            transmissao.close();
+        }
+    }
 
+    /**
+     * @return O barramento assíncrono de observadores, ou {@code null} se a notificação for síncrona.
+     */
+    public BarramentoDeEventos getBarramento() {
+        return barramento;
+    }
+
+    /**
+     * @return O agendador do modo de tempo real, para consulta das métricas de atraso.
+     */
+    public AgendadorTaxaFixa getAgendador() {
+        return agendador;
     }
-}
\ No newline at end of file
+
+    /** Um acumulador de registro e o seu canal no barramento ({@code null} na notificação síncrona). */
+    private record RegistroDescarregavel(AcumuladorDeLote acumulador, CanalDeObservador canal) {}
+}
@@ -0,0 +1,41 @@
+package main.java.br.com.simulador.controller;
+
+/**
+ * Resumo de desempenho de uma execução da simulação.
+ *
+ * @param passos Quantidade de passos (ticks) executados.
+ * @param segundosSimulados Tempo avançado no relógio virtual da simulação nesta execução, em segundos
+ *                          (sem o tempo restaurado de um checkpoint).
+ * @param nanosDeParede Tempo real (wall-clock) gasto na execução, em nanossegundos.
+ */
+public record RelatorioExecucao(long passos, long segundosSimulados, long nanosDeParede) {
+
+    /**
+     * @return Quantos segundos simulados foram processados para cada segundo real.
+     */
+    public double segundosSimuladosPorSegundo() {
+        return nanosDeParede == 0 ? 0.0 : segundosSimulados / (nanosDeParede / 1_000_000_000.0);
+    }
+
+    /**
+     * @return A taxa de passos executados por segundo real.
+     */
+    public double passosPorSegundo() {
+        return nanosDeParede == 0 ? 0.0 : passos / (nanosDeParede / 1_000_000_000.0);
+    }
+
+    /**
+     * Imprime o resumo no console, no mesmo formato de bloco usado pela {@code Saida}.
+     */
+    public void imprimir() {
+        System.out.println("=============================================");
+        System.out.println("         RELATÓRIO DE DESEMPENHO");
+        System.out.println("=============================================");
+        System.out.println("Passos executados: " + passos);
+        System.out.println("Tempo simulado: " + segundosSimulados + "s");
+        System.out.printf("Tempo real: %.3fs%n", nanosDeParede / 1_000_000_000.0);
+        System.out.printf("Passos por segundo: %.1f%n", passosPorSegundo());
+        System.out.printf("Segundos simulados por segundo real: %.1f%n", segundosSimuladosPorSegundo());
+        System.out.println("=============================================");
+    }
+}
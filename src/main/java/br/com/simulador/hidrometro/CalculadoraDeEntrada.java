@@ -0,0 +1,137 @@
+package main.java.br.com.simulador.hidrometro;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.strategy.AgendaDeConsumo;
+import main.java.br.com.simulador.strategy.PerfilDeConsumoStrategy;
+
+/**
+ * Núcleo reutilizável do cálculo de entrada de cada passo da simulação.
+ *
+ * Produz os mesmos valores de fluxo e pressão que a classe {@link Entrada}, mas sem criar
+ * um objeto novo a cada passo. Tudo o que não muda entre passos (bitola, área, Qmax, faixa de
+ * pressão, agenda de consumo) é lido uma única vez no construtor, ou em {@link #aplicar(ParametrosDaSimulacao)}
+ * quando a configuração é recarregada, e o resultado de cada cálculo fica guardado em campos mutáveis
+ * ("scratch") desta própria instância.
+ *
+ * Em regime permanente, uma chamada a {@link #calcular(int)} não aloca nenhum objeto.
+ * Esta classe não é thread-safe: cada simulador deve ter a sua própria instância.
+ */
+public class CalculadoraDeEntrada {
+
+    private static final float MIN_VELOCIDADE_AR = 0.001f;
+    private static final float MAX_VELOCIDADE_AR = 0.005f;
+
+    // --- Valores pré-calculados, trocados apenas entre passos (aplicar) ---
+    private Bitola bitola;
+    private float area;
+    private float fluxoMaximo;
+    private float minPressao;
+    private float faixaPressao;
+    private boolean simularAr;
+    /** Agenda compilada: o perfil ativo é encontrado em tempo constante, sem percorrer uma lista. */
+    private AgendaDeConsumo agenda;
+    private final ControleVazao controleVazao;
+    /** Gerador com estado exportável, para que checkpoints possam retomar a mesma sequência de sorteios. */
+    private final GeradorReprodutivel random;
+
+    // --- Estado mutável com o resultado do último cálculo ---
+    private float fluxo;
+    private float pressao;
+
+    public CalculadoraDeEntrada(SimulatorConfig config, AgendaDeConsumo agenda, ControleVazao controleVazao) {
+        this(config, agenda, controleVazao, new GeradorReprodutivel());
+    }
+
+    /**
+     * @param random O gerador dos sorteios; com uma semente fixa, a sequência de entradas é reprodutível.
+     */
+    public CalculadoraDeEntrada(SimulatorConfig config, AgendaDeConsumo agenda, ControleVazao controleVazao,
+                                GeradorReprodutivel random) {
+        this(ParametrosDaSimulacao.de(config, agenda), controleVazao, random);
+    }
+
+    /**
+     * @param parametros Os parâmetros já convertidos da simulação.
+     * @param controleVazao O controle de vazão compartilhado.
+     * @param random O gerador dos sorteios.
+     */
+    public CalculadoraDeEntrada(ParametrosDaSimulacao parametros, ControleVazao controleVazao, GeradorReprodutivel random) {
+        this.random = random;
+        this.controleVazao = controleVazao;
+        aplicar(parametros);
+    }
+
+    /**
+     * Passa a usar novos parâmetros a partir do próximo cálculo. Deve ser chamado entre dois passos,
+     * pela mesma thread que chama {@link #calcular(int)}.
+     *
+     * @param parametros Os novos parâmetros.
+     */
+    public void aplicar(ParametrosDaSimulacao parametros) {
+        this.bitola = parametros.bitola();
+        this.area = bitola.getArea();
+        this.fluxoMaximo = bitola.getQmax();
+        this.minPressao = parametros.pressaoMinima();
+        this.faixaPressao = parametros.pressaoMaxima() - parametros.pressaoMinima();
+        this.simularAr = parametros.simularAr();
+        this.agenda = parametros.agenda();
+    }
+
+    /**
+     * Calcula o fluxo e a pressão para o instante informado, com as mesmas regras da {@link Entrada}.
+     * O resultado fica disponível em {@link #getFluxo()} e {@link #getPressao()}.
+     *
+     * @param tempoAtualSegundos O tempo simulado atual, em segundos.
+     */
+    public void calcular(int tempoAtualSegundos) {
+        // Uma única leitura do multiplicador; o percentual é derivado dela,
+        // exatamente como ControleVazao.getPercentual() faz.
+        calcular(tempoAtualSegundos, controleVazao.getMultiplicador());
+    }
+
+    /**
+     * Variante com o multiplicador já lido por quem chama. Usada quando o valor precisa ser o mesmo
+     * que foi gravado no log de entradas (ou lido dele, na reprodução).
+     *
+     * @param tempoAtualSegundos O tempo simulado atual, em segundos.
+     * @param multiplicador O multiplicador de vazão (0.0 a 1.0) a aplicar neste passo.
+     */
+    public void calcular(int tempoAtualSegundos, double multiplicador) {
+        this.pressao = minPressao + random.nextFloat() * faixaPressao;
+
+        float velocidadeBase;
+        if (simularAr && Math.round(multiplicador * 100) == 0) {
+            velocidadeBase = MIN_VELOCIDADE_AR + random.nextFloat() * (MAX_VELOCIDADE_AR - MIN_VELOCIDADE_AR);
+        } else {
+            velocidadeBase = getVelocidadeBase(tempoAtualSegundos);
+            velocidadeBase = (float) (velocidadeBase * multiplicador);
+        }
+
+        this.fluxo = Math.min(area * velocidadeBase, fluxoMaximo);
+    }
+
+    /**
+     * Consulta a estratégia de consumo ativa no instante atual e retorna a velocidade base.
+     */
+    private float getVelocidadeBase(int tempoAtualSegundos) {
+        PerfilDeConsumoStrategy estrategia = agenda.buscar(tempoAtualSegundos);
+        return estrategia != null ? estrategia.getVelocidade(random) : 0.0f;
+    }
+
+    public float getFluxo() {
+        return fluxo;
+    }
+
+    public float getPressao() {
+        return pressao;
+    }
+
+    public Bitola getBitola() {
+        return bitola;
+    }
+
+    public GeradorReprodutivel getGerador() {
+        return random;
+    }
+}
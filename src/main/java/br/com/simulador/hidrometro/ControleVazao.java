@@ -3,6 +3,10 @@ package main.java.br.com.simulador.hidrometro;
 /**
  * Classe thread-safe para armazenar e controlar o multiplicador de vazão em tempo real.
  * Agora trabalha em percentual (0 a 100), mas internamente guarda normalizado (0.0 a 1.0).
+ *
+ * O estado é um único campo {@code volatile}, escrito e lido de forma atômica. Por isso nenhum método
+ * precisa de {@code synchronized}: a thread da simulação (e qualquer número de outras leitoras) lê o
+ * valor a cada passo sem disputar um lock com o slider da interface ou com o {@link RoteiroDeVazao}.
  */
 public class ControleVazao {
     private volatile double multiplicador = 1.0; // 100% por padrão
@@ -10,23 +14,31 @@ public class ControleVazao {
     /**
      * Define o multiplicador em percentual (0 a 100).
      */
-    public synchronized void setMultiplicador(double percentual) {
+    public void setMultiplicador(double percentual) {
         if (percentual < 0) percentual = 0;
         if (percentual > 100) percentual = 100;
         this.multiplicador = percentual / 100.0;
     }
 
+    /**
+     * Define diretamente o multiplicador normalizado (0.0 a 1.0), sem a conversão de percentual.
+     * Usado ao restaurar um checkpoint ou aplicar um roteiro, para que o valor seja exatamente o informado.
+     */
+    public void restaurarMultiplicador(double multiplicador) {
+        this.multiplicador = Math.max(0.0, Math.min(1.0, multiplicador));
+    }
+
     /**
      * Retorna o multiplicador já normalizado (0.0 a 1.0).
      */
-    public synchronized double getMultiplicador() {
+    public double getMultiplicador() {
         return multiplicador;
     }
 
     /**
      * Retorna o percentual "cru" (0 a 100) — útil para exibir na interface.
      */
-    public synchronized int getPercentual() {
+    public int getPercentual() {
         return (int) Math.round(multiplicador * 100);
     }
 }
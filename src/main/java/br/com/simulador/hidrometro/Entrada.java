@@ -6,6 +6,7 @@
 
     import java.util.List;
     import java.util.Random;
+    import java.util.random.RandomGenerator;
 
     /**
      * Representa os dados de entrada para um determinado instante na simulação.
@@ -17,10 +18,20 @@
         private final Bitola bitola;
         private final float pressao;
         private final float fluxo;
-        private final Random random = new Random();
+        private final RandomGenerator random;
 
 
         public Entrada(int tempoAtualSegundos, SimulatorConfig config, List<PerfilDeConsumoStrategy> estrategias, ControleVazao controleVazao) {
+            this(tempoAtualSegundos, config, estrategias, controleVazao, new Random());
+        }
+
+        /**
+         * Variante que sorteia os valores com o gerador informado, para que uma simulação com semente
+         * fixa tenha também o estado inicial reprodutível.
+         */
+        public Entrada(int tempoAtualSegundos, SimulatorConfig config, List<PerfilDeConsumoStrategy> estrategias,
+                       ControleVazao controleVazao, RandomGenerator random) {
+            this.random = random;
             this.bitola = config.getBitola();
 
             float minPressao = config.getPressaoMinima();
@@ -43,9 +54,7 @@
             }
 
 
-            float raio = this.bitola.getDiametro() / 2.0f;
-            float area = (float) (Math.PI * raio * raio);
-            float fluxoDesejado = area * velocidadeBase;
+            float fluxoDesejado = this.bitola.getArea() * velocidadeBase;
             float fluxoMaximo = this.bitola.getQmax();
             this.fluxo = Math.min(fluxoDesejado, fluxoMaximo);
         }
@@ -0,0 +1,96 @@
+package main.java.br.com.simulador.hidrometro;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gerador de números pseudoaleatórios cujo estado pode ser lido e restaurado.
+ *
+ * Usa o mesmo algoritmo (SplitMix64) e as mesmas constantes do {@link java.util.SplittableRandom}
+ * e, por isso, produz exatamente as mesmas sequências para a mesma semente. A diferença é que o estado
+ * interno (semente e "gamma") fica acessível: um checkpoint guarda apenas dois {@code long} e, ao ser
+ * restaurado, a simulação continua com os mesmos sorteios que teria feito sem a interrupção.
+ *
+ * Não é thread-safe: cada thread (ou bloco de medidores) deve ter a sua própria instância.
+ */
+public class GeradorReprodutivel implements RandomGenerator {
+
+    /** Incremento padrão da sequência, o mesmo do {@code SplittableRandom}. */
+    private static final long GAMMA_PADRAO = 0x9e3779b97f4a7c15L;
+
+    private long semente;
+    private long gamma;
+
+    /**
+     * Cria um gerador com semente aleatória.
+     */
+    public GeradorReprodutivel() {
+        this(RandomGenerator.getDefault().nextLong());
+    }
+
+    /**
+     * Cria um gerador a partir de uma semente, equivalente a {@code new SplittableRandom(semente)}.
+     */
+    public GeradorReprodutivel(long semente) {
+        this(semente, GAMMA_PADRAO);
+    }
+
+    /**
+     * Cria um gerador a partir de um estado salvo com {@link #getSemente()} e {@link #getGamma()}.
+     */
+    public GeradorReprodutivel(long semente, long gamma) {
+        this.semente = semente;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Deriva um novo gerador, estatisticamente independente deste, como {@code SplittableRandom.split()}.
+     */
+    public GeradorReprodutivel dividir() {
+        return new GeradorReprodutivel(nextLong(), misturarGamma(proximaSemente()));
+    }
+
+    /**
+     * Restaura o estado salvo anteriormente.
+     */
+    public void restaurar(long semente, long gamma) {
+        this.semente = semente;
+        this.gamma = gamma;
+    }
+
+    @Override
+    public long nextLong() {
+        return misturar64(proximaSemente());
+    }
+
+    @Override
+    public int nextInt() {
+        return misturar32(proximaSemente());
+    }
+
+    private long proximaSemente() {
+        return semente += gamma;
+    }
+
+    private static long misturar64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int misturar32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long misturarGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        // Evita gammas com poucos bits alternados, que gerariam sequências de baixa qualidade.
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    public long getSemente() { return semente; }
+    public long getGamma() { return gamma; }
+}
@@ -1,15 +1,18 @@
 package main.java.br.com.simulador.hidrometro;
 
 import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.checkpoint.ArquivoDeCheckpoint;
+import main.java.br.com.simulador.hidrometro.replay.GravadorDeEntradas;
+import main.java.br.com.simulador.hidrometro.replay.ReprodutorDeEntradas;
+import main.java.br.com.simulador.jfr.EventoPasso;
+import main.java.br.com.simulador.metricas.HistogramaDeLatencia;
+import main.java.br.com.simulador.metricas.MetricasDaSimulacao;
 import main.java.br.com.simulador.observer.Observador;
-import main.java.br.com.simulador.strategy.PerfilDeConsumoStrategy;
-import main.java.br.com.simulador.strategy.PerfilMadrugada;
-import main.java.br.com.simulador.strategy.PerfilManha;
-import main.java.br.com.simulador.strategy.PerfilNoite;
-import main.java.br.com.simulador.strategy.PerfilTarde;
+import main.java.br.com.simulador.observer.ObservadorComEstado;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Orquestra a simulação do hidrômetro.
@@ -18,55 +21,108 @@ import java.util.List;
 public class HidrometroSimulator {
 
     private final Medidor medidor;
-    private final SimulatorConfig config;
     private final ControleVazao controleVazao;
     private final List<Observador> observadores = new ArrayList<>();
-    private final List<PerfilDeConsumoStrategy> estrategias = new ArrayList<>();
+    /** Núcleo reutilizado a cada passo, no lugar de uma nova Entrada por passo. */
+    private final CalculadoraDeEntrada calculadora;
     private int tempoTotalSimulado = 0;
 
+    /** Parâmetros em uso, lidos pela thread da simulação sem lock. */
+    private ParametrosDaSimulacao parametros;
+    /** Parâmetros recarregados que entram em vigor no início do próximo passo, ou {@code null}. */
+    private final AtomicReference<ParametrosDaSimulacao> parametrosPendentes = new AtomicReference<>();
+
+    // --- Gravação/reprodução das entradas externas (opcional, no máximo um dos dois) ---
+    private GravadorDeEntradas gravadorDeEntradas;
+    private ReprodutorDeEntradas reprodutorDeEntradas;
+    /** Mudanças de vazão programadas no tempo, ou {@code null}. */
+    private RoteiroDeVazao roteiro;
+
+    // --- Checkpoint periódico (opcional) ---
+    private ArquivoDeCheckpoint checkpoint;
+    private int intervaloCheckpoint;
+    private int passosDesdeCheckpoint = 0;
+    private List<ObservadorComEstado> participantesCheckpoint = List.of();
+    /** Executado antes de cada gravação, para que os registros alcancem o estado gravado. */
+    private Runnable antesDoCheckpoint = () -> {};
+    /** Arrays reaproveitados a cada gravação, para que o checkpoint não aloque memória no passo. */
+    private final float[] colunaM3 = new float[1];
+    private final float[] colunaPressao = new float[1];
+    private final float[] colunaFluxo = new float[1];
+    private final byte[] colunaBitola = new byte[1];
+    private final long[] estadoGerador = new long[2];
+    private long[] estadosObservadores = new long[0];
+
+    // --- Métricas (opcional): histogramas nulos quando a instrumentação está desligada ---
+    private HistogramaDeLatencia latenciaDoPasso;
+    private HistogramaDeLatencia latenciaDaNotificacao;
+    /** Se cada passo grava um {@link EventoPasso} no Java Flight Recorder. */
+    private boolean eventosJfr = false;
+
     public HidrometroSimulator(SimulatorConfig config, ControleVazao controleVazao) {
-        this.config = config;
         this.controleVazao = controleVazao;
 
-        // Inicializa as estratégias de consumo com suas configurações
-        inicializarEstrategias();
+        // Com uma semente configurada, todos os sorteios (inclusive o do estado inicial) são reprodutíveis.
+        GeradorReprodutivel gerador = config.getSemente() != null
+                ? new GeradorReprodutivel(config.getSemente())
+                : new GeradorReprodutivel();
+
+        // Converte a configuração e compila a agenda de perfis uma única vez; cada passo apenas as consulta.
+        this.parametros = ParametrosDaSimulacao.de(config);
+        this.calculadora = new CalculadoraDeEntrada(parametros, this.controleVazao, gerador);
 
-        // Cria uma "Entrada" inicial para definir o estado do medidor em t=0
-        Entrada entradaInicial = new Entrada(0, config, this.estrategias, this.controleVazao);
-        this.medidor = new Medidor(entradaInicial);
+        // O estado do medidor em t=0 sai da mesma calculadora usada nos passos (volume zerado, pressão sorteada).
+        calculadora.calcular(0);
+        this.medidor = new Medidor(calculadora.getBitola());
+        medidor.restaurarEstado(0.0f, calculadora.getPressao());
     }
 
     /**
-     * Lê a configuração e instancia cada estratégia com seus respectivos parâmetros.
+     * Agenda a troca dos parâmetros da simulação (ex: após recarregar o arquivo de configuração).
+     * Pode ser chamado de qualquer thread; a troca acontece no início do próximo passo, de uma só vez.
+     * A bitola não muda durante a execução, pois faz parte da identidade do medidor.
+     *
+     * @param novos Os novos parâmetros, já convertidos e validados.
      */
-    private void inicializarEstrategias() {
-        // Madrugada
-        float madMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("madrugada_vel_min"));
-        float madMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("madrugada_vel_max"));
-        int madInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("madrugada_inicio"));
-        int madFim = Integer.parseInt(config.getPerfilDeConsumoProperty("madrugada_fim"));
-        estrategias.add(new PerfilMadrugada(madMinVel, madMaxVel, madInicio, madFim));
+    public void agendarParametros(ParametrosDaSimulacao novos) {
+        parametrosPendentes.set(novos);
+    }
+
+    /**
+     * Aplica os parâmetros pendentes, se houver. Chamado pela thread da simulação entre dois passos.
+     */
+    private void aplicarParametrosPendentes() {
+        ParametrosDaSimulacao novos = parametrosPendentes.getAndSet(null);
+        if (novos.bitola() != parametros.bitola()) {
+            System.err.println("A bitola não pode ser alterada durante a simulação; mantendo " + parametros.bitola().getPolegada() + "\".");
+            novos = novos.comBitola(parametros.bitola());
+        }
+        this.parametros = novos;
+        calculadora.aplicar(novos);
+    }
 
-        // Manhã
-        float manhaMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("manha_vel_min"));
-        float manhaMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("manha_vel_max"));
-        int manhaInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("manha_inicio"));
-        int manhaFim = Integer.parseInt(config.getPerfilDeConsumoProperty("manha_fim"));
-        estrategias.add(new PerfilManha(manhaMinVel, manhaMaxVel, manhaInicio, manhaFim));
+    /**
+     * Passa a aplicar o roteiro de vazão no início de cada passo. Ignorado durante a reprodução de um log,
+     * pois o log já contém os valores que o roteiro produziu.
+     */
+    public void usarRoteiro(RoteiroDeVazao roteiro) {
+        this.roteiro = roteiro;
+    }
 
-        // Tarde
-        float tardeMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("tarde_vel_min"));
-        float tardeMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("tarde_vel_max"));
-        int tardeInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("tarde_inicio"));
-        int tardeFim = Integer.parseInt(config.getPerfilDeConsumoProperty("tarde_fim"));
-        estrategias.add(new PerfilTarde(tardeMinVel, tardeMaxVel, tardeInicio, tardeFim));
+    /**
+     * Passa a gravar no log o multiplicador de vazão usado em cada passo (apenas quando ele muda).
+     */
+    public void gravarEntradas(GravadorDeEntradas gravador) {
+        this.gravadorDeEntradas = gravador;
+        this.reprodutorDeEntradas = null;
+    }
 
-        // Noite
-        float noiteMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("noite_vel_min"));
-        float noiteMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("noite_vel_max"));
-        int noiteInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("noite_inicio"));
-        int noiteFim = Integer.parseInt(config.getPerfilDeConsumoProperty("noite_fim"));
-        estrategias.add(new PerfilNoite(noiteMinVel, noiteMaxVel, noiteInicio, noiteFim));
+    /**
+     * Passa a usar o multiplicador de vazão gravado no log, ignorando o {@link ControleVazao}.
+     */
+    public void reproduzirEntradas(ReprodutorDeEntradas reprodutor) {
+        this.reprodutorDeEntradas = reprodutor;
+        this.gravadorDeEntradas = null;
     }
 
     public void adicionarObservador(Observador obs) {
@@ -78,15 +134,45 @@ public class HidrometroSimulator {
      * Deve ser chamado uma vez no início para mostrar o estado t=0.
      */
     public void notificarObservadores() {
+        if (latenciaDaNotificacao == null) {
+            for (Observador obs : observadores) {
+                obs.atualizar(medidor, tempoTotalSimulado);
+            }
+            return;
+        }
+        long inicio = System.nanoTime();
         for (Observador obs : observadores) {
             obs.atualizar(medidor, tempoTotalSimulado);
         }
+        latenciaDaNotificacao.registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Passa a medir a duração de cada passo e de cada rodada de notificação dos observadores.
+     * Sem esta chamada, nenhum tempo é lido: o passo paga apenas um teste de nulo.
+     *
+     * @param metricas As métricas da simulação.
+     */
+    public void ativarMetricas(MetricasDaSimulacao metricas) {
+        this.latenciaDoPasso = metricas.getPasso();
+        this.latenciaDaNotificacao = metricas.getNotificacao();
+    }
+
+    /**
+     * Passa a emitir um {@link EventoPasso} para o Java Flight Recorder a cada passo.
+     * O evento só é gravado se houver uma gravação do JFR em andamento com ele habilitado.
+     */
+    public void ativarEventosJfr() {
+        this.eventosJfr = true;
     }
 
     /**
      * Notifica todos os observadores que a simulação terminou.
      */
     public void notificarFimSimulacao() {
+        if (gravadorDeEntradas != null) {
+            gravadorDeEntradas.finalizar(tempoTotalSimulado);
+        }
         for (Observador obs : observadores) {
             obs.simulacaoFinalizada(medidor);
         }
@@ -96,22 +182,179 @@ public class HidrometroSimulator {
      * Avança a simulação em um passo de tempo.
      */
     public void avancarSimulacao() {
-        int tempoParaAvancar = config.getEscalaDeTempo();
+        avancarSemNotificar();
+        notificarObservadores();
+    }
+
+    /**
+     * Avança a simulação em um passo de tempo sem notificar os observadores.
+     * Usado quando vários passos são executados em lote e os observadores devem
+     * ser notificados uma única vez ao final, com o estado mais recente.
+     */
+    public void avancarSemNotificar() {
+        if (latenciaDoPasso == null && !eventosJfr) {
+            avancarUmPasso();
+            return;
+        }
+        EventoPasso evento = eventosJfr ? new EventoPasso() : null;
+        if (evento != null) {
+            evento.begin();
+        }
+        long inicio = System.nanoTime();
+        avancarUmPasso();
+        if (latenciaDoPasso != null) {
+            latenciaDoPasso.registrar(System.nanoTime() - inicio);
+        }
+        if (evento != null) {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.tempoSimulado = tempoTotalSimulado;
+                evento.escalaDeTempo = parametros.escalaDeTempo();
+                evento.medidores = 1;
+                evento.commit();
+            }
+        }
+    }
+
+    private void avancarUmPasso() {
+        // Fronteira entre passos: único ponto em que uma configuração recarregada entra em vigor.
+        if (parametrosPendentes.get() != null) {
+            aplicarParametrosPendentes();
+        }
+
+        int tempoParaAvancar = parametros.escalaDeTempo();
         tempoTotalSimulado += tempoParaAvancar;
 
-        Entrada novaEntrada = new Entrada(tempoTotalSimulado, config, estrategias, this.controleVazao);
-        medidor.atualizarMedicao(novaEntrada, tempoParaAvancar);
+        // O multiplicador é lido uma única vez por passo: o valor gravado no log é exatamente o usado no cálculo.
+        double multiplicador;
+        if (reprodutorDeEntradas != null) {
+            multiplicador = reprodutorDeEntradas.getMultiplicadorEm(tempoTotalSimulado);
+            controleVazao.restaurarMultiplicador(multiplicador);
+        } else {
+            if (roteiro != null) {
+                roteiro.aplicar(tempoTotalSimulado, controleVazao);
+            }
+            multiplicador = controleVazao.getMultiplicador();
+            if (gravadorDeEntradas != null) {
+                gravadorDeEntradas.registrar(tempoTotalSimulado, multiplicador);
+            }
+        }
 
-        notificarObservadores();
+        // Reaproveita a mesma calculadora: nenhum objeto é alocado neste passo.
+        calculadora.calcular(tempoTotalSimulado, multiplicador);
+        medidor.atualizarMedicao(calculadora.getFluxo(), calculadora.getPressao(), tempoParaAvancar);
+
+        if (checkpoint != null && ++passosDesdeCheckpoint >= intervaloCheckpoint) {
+            gravarCheckpoint();
+        }
+    }
+
+    /**
+     * Ativa a gravação periódica de checkpoints.
+     *
+     * @param arquivo O arquivo de checkpoint.
+     * @param intervaloPassos A cada quantos passos um checkpoint é gravado.
+     * @param participantes Observadores cujo estado também deve ser gravado, sempre na mesma ordem.
+     */
+    public void ativarCheckpoint(ArquivoDeCheckpoint arquivo, int intervaloPassos, List<ObservadorComEstado> participantes) {
+        ativarCheckpoint(arquivo, intervaloPassos, participantes, () -> {});
+    }
+
+    /**
+     * Ativa a gravação periódica de checkpoints, executando uma ação antes de cada gravação.
+     *
+     * @param arquivo O arquivo de checkpoint.
+     * @param intervaloPassos A cada quantos passos um checkpoint é gravado.
+     * @param participantes Observadores cujo estado também deve ser gravado, sempre na mesma ordem.
+     * @param antesDeGravar Executada na thread da simulação antes de cada checkpoint (ex: descarregar os
+     *                      registros de leituras, para que nenhuma leitura anterior ao checkpoint fique só em memória).
+     */
+    public void ativarCheckpoint(ArquivoDeCheckpoint arquivo, int intervaloPassos, List<ObservadorComEstado> participantes,
+                                 Runnable antesDeGravar) {
+        if (intervaloPassos < 1) {
+            throw new IllegalArgumentException("O intervalo de checkpoint deve ser de pelo menos 1 passo: " + intervaloPassos);
+        }
+        this.checkpoint = arquivo;
+        this.intervaloCheckpoint = intervaloPassos;
+        this.participantesCheckpoint = List.copyOf(participantes);
+        this.antesDoCheckpoint = antesDeGravar;
+        this.estadosObservadores = new long[participantesCheckpoint.size()];
+        this.passosDesdeCheckpoint = 0;
+    }
+
+    /**
+     * Grava imediatamente um checkpoint com o estado atual. Só copia valores para a memória mapeada;
+     * a escrita no disco acontece em outra thread.
+     */
+    public void gravarCheckpoint() {
+        passosDesdeCheckpoint = 0;
+        antesDoCheckpoint.run();
+        colunaM3[0] = medidor.getM3();
+        colunaPressao[0] = medidor.getPressao();
+        colunaFluxo[0] = medidor.getFluxo();
+        colunaBitola[0] = (byte) medidor.getBitola().ordinal();
+        estadoGerador[0] = calculadora.getGerador().getSemente();
+        estadoGerador[1] = calculadora.getGerador().getGamma();
+        for (int i = 0; i < estadosObservadores.length; i++) {
+            estadosObservadores[i] = participantesCheckpoint.get(i).exportarEstado();
+        }
+        checkpoint.gravar(tempoTotalSimulado, controleVazao.getMultiplicador(),
+                colunaM3, colunaPressao, colunaFluxo, colunaBitola, 1,
+                estadoGerador, 1, estadosObservadores, estadosObservadores.length);
+    }
+
+    /**
+     * Restaura o estado gravado no checkpoint mais recente do arquivo, se houver.
+     * Deve ser chamado antes da primeira notificação dos observadores.
+     *
+     * @param arquivo O arquivo de checkpoint.
+     * @param participantes Os observadores com estado, na mesma ordem usada na gravação.
+     * @return {@code true} se um checkpoint foi encontrado e restaurado.
+     */
+    public boolean restaurarCheckpoint(ArquivoDeCheckpoint arquivo, List<ObservadorComEstado> participantes) {
+        if (!arquivo.carregar() || arquivo.getQuantidadeMedidores() != 1) {
+            return false;
+        }
+        this.tempoTotalSimulado = arquivo.getTempo();
+        controleVazao.restaurarMultiplicador(arquivo.getMultiplicador());
+
+        arquivo.lerMedidores(colunaM3, colunaPressao, colunaFluxo, colunaBitola);
+        medidor.restaurarEstado(colunaM3[0], colunaPressao[0], colunaFluxo[0]);
+
+        if (arquivo.getQuantidadeGeradores() == 1) {
+            arquivo.lerGeradores(estadoGerador);
+            calculadora.getGerador().restaurar(estadoGerador[0], estadoGerador[1]);
+        }
+
+        long[] estados = new long[arquivo.getQuantidadeObservadores()];
+        arquivo.lerObservadores(estados);
+        for (int i = 0; i < Math.min(estados.length, participantes.size()); i++) {
+            participantes.get(i).restaurarEstado(estados[i]);
+        }
+        return true;
     }
 
     public boolean isFinalizado() {
-        int tempoExecucaoConfigurado = config.getTempoExecucao();
+        int tempoExecucaoConfigurado = parametros.tempoExecucao();
         if (tempoExecucaoConfigurado == -1) {
             return false;
         }
         return tempoTotalSimulado >= tempoExecucaoConfigurado;
     }
 
+    /**
+     * @return Os parâmetros em uso no passo atual.
+     */
+    public ParametrosDaSimulacao getParametros() {
+        return parametros;
+    }
+
+    /**
+     * @return O relógio virtual da simulação, em segundos simulados desde t=0.
+     */
+    public int getTempoTotalSimulado() {
+        return tempoTotalSimulado;
+    }
+
 }
 
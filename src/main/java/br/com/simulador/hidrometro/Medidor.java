@@ -8,6 +8,8 @@ import main.java.br.com.simulador.config.Bitola;
 public class Medidor {
     private float m3;
     private float pressao;
+    /** O fluxo aplicado na última atualização, em m³/s. */
+    private float fluxo;
     private final Bitola bitola;
 
     /**
@@ -20,21 +22,63 @@ public class Medidor {
         this.bitola = entradaInicial.getBitola();
     }
 
+    /**
+     * Cria um Medidor zerado apenas com a bitola. Usado por quem precisa manter uma cópia
+     * do estado (ex: consumidores assíncronos de eventos) e preenchê-la com {@link #restaurarEstado}.
+     * @param bitola A bitola do hidrômetro.
+     */
+    public Medidor(Bitola bitola) {
+        this.m3 = 0.0f;
+        this.pressao = 0.0f;
+        this.bitola = bitola;
+    }
+
+    /**
+     * Substitui o estado acumulado do medidor pelos valores informados.
+     * @param m3 O volume acumulado, em m³.
+     * @param pressao A pressão, em bar.
+     */
+    public void restaurarEstado(float m3, float pressao) {
+        restaurarEstado(m3, pressao, 0.0f);
+    }
+
+    /**
+     * Substitui o estado do medidor pelos valores informados, incluindo o último fluxo.
+     * @param m3 O volume acumulado, em m³.
+     * @param pressao A pressão, em bar.
+     * @param fluxo O fluxo da última atualização, em m³/s.
+     */
+    public void restaurarEstado(float m3, float pressao, float fluxo) {
+        this.m3 = m3;
+        this.pressao = pressao;
+        this.fluxo = fluxo;
+    }
+
     /**
      * Atualiza o estado do medidor, acumulando o consumo e atualizando a pressão.
      * @param novaEntrada Objeto com os novos dados de fluxo e pressão para o intervalo.
      * @param intervalo O tempo em segundos desde a última medição.
      */
     public void atualizarMedicao(Entrada novaEntrada, int intervalo) {
+        atualizarMedicao(novaEntrada.calcularFluxo(), novaEntrada.getPressao(), intervalo);
+    }
+
+    /**
+     * Variante sem objeto intermediário, usada pelo passo da simulação com {@link CalculadoraDeEntrada}.
+     * @param fluxo O fluxo atual em m³/s.
+     * @param novaPressao A pressão mais recente, em bar.
+     * @param intervalo O tempo em segundos desde a última medição.
+     */
+    public void atualizarMedicao(float fluxo, float novaPressao, int intervalo) {
         // 1. Calcula o consumo que ocorreu apenas neste intervalo de tempo.
-        float fluxo = novaEntrada.calcularFluxo(); // Pega o fluxo atual em m³/s
+        this.fluxo = fluxo;
         float consumoNesteIntervalo = fluxo * intervalo; // Calcula o volume em m³
 
         // 2. Acumula (soma) o novo consumo ao total que já existia.
         this.m3 += consumoNesteIntervalo;
 
         // 3. Atualiza a pressão para o valor mais recente.
-        this.pressao = novaEntrada.getPressao();
+        this.pressao = novaPressao;
     }
 
     public float getM3() {
@@ -45,6 +89,10 @@ public class Medidor {
         return pressao;
     }
 
+    public float getFluxo() {
+        return fluxo;
+    }
+
     public Bitola getBitola() {
         return bitola;
     }
@@ -0,0 +1,67 @@
+package main.java.br.com.simulador.hidrometro;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.strategy.AgendaDeConsumo;
+import main.java.br.com.simulador.strategy.PerfilDeConsumoFactory;
+
+/**
+ * Retrato imutável e já convertido dos parâmetros que o motor da simulação usa a cada passo.
+ *
+ * O {@link SimulatorConfig} é mutável e guarda os perfis como texto. Este record é montado a partir dele
+ * uma única vez (na inicialização ou quando o arquivo de configuração muda): os números já estão
+ * convertidos e os perfis já estão compilados na {@link AgendaDeConsumo}. Como nada aqui muda depois de
+ * criado, a thread da simulação lê os campos sem nenhum lock, e a troca por um retrato novo é a simples
+ * substituição de uma referência, feita entre dois passos.
+ *
+ * @param bitola A bitola do hidrômetro.
+ * @param tempoExecucao Duração total da simulação, em segundos (-1 = infinita).
+ * @param escalaDeTempo Segundos simulados por passo.
+ * @param pressaoMinima Pressão mínima da rede, em bar.
+ * @param pressaoMaxima Pressão máxima da rede, em bar.
+ * @param simularAr Se a passagem de ar é simulada com a vazão em 0%.
+ * @param agenda Os perfis de consumo compilados.
+ */
+public record ParametrosDaSimulacao(Bitola bitola, int tempoExecucao, int escalaDeTempo,
+                                    float pressaoMinima, float pressaoMaxima, boolean simularAr,
+                                    AgendaDeConsumo agenda) {
+
+    public ParametrosDaSimulacao {
+        if (bitola == null) {
+            throw new IllegalArgumentException("A bitola é obrigatória.");
+        }
+        if (escalaDeTempo <= 0) {
+            throw new IllegalArgumentException("A escala de tempo deve ser positiva: " + escalaDeTempo);
+        }
+        if (pressaoMinima > pressaoMaxima) {
+            throw new IllegalArgumentException("A pressão mínima (" + pressaoMinima
+                    + ") é maior que a máxima (" + pressaoMaxima + ").");
+        }
+    }
+
+    /**
+     * Converte e valida a configuração, compilando a agenda de perfis.
+     *
+     * @param config A configuração lida do arquivo.
+     * @return O retrato imutável.
+     * @throws IllegalArgumentException se algum valor for inválido (ex: perfil incompleto).
+     */
+    public static ParametrosDaSimulacao de(SimulatorConfig config) {
+        return de(config, PerfilDeConsumoFactory.criarAgenda(config));
+    }
+
+    /**
+     * Variante que reaproveita uma agenda já compilada.
+     */
+    public static ParametrosDaSimulacao de(SimulatorConfig config, AgendaDeConsumo agenda) {
+        return new ParametrosDaSimulacao(config.getBitola(), config.getTempoExecucao(), config.getEscalaDeTempo(),
+                config.getPressaoMinima(), config.getPressaoMaxima(), config.isSimularAr(), agenda);
+    }
+
+    /**
+     * @return Uma cópia destes parâmetros com outra bitola.
+     */
+    public ParametrosDaSimulacao comBitola(Bitola novaBitola) {
+        return new ParametrosDaSimulacao(novaBitola, tempoExecucao, escalaDeTempo, pressaoMinima, pressaoMaxima, simularAr, agenda);
+    }
+}
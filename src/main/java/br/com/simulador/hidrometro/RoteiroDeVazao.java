@@ -0,0 +1,171 @@
+package main.java.br.com.simulador.hidrometro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Roteiro de vazão: mudanças do multiplicador programadas no tempo simulado, lidas de um arquivo.
+ *
+ * Permite montar cenários de carga automatizados, sem ninguém mexendo no slider. Cada linha do arquivo
+ * é um evento (linhas vazias e iniciadas com '#' são ignoradas):
+ * <pre>
+ * em 1h definir 40%
+ * em 2h rampa 100% por 10min
+ * em 86400 definir 0
+ * </pre>
+ * Tempos e durações aceitam os sufixos {@code s}, {@code min} e {@code h} (sem sufixo = segundos).
+ * "definir" muda o valor imediatamente; "rampa" vai do valor em vigor até o alvo, linearmente, durante a duração.
+ *
+ * O roteiro é aplicado pela thread da simulação, no início de cada passo. Ao entrar em um evento, o valor
+ * em vigor é lido do {@link ControleVazao} (inclusive se veio do slider) e o valor do evento é sempre escrito;
+ * dentro de uma rampa, o controle só é escrito quando o valor interpolado muda. Assim, o slider continua
+ * funcionando: um ajuste manual vale até o próximo evento (ou o próximo passo de uma rampa) do roteiro.
+ */
+public class RoteiroDeVazao {
+
+    /** Instante (s) em que cada evento começa, em ordem crescente. */
+    private final int[] inicios;
+    /** Duração (s) de cada evento; 0 para "definir". */
+    private final int[] duracoes;
+    /** Valor (0.0 a 1.0) ao fim de cada evento. */
+    private final double[] valoresFinais;
+
+    private int cursor = -1;
+    /** Valor em vigor no controle quando o evento atual começou: o ponto de partida da rampa. */
+    private double valorInicialDoEvento;
+    private double ultimoAplicado = Double.NaN;
+
+    /**
+     * @param eventos Os eventos, em ordem de tempo: {início, duração, percentual alvo}.
+     */
+    private RoteiroDeVazao(List<double[]> eventos) {
+        int n = eventos.size();
+        this.inicios = new int[n];
+        this.duracoes = new int[n];
+        this.valoresFinais = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            double[] evento = eventos.get(i);
+            inicios[i] = (int) evento[0];
+            duracoes[i] = (int) evento[1];
+            valoresFinais[i] = Math.max(0.0, Math.min(100.0, evento[2])) / 100.0;
+        }
+    }
+
+    /**
+     * Lê e valida um roteiro de vazão.
+     *
+     * @param arquivo O arquivo do roteiro.
+     * @return O roteiro compilado, que não interfere no controle antes do primeiro evento.
+     * @throws IllegalArgumentException se alguma linha for inválida ou fora de ordem.
+     * @throws RuntimeException se o arquivo não puder ser lido.
+     */
+    public static RoteiroDeVazao carregar(Path arquivo) {
+        List<double[]> eventos = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            int ultimoInicio = Integer.MIN_VALUE;
+            while ((linha = br.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                double[] evento = interpretar(linha, numero);
+                if (evento[0] < ultimoInicio) {
+                    throw new IllegalArgumentException("Linha " + numero + " do roteiro fora de ordem: " + linha);
+                }
+                ultimoInicio = (int) evento[0];
+                eventos.add(evento);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar roteiro de vazão: " + arquivo, e);
+        }
+        return new RoteiroDeVazao(eventos);
+    }
+
+    /**
+     * Converte "em T definir P" ou "em T rampa P por D" em {início, duração, percentual}.
+     */
+    private static double[] interpretar(String linha, int numero) {
+        String[] partes = linha.toLowerCase(Locale.ROOT).split("\\s+");
+        try {
+            if (partes.length == 4 && partes[0].equals("em") && partes[2].equals("definir")) {
+                return new double[] {converterSegundos(partes[1]), 0, converterPercentual(partes[3])};
+            }
+            if (partes.length == 6 && partes[0].equals("em") && partes[2].equals("rampa") && partes[4].equals("por")) {
+                return new double[] {converterSegundos(partes[1]), converterSegundos(partes[5]), converterPercentual(partes[3])};
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido na linha " + numero + " do roteiro: " + linha, e);
+        }
+        throw new IllegalArgumentException("Linha " + numero + " do roteiro não reconhecida: " + linha);
+    }
+
+    private static int converterSegundos(String valor) {
+        if (valor.endsWith("min")) {
+            return Integer.parseInt(valor.substring(0, valor.length() - 3)) * 60;
+        }
+        if (valor.endsWith("h")) {
+            return Integer.parseInt(valor.substring(0, valor.length() - 1)) * 3600;
+        }
+        if (valor.endsWith("s")) {
+            return Integer.parseInt(valor.substring(0, valor.length() - 1));
+        }
+        return Integer.parseInt(valor);
+    }
+
+    private static double converterPercentual(String valor) {
+        return Double.parseDouble(valor.endsWith("%") ? valor.substring(0, valor.length() - 1) : valor);
+    }
+
+    /**
+     * Valor programado pelo evento atual no instante {@code tempo} (que deve ser >= início do evento).
+     */
+    private double valorNoEvento(int tempo) {
+        int decorrido = tempo - inicios[cursor];
+        if (duracoes[cursor] == 0 || decorrido >= duracoes[cursor]) {
+            return valoresFinais[cursor];
+        }
+        double fracao = (double) decorrido / duracoes[cursor];
+        return valorInicialDoEvento + (valoresFinais[cursor] - valorInicialDoEvento) * fracao;
+    }
+
+    /**
+     * Aplica ao controle de vazão o valor programado para o instante. Ao entrar em um novo evento o valor é
+     * sempre escrito (sobrepondo um ajuste manual); dentro de uma rampa, apenas quando muda.
+     * Os instantes devem ser consultados em ordem crescente, como acontece na simulação.
+     *
+     * @param tempo O tempo simulado do passo, em segundos.
+     * @param controleVazao O controle que receberá o novo valor.
+     */
+    public void aplicar(int tempo, ControleVazao controleVazao) {
+        boolean novoEvento = false;
+        while (cursor + 1 < inicios.length && inicios[cursor + 1] <= tempo) {
+            cursor++;
+            novoEvento = true;
+        }
+        if (cursor < 0) {
+            return; // Antes do primeiro evento, o roteiro não interfere.
+        }
+        if (novoEvento) {
+            // A rampa parte do valor em vigor agora: o do slider, o do evento anterior ou o ponto
+            // em que a rampa anterior estava.
+            valorInicialDoEvento = controleVazao.getMultiplicador();
+        }
+        double valor = valorNoEvento(tempo);
+        if (novoEvento || Double.compare(valor, ultimoAplicado) != 0) {
+            ultimoAplicado = valor;
+            controleVazao.restaurarMultiplicador(valor);
+        }
+    }
+
+    public int getQuantidadeDeEventos() { return inicios.length; }
+}
@@ -7,6 +7,9 @@ import main.java.br.com.simulador.observer.Observador;
 /**
  * Responsável por gerar os logs de texto no console.
  * Implementa a interface Observador para ser notificado sobre atualizações.
+ *
+ * Quando o registro estruturado está configurado ({@code registro.arquivo}), as leituras de cada passo
+ * vão para o arquivo (via {@code RegistradorDeLeituras}) e esta classe imprime apenas o início e o fim.
  */
 public record Saida(SimulatorConfig config) implements Observador {
 
@@ -14,7 +17,7 @@ public record Saida(SimulatorConfig config) implements Observador {
     public void atualizar(Medidor medidor, int tempoSimulado) {
         if (tempoSimulado == 0) {
             logInicioSimulacao(medidor);
-        } else {
+        } else if (config.getRegistroArquivo() == null) {
             logMedicao(medidor, tempoSimulado);
         }
     }
@@ -42,6 +45,9 @@ public record Saida(SimulatorConfig config) implements Observador {
         System.out.println("Tempo Total Simulado: " + tempoTotalStr);
         System.out.println("Intervalo de Atualização Visual: " + config.getIntervaloAtualizacao() + "ms");
         System.out.println("Escala de Tempo: 1 frame = " + config.getEscalaDeTempo() + "s");
+        if (config.getRegistroArquivo() != null) {
+            System.out.println("Leituras gravadas em: " + config.getRegistroArquivo() + " (" + config.getRegistroFormato() + ")");
+        }
         System.out.println("=============================================");
     }
 
@@ -0,0 +1,356 @@
+package main.java.br.com.simulador.hidrometro.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checkpoint do estado completo da simulação, em um arquivo mapeado em memória.
+ *
+ * Guarda o relógio simulado, o multiplicador de vazão, o estado de cada medidor (volume, pressão,
+ * fluxo e bitola), o estado dos geradores aleatórios e o estado dos observadores que o declaram
+ * ({@code ObservadorComEstado}). Com isso, uma simulação interrompida continua exatamente de onde parou.
+ *
+ * **Custo na thread da simulação:** gravar é apenas copiar os valores para a memória mapeada (uma
+ * cópia em bloco por coluna). A escrita no disco ({@code force}) é pedida a uma thread separada.
+ *
+ * **Duas cópias (A/B):** o arquivo tem dois slots e cada gravação vai para o slot que não contém o
+ * checkpoint mais recente. Cada slot começa e termina com o mesmo número de sequência; se o processo
+ * morrer no meio de uma gravação, os números não coincidem e o slot anterior, íntegro, é usado.
+ *
+ * **Fim da execução:** uma execução que termina normalmente chama {@link #descartar()}, de modo que só
+ * uma execução interrompida é retomada.
+ *
+ * Layout (little-endian): cabeçalho de {@value #TAMANHO_CABECALHO} bytes e dois slots com
+ * sequência, tempo, quantidades, multiplicador, colunas de m³, pressão, fluxo, bitola, os pares
+ * (semente, gamma) dos geradores, os estados dos observadores e, por fim, a sequência repetida.
+ */
+public class ArquivoDeCheckpoint implements AutoCloseable {
+
+    /** Identifica um arquivo de checkpoint ("CKPT"). */
+    private static final int NUMERO_MAGICO = 0x434b5054;
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 64;
+
+    // --- Posições dentro de cada slot ---
+    private static final int POS_SEQUENCIA = 0;
+    private static final int POS_TEMPO = 8;
+    private static final int POS_QTD_MEDIDORES = 12;
+    private static final int POS_MULTIPLICADOR = 16;
+    private static final int POS_QTD_GERADORES = 24;
+    private static final int POS_QTD_OBSERVADORES = 28;
+    private static final int POS_DADOS = 32;
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final int capacidadeMedidores;
+    private final int capacidadeGeradores;
+    private final int capacidadeObservadores;
+    private final int tamanhoSlot;
+
+    // Posições das colunas dentro do slot, derivadas das capacidades.
+    private final int posM3;
+    private final int posPressao;
+    private final int posFluxo;
+    private final int posBitola;
+    private final int posGeradores;
+    private final int posObservadores;
+    private final int posSequenciaFinal;
+
+    /** Sequência do checkpoint mais recente (0 = nenhum). */
+    private long sequencia = 0;
+    /** Início do slot com o checkpoint mais recente, usado pelos métodos de leitura. */
+    private int slotAtual = -1;
+
+    /** Thread que grava as páginas no disco, fora da thread da simulação. */
+    private final ExecutorService sincronizador;
+    private final AtomicBoolean sincronizacaoPendente = new AtomicBoolean(false);
+
+    /**
+     * Abre o arquivo de checkpoint, criando-o se necessário. Se o arquivo existente tiver sido criado com
+     * capacidades menores que as pedidas, ele é recriado com as capacidades maiores e o checkpoint mais
+     * recente é copiado para ele (ex: um checkpoint headless, sem a tela, retomado com a janela).
+     *
+     * @param arquivo O caminho do arquivo.
+     * @param capacidadeMedidores Quantos medidores cabem em um checkpoint.
+     * @param capacidadeGeradores Quantos geradores aleatórios cabem em um checkpoint.
+     * @param capacidadeObservadores Quantos estados de observadores cabem em um checkpoint.
+     * @throws RuntimeException se o arquivo não puder ser aberto ou mapeado.
+     */
+    public ArquivoDeCheckpoint(Path arquivo, int capacidadeMedidores, int capacidadeGeradores, int capacidadeObservadores) {
+        this.arquivo = arquivo;
+        Retrato anterior = null;
+        try {
+            int[] existentes = lerCapacidades(arquivo);
+            if (existentes != null && (existentes[0] < capacidadeMedidores || existentes[1] < capacidadeGeradores
+                    || existentes[2] < capacidadeObservadores)) {
+                System.err.println("Checkpoint com capacidade insuficiente será ampliado: " + arquivo);
+                anterior = lerRetrato(arquivo, existentes);
+                Files.delete(arquivo);
+            }
+            this.capacidadeMedidores = existentes != null ? Math.max(existentes[0], capacidadeMedidores) : capacidadeMedidores;
+            this.capacidadeGeradores = existentes != null ? Math.max(existentes[1], capacidadeGeradores) : capacidadeGeradores;
+            this.capacidadeObservadores = existentes != null ? Math.max(existentes[2], capacidadeObservadores) : capacidadeObservadores;
+
+            this.posM3 = POS_DADOS;
+            this.posPressao = posM3 + this.capacidadeMedidores * 4;
+            this.posFluxo = posPressao + this.capacidadeMedidores * 4;
+            this.posBitola = posFluxo + this.capacidadeMedidores * 4;
+            // Alinha as colunas de long em 8 bytes.
+            this.posGeradores = (posBitola + this.capacidadeMedidores + 7) & ~7;
+            this.posObservadores = posGeradores + this.capacidadeGeradores * 16;
+            this.posSequenciaFinal = posObservadores + this.capacidadeObservadores * 8;
+            this.tamanhoSlot = posSequenciaFinal + 8;
+
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANHO_CABECALHO + 2L * tamanhoSlot);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao abrir checkpoint: " + arquivo, e);
+        }
+
+        if (mapa.getInt(0) != NUMERO_MAGICO) {
+            mapa.putInt(4, VERSAO);
+            mapa.putInt(8, this.capacidadeMedidores);
+            mapa.putInt(12, this.capacidadeGeradores);
+            mapa.putInt(16, this.capacidadeObservadores);
+            mapa.putInt(20, tamanhoSlot);
+            mapa.putInt(0, NUMERO_MAGICO);
+        }
+
+        this.sincronizador = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint-" + arquivo.getFileName());
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (anterior != null) {
+            gravar(anterior.tempo(), anterior.multiplicador(), anterior.m3(), anterior.pressao(), anterior.fluxo(),
+                    anterior.bitolas(), anterior.m3().length, anterior.geradores(), anterior.geradores().length / 2,
+                    anterior.observadores(), anterior.observadores().length);
+        }
+    }
+
+    /**
+     * Lê o checkpoint mais recente de um arquivo com as capacidades informadas.
+     * @return O checkpoint, ou {@code null} se o arquivo não tiver nenhum íntegro.
+     */
+    private static Retrato lerRetrato(Path arquivo, int[] capacidades) {
+        try (ArquivoDeCheckpoint antigo = new ArquivoDeCheckpoint(arquivo, capacidades[0], capacidades[1], capacidades[2])) {
+            if (!antigo.carregar()) {
+                return null;
+            }
+            int medidores = antigo.getQuantidadeMedidores();
+            float[] m3 = new float[medidores];
+            float[] pressao = new float[medidores];
+            float[] fluxo = new float[medidores];
+            byte[] bitolas = new byte[medidores];
+            antigo.lerMedidores(m3, pressao, fluxo, bitolas);
+            long[] geradores = new long[antigo.getQuantidadeGeradores() * 2];
+            antigo.lerGeradores(geradores);
+            long[] observadores = new long[antigo.getQuantidadeObservadores()];
+            antigo.lerObservadores(observadores);
+            return new Retrato(antigo.getTempo(), antigo.getMultiplicador(), m3, pressao, fluxo, bitolas, geradores, observadores);
+        }
+    }
+
+    /**
+     * Lê as capacidades do cabeçalho de um arquivo existente.
+     * @return {medidores, geradores, observadores}, ou {@code null} se o arquivo não existir ou não for válido.
+     */
+    private static int[] lerCapacidades(Path arquivo) throws IOException {
+        if (!Files.exists(arquivo) || Files.size(arquivo) < TAMANHO_CABECALHO) {
+            return null;
+        }
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+            leitura.read(cabecalho, 0);
+            if (cabecalho.getInt(0) != NUMERO_MAGICO || cabecalho.getInt(4) != VERSAO) {
+                return null;
+            }
+            return new int[] {cabecalho.getInt(8), cabecalho.getInt(12), cabecalho.getInt(16)};
+        }
+    }
+
+    /**
+     * Procura o checkpoint íntegro mais recente no arquivo e o seleciona para leitura.
+     *
+     * @return {@code true} se um checkpoint foi encontrado.
+     */
+    public boolean carregar() {
+        sequencia = 0;
+        slotAtual = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            int inicio = inicioDoSlot(slot);
+            long inicial = mapa.getLong(inicio + POS_SEQUENCIA);
+            long fin = mapa.getLong(inicio + posSequenciaFinal);
+            if (inicial != 0 && inicial == fin && inicial > sequencia) {
+                sequencia = inicial;
+                slotAtual = inicio;
+            }
+        }
+        return slotAtual >= 0;
+    }
+
+    /**
+     * Grava um novo checkpoint no slot livre e pede a sincronização com o disco em segundo plano.
+     *
+     * @param tempo O relógio simulado, em segundos.
+     * @param multiplicador O multiplicador de vazão (0.0 a 1.0).
+     * @param m3 Volume de cada medidor.
+     * @param pressao Pressão de cada medidor.
+     * @param fluxo Último fluxo de cada medidor.
+     * @param bitolas Ordinal da bitola de cada medidor.
+     * @param quantidadeMedidores Quantos medidores dos arrays acima são gravados.
+     * @param geradores Pares (semente, gamma) dos geradores aleatórios.
+     * @param quantidadeGeradores Quantos geradores (pares) são gravados.
+     * @param observadores Estado de cada observador.
+     * @param quantidadeObservadores Quantos estados de observadores são gravados.
+     * @throws IllegalArgumentException se alguma quantidade exceder a capacidade do arquivo.
+     */
+    public void gravar(int tempo, double multiplicador,
+                       float[] m3, float[] pressao, float[] fluxo, byte[] bitolas, int quantidadeMedidores,
+                       long[] geradores, int quantidadeGeradores,
+                       long[] observadores, int quantidadeObservadores) {
+        if (quantidadeMedidores > capacidadeMedidores || quantidadeGeradores > capacidadeGeradores
+                || quantidadeObservadores > capacidadeObservadores) {
+            throw new IllegalArgumentException("O estado da simulação excede a capacidade do checkpoint: " + arquivo);
+        }
+        long novaSequencia = sequencia + 1;
+        // O slot do checkpoint anterior nunca é tocado: grava no outro.
+        int inicio = inicioDoSlot((int) (novaSequencia & 1));
+
+        // 1. Marca o início da gravação; até a sequência final ser escrita, o slot é considerado incompleto.
+        mapa.putLong(inicio + posSequenciaFinal, 0L);
+        mapa.putLong(inicio + POS_SEQUENCIA, novaSequencia);
+
+        // 2. Copia o estado, uma coluna por vez.
+        mapa.putInt(inicio + POS_TEMPO, tempo);
+        mapa.putInt(inicio + POS_QTD_MEDIDORES, quantidadeMedidores);
+        mapa.putDouble(inicio + POS_MULTIPLICADOR, multiplicador);
+        mapa.putInt(inicio + POS_QTD_GERADORES, quantidadeGeradores);
+        mapa.putInt(inicio + POS_QTD_OBSERVADORES, quantidadeObservadores);
+        regiao(inicio + posM3, quantidadeMedidores * 4).asFloatBuffer().put(m3, 0, quantidadeMedidores);
+        regiao(inicio + posPressao, quantidadeMedidores * 4).asFloatBuffer().put(pressao, 0, quantidadeMedidores);
+        regiao(inicio + posFluxo, quantidadeMedidores * 4).asFloatBuffer().put(fluxo, 0, quantidadeMedidores);
+        mapa.put(inicio + posBitola, bitolas, 0, quantidadeMedidores);
+        regiao(inicio + posGeradores, quantidadeGeradores * 16).asLongBuffer().put(geradores, 0, quantidadeGeradores * 2);
+        regiao(inicio + posObservadores, quantidadeObservadores * 8).asLongBuffer().put(observadores, 0, quantidadeObservadores);
+
+        // 3. Fecha o slot: a partir daqui ele passa a ser o checkpoint mais recente.
+        mapa.putLong(inicio + posSequenciaFinal, novaSequencia);
+        sequencia = novaSequencia;
+        slotAtual = inicio;
+
+        solicitarSincronizacao();
+    }
+
+    /**
+     * Agenda um {@code force()} na thread de sincronização, se ainda não houver um pendente.
+     */
+    private void solicitarSincronizacao() {
+        if (sincronizacaoPendente.compareAndSet(false, true)) {
+            sincronizador.execute(() -> {
+                sincronizacaoPendente.set(false);
+                mapa.force();
+            });
+        }
+    }
+
+    /**
+     * Invalida os dois slots, para que a próxima abertura não encontre checkpoint a retomar.
+     * Chamado quando a execução termina normalmente.
+     */
+    public void descartar() {
+        for (int slot = 0; slot < 2; slot++) {
+            int inicio = inicioDoSlot(slot);
+            mapa.putLong(inicio + POS_SEQUENCIA, 0L);
+            mapa.putLong(inicio + posSequenciaFinal, 0L);
+        }
+        sequencia = 0;
+        slotAtual = -1;
+        solicitarSincronizacao();
+    }
+
+    private int inicioDoSlot(int slot) {
+        return TAMANHO_CABECALHO + slot * tamanhoSlot;
+    }
+
+    /** Visão (little-endian) de uma região do mapa, para cópias em bloco. */
+    private ByteBuffer regiao(int inicio, int tamanho) {
+        return mapa.slice(inicio, tamanho).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // --- Leitura do checkpoint selecionado por carregar() ou pela última gravação ---
+
+    private void exigirCheckpoint() {
+        if (slotAtual < 0) {
+            throw new IllegalStateException("Nenhum checkpoint carregado: " + arquivo);
+        }
+    }
+
+    public int getTempo() { exigirCheckpoint(); return mapa.getInt(slotAtual + POS_TEMPO); }
+    public double getMultiplicador() { exigirCheckpoint(); return mapa.getDouble(slotAtual + POS_MULTIPLICADOR); }
+    public int getQuantidadeMedidores() { exigirCheckpoint(); return mapa.getInt(slotAtual + POS_QTD_MEDIDORES); }
+    public int getQuantidadeGeradores() { exigirCheckpoint(); return mapa.getInt(slotAtual + POS_QTD_GERADORES); }
+    public int getQuantidadeObservadores() { exigirCheckpoint(); return mapa.getInt(slotAtual + POS_QTD_OBSERVADORES); }
+    public long getSequencia() { return sequencia; }
+
+    /**
+     * Copia o estado dos medidores do checkpoint para os arrays informados (que devem ter espaço suficiente).
+     */
+    public void lerMedidores(float[] m3, float[] pressao, float[] fluxo, byte[] bitolas) {
+        int quantidade = getQuantidadeMedidores();
+        regiao(slotAtual + posM3, quantidade * 4).asFloatBuffer().get(m3, 0, quantidade);
+        regiao(slotAtual + posPressao, quantidade * 4).asFloatBuffer().get(pressao, 0, quantidade);
+        regiao(slotAtual + posFluxo, quantidade * 4).asFloatBuffer().get(fluxo, 0, quantidade);
+        mapa.get(slotAtual + posBitola, bitolas, 0, quantidade);
+    }
+
+    /**
+     * Copia os pares (semente, gamma) dos geradores para o array informado.
+     */
+    public void lerGeradores(long[] geradores) {
+        int quantidade = getQuantidadeGeradores();
+        regiao(slotAtual + posGeradores, quantidade * 16).asLongBuffer().get(geradores, 0, quantidade * 2);
+    }
+
+    /**
+     * Copia os estados dos observadores para o array informado.
+     */
+    public void lerObservadores(long[] observadores) {
+        int quantidade = getQuantidadeObservadores();
+        regiao(slotAtual + posObservadores, quantidade * 8).asLongBuffer().get(observadores, 0, quantidade);
+    }
+
+    /**
+     * Grava as páginas no disco, encerra a thread de sincronização e fecha o arquivo.
+     */
+    @Override
+    public void close() {
+        sincronizador.shutdown();
+        mapa.force();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fechar checkpoint: " + arquivo, e);
+        }
+    }
+
+    public Path getArquivo() { return arquivo; }
+
+    /**
+     * Cópia em memória de um checkpoint, usada para levá-lo a um arquivo ampliado.
+     */
+    private record Retrato(int tempo, double multiplicador, float[] m3, float[] pressao, float[] fluxo, byte[] bitolas,
+                           long[] geradores, long[] observadores) {}
+}
@@ -0,0 +1,109 @@
+package main.java.br.com.simulador.hidrometro.display;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Codificador JPEG reaproveitável, com qualidade configurável.
+ *
+ * {@code ImageIO.write} procura um {@link ImageWriter} e cria um novo a cada chamada, sempre com a
+ * qualidade padrão. Esta classe obtém o writer uma única vez, fixa a qualidade no {@link ImageWriteParam}
+ * e codifica sempre no mesmo buffer em memória, que cresce até o tamanho de um quadro e depois é reaproveitado.
+ *
+ * Não é thread-safe: cada thread que codifica deve ter a sua instância. Chame {@link #close()} ao final
+ * para liberar os recursos nativos do writer.
+ */
+public class CodificadorJpeg implements AutoCloseable {
+
+    private final ImageWriter writer;
+    private final ImageWriteParam parametros;
+    private final Saida saida = new Saida();
+
+    /**
+     * @param qualidade A qualidade do JPEG, de 0.0 (menor arquivo) a 1.0 (melhor imagem).
+     * @throws IllegalArgumentException se a qualidade estiver fora do intervalo.
+     * @throws IllegalStateException se a JVM não tiver um codificador JPEG.
+     */
+    public CodificadorJpeg(float qualidade) {
+        if (!(qualidade >= 0.0f && qualidade <= 1.0f)) {
+            throw new IllegalArgumentException("Qualidade JPEG deve estar entre 0.0 e 1.0: " + qualidade);
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IllegalStateException("Nenhum codificador JPEG disponível.");
+        }
+        this.writer = writers.next();
+        this.parametros = writer.getDefaultWriteParam();
+        parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        parametros.setCompressionQuality(qualidade);
+    }
+
+    /**
+     * Codifica a imagem no buffer interno. O resultado fica disponível em {@link #getBytes()} e
+     * {@link #getTamanho()} até a próxima chamada.
+     *
+     * @param imagem A imagem a codificar.
+     * @throws IOException se o codificador falhar.
+     */
+    public void codificar(BufferedImage imagem) throws IOException {
+        saida.reset();
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(saida)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            writer.setOutput(null);
+        }
+    }
+
+    /**
+     * Codifica a imagem e grava o arquivo, substituindo o conteúdo anterior se ele existir.
+     *
+     * @param imagem A imagem a codificar.
+     * @param arquivo O arquivo de destino. O diretório deve existir.
+     * @throws IOException se a codificação ou a escrita falhar.
+     */
+    public void gravar(BufferedImage imagem, Path arquivo) throws IOException {
+        codificar(imagem);
+        try (OutputStream out = Files.newOutputStream(arquivo)) {
+            out.write(saida.buffer(), 0, saida.size());
+        }
+    }
+
+    /** O buffer interno com o último JPEG codificado (válido até {@link #getTamanho()}). */
+    public byte[] getBytes() {
+        return saida.buffer();
+    }
+
+    /** Quantidade de bytes do último JPEG codificado. */
+    public int getTamanho() {
+        return saida.size();
+    }
+
+    @Override
+    public void close() {
+        writer.dispose();
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} que expõe o array interno, para evitar a cópia de {@code toByteArray()}.
+     */
+    private static final class Saida extends ByteArrayOutputStream {
+        Saida() {
+            super(64 * 1024);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -8,9 +8,19 @@ import java.awt.*;
  * Representa um componente de UI (painel) autônomo e reutilizável,
  * cuja única responsabilidade é fornecer um controle deslizante (JSlider)
  * para que o usuário possa ajustar a vazão da simulação em tempo real.
+ *
+ * A vazão também muda por fora do slider (roteiro, reprodução de um log, retomada de um checkpoint).
+ * Por isso um {@link Timer} do Swing consulta o {@link ControleVazao} periodicamente, na thread de
+ * eventos, e reposiciona o slider sem devolver o valor arredondado à simulação.
  */
 public class ControleVazaoPanel extends JPanel {
 
+    /** Intervalo, em milissegundos, entre duas consultas ao estado da vazão. */
+    private static final int INTERVALO_SINCRONIZACAO_MS = 200;
+
+    /** {@code true} enquanto o slider é reposicionado a partir do estado, e não pelo usuário. */
+    private boolean sincronizando = false;
+
     /**
      * Constrói e inicializa o painel de controle de vazão.
      * @param controleVazao Uma instância do objeto de estado compartilhado.
@@ -48,8 +58,8 @@ public class ControleVazaoPanel extends JPanel {
         add(tituloLabel, BorderLayout.NORTH); // Adiciona o título na parte superior do painel.
 
         // --- 2. Slider (Controle Deslizante) ---
-        // Cria um slider que vai de 0 a 100, com valor inicial 100.
-        JSlider sliderVazao = new JSlider(0, 100, 100);
+        // Cria um slider que vai de 0 a 100, com o valor inicial do estado (100, ou o de um checkpoint retomado).
+        JSlider sliderVazao = new JSlider(0, 100, controleVazao.getPercentual());
 
         // Torna o fundo do slider transparente para que a cor do painel principal apareça.
         sliderVazao.setOpaque(false);
@@ -63,7 +73,7 @@ public class ControleVazaoPanel extends JPanel {
         add(sliderVazao, BorderLayout.CENTER); // Adiciona o slider na área central do painel.
 
         // --- 3. Label de Exibição do Valor ---
-        JLabel labelValorVazao = new JLabel("100%", SwingConstants.CENTER);
+        JLabel labelValorVazao = new JLabel(controleVazao.getPercentual() + "%", SwingConstants.CENTER);
         labelValorVazao.setFont(new Font("Arial", Font.BOLD, 16));
         labelValorVazao.setForeground(new Color(230, 230, 230));
 
@@ -75,7 +85,11 @@ public class ControleVazaoPanel extends JPanel {
 
             // PONTO CRÍTICO: Atualiza o objeto de estado compartilhado (ControleVazao).
             // É assim que este componente de UI comunica a mudança para o resto do sistema (a simulação).
-            controleVazao.setMultiplicador(percentual);
+            // Se a mudança veio do próprio estado, não é devolvida: o percentual arredondado
+            // sobrescreveria o valor exato de uma rampa do roteiro.
+            if (!sincronizando) {
+                controleVazao.setMultiplicador(percentual);
+            }
 
             // Atualiza o texto do label na tela para dar feedback visual imediato ao usuário.
             labelValorVazao.setText(percentual + "%");
@@ -88,5 +102,21 @@ public class ControleVazaoPanel extends JPanel {
         valorPanel.setOpaque(false); // Transparente para não cobrir o fundo principal.
         valorPanel.add(labelValorVazao);
         add(valorPanel, BorderLayout.EAST); // Adiciona o painel auxiliar na parte direita.
+
+        // --- 6. Sincronização com o Estado ---
+        // O Timer do Swing dispara na thread de eventos, a mesma do slider. Enquanto o usuário
+        // arrasta o slider, a posição dele prevalece.
+        Timer sincronizacao = new Timer(INTERVALO_SINCRONIZACAO_MS, e -> {
+            int percentual = controleVazao.getPercentual();
+            if (!sliderVazao.getValueIsAdjusting() && sliderVazao.getValue() != percentual) {
+                sincronizando = true;
+                try {
+                    sliderVazao.setValue(percentual);
+                } finally {
+                    sincronizando = false;
+                }
+            }
+        });
+        sincronizacao.start();
     }
 }
\ No newline at end of file
@@ -1,13 +1,14 @@
 package main.java.br.com.simulador.hidrometro.display;
 
 import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.metricas.MetricasDaSimulacao;
 import main.java.br.com.simulador.observer.Observador;
+import main.java.br.com.simulador.observer.ObservadorComEstado;
 import main.java.br.com.simulador.hidrometro.ControleVazao;
 import main.java.br.com.simulador.hidrometro.Medidor;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 
 /**
  * Coordena a exibição e interação da interface gráfica do simulador.
@@ -20,12 +21,18 @@ import java.awt.image.BufferedImage;
  * 2. **Observer (Observador):** Implementa a interface `Observador` para reagir
  * às atualizações da simulação de forma desacoplada, sendo notificada pelo
  * `HidrometroSimulator`.
+ *
+ * Os métodos do Observador são chamados pela thread da simulação. Por isso, esta classe nunca toca os
+ * componentes Swing diretamente: o desenho é feito fora da EDT pelo {@link PainelDoHidrometro}, e mudanças
+ * na janela (mostrar, trocar o título) são enviadas para a EDT com {@code SwingUtilities.invokeLater}.
  */
-public class Display implements Observador {
+public class Display implements Observador, ObservadorComEstado {
 
     // --- Componentes da Janela Principal ---
     private final JFrame frame;
-    private final JLabel labelImagem;
+    private final PainelDoHidrometro painelImagem;
+    /** Indica se a janela já foi (ou está para ser) exibida na EDT. */
+    private boolean exibida = false;
 
     // --- Especialistas para Delegação de Tarefas ---
     /** Referência ao objeto que sabe desenhar o hidrômetro. */
@@ -36,8 +43,9 @@ public class Display implements Observador {
     /**
      * Estado interno para controlar a lógica de salvamento de imagens.
      * A imagem só é salva quando o valor inteiro de m³ muda.
+     * É gravado nos checkpoints, para que uma simulação retomada não salve de novo as mesmas imagens.
      */
-    private int ultimoM3Salvo = 0;
+    private volatile int ultimoM3Salvo = 0;
 
     /**
      * Constrói a janela da interface gráfica e inicializa seus componentes especialistas.
@@ -48,9 +56,26 @@ public class Display implements Observador {
      * @param config Objeto de configuração da simulação.
      */
     public Display(ControleVazao controleVazao, SimulatorConfig config) {
+        this(controleVazao, config, null);
+    }
+
+    /**
+     * Variante instrumentada: a renderização das imagens salvas e a gravação delas entram nas métricas.
+     *
+     * @param controleVazao Objeto de estado compartilhado para o controle de vazão.
+     * @param config Objeto de configuração da simulação.
+     * @param metricas As métricas da simulação, ou {@code null} para não medir.
+     */
+    public Display(ControleVazao controleVazao, SimulatorConfig config, MetricasDaSimulacao metricas) {
         // 1. Instancia os especialistas que farão o trabalho pesado.
         this.renderer = new HidrometroRenderer();
-        this.imageSaver = new ImagePersistenceService(config);
+        this.imageSaver = new ImagePersistenceService(config, metricas);
+        if (metricas != null) {
+            renderer.medirRenderizacoes(metricas.getRenderizacao());
+        }
+        if (config.isJfrEventos()) {
+            renderer.ativarEventosJfr();
+        }
 
         // 2. Configura a janela principal (o "contêiner" da UI).
         this.frame = new JFrame("Simulador de Hidrómetro");
@@ -59,8 +84,8 @@ public class Display implements Observador {
         frame.setLayout(new BorderLayout());
 
         // 3. Prepara a área onde a imagem do hidrômetro será exibida.
-        this.labelImagem = new JLabel();
-        frame.add(labelImagem, BorderLayout.CENTER);
+        this.painelImagem = new PainelDoHidrometro(renderer);
+        frame.add(painelImagem, BorderLayout.CENTER);
 
         // 4. DELEGA a criação do complexo painel de controle para sua classe especialista.
         ControleVazaoPanel painelControle = new ControleVazaoPanel(controleVazao);
@@ -83,10 +108,8 @@ public class Display implements Observador {
 
         // --- Orquestração das Tarefas de Atualização ---
 
-        // 1. DELEGA a tarefa complexa de desenhar a imagem para o especialista em renderização.
-        BufferedImage imagem = renderer.gerarImagemAnalogica(totalM3);
-        // Atualiza a imagem exibida na tela.
-        labelImagem.setIcon(new ImageIcon(imagem));
+        // 1. DELEGA o desenho ao painel, que só desenha se a tela puder mostrar o quadro.
+        painelImagem.publicar(totalM3, false);
 
         // 2. Executa a lógica de coordenação: decide se é hora de salvar a imagem.
         int m3AtualInteiro = (int) totalM3;
@@ -94,17 +117,31 @@ public class Display implements Observador {
             this.ultimoM3Salvo = m3AtualInteiro;
 
             // 3. DELEGA a tarefa de salvar o arquivo para o especialista em persistência.
-            // Isso acontece em uma thread separada, não travando a interface.
-            imageSaver.salvarImagem(imagem, m3AtualInteiro);
+            // Isso acontece em uma thread separada, não travando a interface. Os buffers do painel
+            // são reaproveitados, então o arquivo recebe uma imagem própria.
+            imageSaver.salvarImagem(renderer.gerarImagemAnalogica(totalM3), m3AtualInteiro);
         }
 
         // Garante que a janela se torne visível na primeira chamada do método `atualizar`.
-        if (!frame.isVisible()) {
-            frame.pack(); // Ajusta o tamanho da janela ao conteúdo.
-            frame.setVisible(true);
+        if (!exibida) {
+            exibida = true;
+            SwingUtilities.invokeLater(() -> {
+                frame.pack(); // Ajusta o tamanho da janela ao conteúdo.
+                frame.setVisible(true);
+            });
         }
     }
 
+    @Override
+    public long exportarEstado() {
+        return ultimoM3Salvo;
+    }
+
+    @Override
+    public void restaurarEstado(long estado) {
+        this.ultimoM3Salvo = (int) estado;
+    }
+
     /**
      * Método chamado pelo `HidrometroSimulator` quando a simulação termina.
      *
@@ -112,11 +149,17 @@ public class Display implements Observador {
      */
     @Override
     public void simulacaoFinalizada(Medidor medidor) {
+        // O último quadro é sempre desenhado, mesmo que a tela ainda não tenha pintado o anterior.
+        painelImagem.publicar(medidor.getM3(), true);
+
         // Atualiza o título da janela para dar feedback visual ao usuário.
-        frame.setTitle("Simulador de Hidrómetro (FINALIZADO)");
+        SwingUtilities.invokeLater(() -> frame.setTitle("Simulador de Hidrómetro (FINALIZADO)"));
 
-        // DELEGA a tarefa de encerrar o serviço de thread para o especialista.
-        // Isso é crucial para que a aplicação termine de forma limpa, sem threads "penduradas".
+        // DELEGA a tarefa de encerrar o serviço de thread para o especialista, que grava o que
+        // ainda estiver na fila. Isso é crucial para que a aplicação termine de forma limpa, sem threads "penduradas".
         imageSaver.shutdown();
+        System.out.println("Imagens: " + imageSaver.getImagensSalvas() + " salvas, "
+                + imageSaver.getImagensDescartadas() + " descartadas, "
+                + imageSaver.getLatenciaMediaMicros() + " µs por imagem em média.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package main.java.br.com.simulador.hidrometro.display;
+
+import main.java.br.com.simulador.hidrometro.frota.EstadoFrota;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Tarefa em lote que gera a "foto" diária de cada hidrômetro de uma frota, para o arquivo de faturamento.
+ *
+ * Cada imagem tem o mesmo estilo do {@link HidrometroRenderer} e é gravada no mesmo lugar em que o
+ * {@link ImagePersistenceService} a gravaria: {@code <raiz>/Medicoes_<matricula>/NN.jpeg}, onde NN é o
+ * m³ inteiro módulo 100. Nada depende de janela: a tarefa roda com {@code java.awt.headless=true}.
+ *
+ * O trabalho é dividido entre todos os núcleos. Cada thread tem o seu próprio renderizador, o seu próprio
+ * buffer de imagem (reaproveitado entre medidores) e o seu próprio {@link CodificadorJpeg}; as threads só
+ * compartilham um contador atômico, de onde retiram faixas de {@link #TAMANHO_FAIXA} medidores.
+ *
+ * Pode ser usada como biblioteca ({@link #fotografar(EstadoFrota)}, {@link #fotografar(List)}) ou pela
+ * linha de comando, com um CSV de leituras {@code matricula,m3}:
+ * <pre>
+ * java -Djava.awt.headless=true main.java.br.com.simulador.hidrometro.display.FotografiaEmLote leituras.csv [raiz] [qualidade]
+ * </pre>
+ */
+public class FotografiaEmLote {
+
+    /** Quantos medidores cada thread retira do contador de uma vez. */
+    private static final int TAMANHO_FAIXA = 64;
+
+    private final Path raiz;
+    private final float qualidade;
+    private final int threads;
+
+    /**
+     * @param raiz O diretório onde as pastas {@code Medicoes_<matricula>} são criadas.
+     * @param qualidade A qualidade do JPEG, de 0.0 a 1.0.
+     * @param threads Quantas threads renderizam e codificam em paralelo.
+     */
+    public FotografiaEmLote(Path raiz, float qualidade, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A quantidade de threads deve ser maior que zero: " + threads);
+        }
+        new CodificadorJpeg(qualidade).close(); // valida a qualidade antes de começar
+        this.raiz = raiz;
+        this.qualidade = qualidade;
+        this.threads = threads;
+    }
+
+    /**
+     * Usa todos os núcleos disponíveis.
+     */
+    public FotografiaEmLote(Path raiz, float qualidade) {
+        this(raiz, qualidade, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Fotografa todos os medidores da frota, com a matrícula e o volume atuais de cada um.
+     *
+     * @param estado O estado da frota; não deve ser alterado durante a execução.
+     * @return O relatório da execução.
+     */
+    public RelatorioDeFotografia fotografar(EstadoFrota estado) {
+        return fotografar(estado.getQuantidade(), estado::getMatricula, estado::getM3);
+    }
+
+    /**
+     * Fotografa uma lista de leituras.
+     *
+     * @param leituras As leituras (matrícula e volume) a fotografar.
+     * @return O relatório da execução.
+     */
+    public RelatorioDeFotografia fotografar(List<LeituraParaFoto> leituras) {
+        return fotografar(leituras.size(), i -> leituras.get(i).matricula(), i -> leituras.get(i).m3());
+    }
+
+    private RelatorioDeFotografia fotografar(int quantidade, IntFunction<String> matriculas, VolumePorIndice volumes) {
+        AtomicInteger proximo = new AtomicInteger();
+        AtomicInteger gravadas = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        List<Thread> trabalhadores = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread trabalhador = new Thread(() -> {
+                HidrometroRenderer renderer = new HidrometroRenderer();
+                BufferedImage quadro = new BufferedImage(HidrometroRenderer.LARGURA, HidrometroRenderer.ALTURA, BufferedImage.TYPE_INT_RGB);
+                try (CodificadorJpeg codificador = new CodificadorJpeg(qualidade)) {
+                    int faixa;
+                    while ((faixa = proximo.getAndAdd(TAMANHO_FAIXA)) < quantidade) {
+                        int fim = Math.min(faixa + TAMANHO_FAIXA, quantidade);
+                        for (int i = faixa; i < fim; i++) {
+                            if (gravar(renderer, quadro, codificador, matriculas.apply(i), volumes.m3(i))) {
+                                gravadas.incrementAndGet();
+                            } else {
+                                erros.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            }, "fotografia-" + t);
+            trabalhador.start();
+            trabalhadores.add(trabalhador);
+        }
+        for (Thread trabalhador : trabalhadores) {
+            try {
+                trabalhador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new RelatorioDeFotografia(gravadas.get(), erros.get(), System.nanoTime() - inicio);
+    }
+
+    /**
+     * Renderiza, codifica e grava a foto de um medidor.
+     *
+     * @return {@code false} se a matrícula for inválida ou a gravação falhar.
+     */
+    private boolean gravar(HidrometroRenderer renderer, BufferedImage quadro, CodificadorJpeg codificador,
+                           String matricula, float m3) {
+        // A matrícula vira nome de diretório: separadores de caminho não são aceitos.
+        if (matricula == null || matricula.isEmpty() || matricula.indexOf('/') >= 0
+                || matricula.indexOf('\\') >= 0 || matricula.equals("..")) {
+            System.err.println("AVISO: Matrícula inválida ignorada: " + matricula);
+            return false;
+        }
+        Path diretorio = raiz.resolve(ImagePersistenceService.nomeDoDiretorio(matricula));
+        Path arquivo = diretorio.resolve(ImagePersistenceService.nomeDoArquivo((int) m3));
+        try {
+            renderer.renderizar(m3, quadro);
+            Files.createDirectories(diretorio);
+            codificador.gravar(quadro, arquivo);
+            return true;
+        } catch (IOException e) {
+            System.err.println("ERRO ao salvar a imagem " + arquivo + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lê um CSV de leituras ({@code matricula,m3}), ignorando linhas vazias, comentários ({@code #})
+     * e o cabeçalho.
+     *
+     * @param arquivo O caminho do CSV.
+     * @return As leituras, na ordem do arquivo.
+     */
+    public static List<LeituraParaFoto> lerLeituras(Path arquivo) {
+        List<LeituraParaFoto> leituras = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = br.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#") || linha.startsWith("matricula")) {
+                    continue;
+                }
+                int virgula = linha.indexOf(',');
+                if (virgula < 0) {
+                    throw new IllegalArgumentException("Linha " + numero + " das leituras: esperado matricula,m3");
+                }
+                leituras.add(new LeituraParaFoto(linha.substring(0, virgula).trim(),
+                        Float.parseFloat(linha.substring(virgula + 1).trim())));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler as leituras: " + arquivo, e);
+        }
+        return leituras;
+    }
+
+    /**
+     * Ponto de entrada da linha de comando.
+     *
+     * @param args O CSV de leituras e, opcionalmente, o diretório raiz (padrão ".") e a qualidade (padrão 0.75).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: FotografiaEmLote <leituras.csv> [raiz] [qualidade]");
+            System.exit(2);
+        }
+        // Precisa ser definido antes de qualquer classe do AWT ser carregada.
+        System.setProperty("java.awt.headless", "true");
+
+        List<LeituraParaFoto> leituras = lerLeituras(Path.of(args[0]));
+        Path raiz = Path.of(args.length > 1 ? args[1] : ".");
+        float qualidade = args.length > 2 ? Float.parseFloat(args[2]) : 0.75f;
+
+        FotografiaEmLote lote = new FotografiaEmLote(raiz, qualidade);
+        RelatorioDeFotografia relatorio = lote.fotografar(leituras);
+        System.out.printf("%d imagens gravadas (%d erros) em %.2f s com %d threads: %.0f imagens/s%n",
+                relatorio.imagens(), relatorio.erros(), relatorio.segundos(), lote.threads, relatorio.imagensPorSegundo());
+    }
+
+    /**
+     * Uma leitura a fotografar.
+     */
+    public record LeituraParaFoto(String matricula, float m3) {}
+
+    /**
+     * Resultado de uma execução do lote.
+     *
+     * @param imagens Quantas imagens foram gravadas.
+     * @param erros Quantas leituras falharam (matrícula inválida ou erro de I/O).
+     * @param nanos A duração total da execução.
+     */
+    public record RelatorioDeFotografia(int imagens, int erros, long nanos) {
+        public double segundos() {
+            return nanos / 1e9;
+        }
+
+        public double imagensPorSegundo() {
+            return nanos == 0 ? 0 : imagens / segundos();
+        }
+    }
+
+    /**
+     * Volume de uma leitura pelo índice, sem boxing.
+     */
+    @FunctionalInterface
+    private interface VolumePorIndice {
+        float m3(int indice);
+    }
+}
@@ -1,23 +1,158 @@
 package main.java.br.com.simulador.hidrometro.display;
 
+import main.java.br.com.simulador.jfr.EventoRenderizacao;
+import main.java.br.com.simulador.metricas.HistogramaDeLatencia;
+
 import java.awt.*;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
  * Especialista em renderização gráfica do hidrômetro.
  *
  * Esta classe tem a **única responsabilidade** de converter um valor numérico de consumo (m³)
- * em uma representação visual (`BufferedImage`). Ela é completamente **stateless** (sem estado),
+ * em uma representação visual (`BufferedImage`). Ela não guarda estado entre chamadas,
  * o que significa que para a mesma entrada, ela sempre produzirá a mesma saída.
  * Isso a torna previsível, reutilizável e fácil de testar isoladamente.
  *
+ * **Camadas:** quase tudo no hidrômetro é estático (corpo, gradientes, biséis, textos, selo, catavento
+ * e os números dos mostradores). Essa parte é desenhada uma única vez, na primeira utilização, em uma
+ * imagem de fundo compartilhada e imutável. Cada quadro apenas copia os pixels desse fundo (uma cópia de
+ * array) e aplica por cima o que muda: os seis dígitos do odômetro e os dois ponteiros.
+ *
+ * **Atlas de sprites:** o que muda também é pré-renderizado junto com o fundo. Cada um dos 10 dígitos pretos
+ * e 10 vermelhos é guardado já desenhado dentro da sua caixa branca, e cada ponteiro é guardado em
+ * {@link #PASSOS_PONTEIRO} ângulos, como a lista dos pixels que ele altera no mostrador. Um quadro, então,
+ * é só cópia de arrays: nenhum {@code Graphics2D}, nenhuma {@code String}, nenhuma rasterização.
+ * O ponteiro é arredondado para o passo de 1 grau mais próximo, o que equivale a menos de um pixel na ponta.
+ *
  * Utiliza a API Java 2D Graphics (`Graphics2D`) para realizar todo o desenho.
  */
 public class HidrometroRenderer {
 
+    // --- Dimensões da imagem e pontos de referência ---
+    public static final int LARGURA = 800;
+    public static final int ALTURA = 500;
+    private static final int CENTRO_X = LARGURA / 2;
+    private static final int CENTRO_Y = ALTURA / 2;
+
+    // --- Geometria do odômetro (display digital dos m³) ---
+    private static final int VISOR_LARGURA = 28;
+    private static final int VISOR_ALTURA = 38;
+    private static final int VISOR_Y = CENTRO_Y - 75;
+    private static final int VISOR_ESPACO = 4;
+    private static final int DISPLAY_LARGURA = 6 * VISOR_LARGURA + 5 * VISOR_ESPACO;
+    private static final int DISPLAY_X = CENTRO_X - DISPLAY_LARGURA / 2;
+
+    // --- Geometria dos mostradores analógicos ---
+    private static final int RAIO_MOSTRADOR = 42;
+    private static final int LITROS_X = CENTRO_X + 85;
+    private static final int LITROS_Y = CENTRO_Y + 65;
+    private static final int DECIMOS_X = CENTRO_X;
+    private static final int DECIMOS_Y = CENTRO_Y + 125;
+
+    // --- Fontes e traços, criados uma única vez ---
+    private static final Font FONTE_DIGITO = new Font("Arial", Font.BOLD, 30);
+    private static final Font FONTE_UNIDADE = new Font("Arial", Font.BOLD, 18);
+    private static final Font FONTE_MODELO = new Font("Arial", Font.BOLD, 13);
+    private static final Font FONTE_VAZAO = new Font("Arial", Font.PLAIN, 11);
+    private static final Font FONTE_SELO = new Font("Arial", Font.BOLD, 20);
+    private static final Font FONTE_ROTULO_MOSTRADOR = new Font("Arial", Font.BOLD, 11);
+    private static final Font FONTE_NUMERO_MOSTRADOR = new Font("Arial", Font.BOLD, 12);
+    private static final BasicStroke TRACO_05 = new BasicStroke(0.5f);
+    private static final BasicStroke TRACO_1 = new BasicStroke(1);
+    private static final BasicStroke TRACO_15 = new BasicStroke(1.5f);
+    private static final BasicStroke TRACO_2 = new BasicStroke(2);
+    private static final BasicStroke TRACO_3 = new BasicStroke(3);
+    private static final BasicStroke TRACO_SOMBRA_PONTEIRO = new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Color SOMBRA_PONTEIRO = new Color(0, 0, 0, 70);
+
+    /** Quantidade de ângulos pré-renderizados de cada ponteiro (um por grau). */
+    public static final int PASSOS_PONTEIRO = 360;
+    /** Meia largura da área de cada mostrador afetada pelo ponteiro (a ponta, com a sombra, fica a 37 px do centro). */
+    private static final int ALCANCE_PONTEIRO = 40;
+
+    /** Histograma do tempo de {@link #gerarImagemAnalogica(float)}, ou {@code null} sem métricas. */
+    private HistogramaDeLatencia latenciaDaRenderizacao;
+    /** Se cada quadro grava um {@link EventoRenderizacao} no Java Flight Recorder. */
+    private boolean eventosJfr = false;
+
+    /**
+     * Guarda a camada estática e os sprites. A classe interna só é inicializada (e o atlas só é desenhado)
+     * na primeira vez que um quadro é gerado, e a JVM garante que isso aconteça uma única vez.
+     */
+    private static final class Atlas {
+        /** Pixels do fundo estático, {@link #LARGURA} x {@link #ALTURA}. */
+        static final int[] FUNDO;
+        /** Caixa do odômetro com cada dígito, indexada por {@code cor * 10 + digito} (cor 0 = preto, 1 = vermelho). */
+        static final int[][] DIGITOS = new int[20][];
+        /** Para cada mostrador e ângulo, as posições (no quadro inteiro) dos pixels alterados pelo ponteiro... */
+        static final int[][][] PONTEIRO_POSICOES = new int[2][PASSOS_PONTEIRO][];
+        /** ...e a cor final de cada um desses pixels. */
+        static final int[][][] PONTEIRO_CORES = new int[2][PASSOS_PONTEIRO][];
+
+        static {
+            BufferedImage imagem = new BufferedImage(LARGURA, ALTURA, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) imagem.getRaster().getDataBuffer()).getData();
+            Graphics2D g = imagem.createGraphics();
+            desenharFundo(g);
+            FUNDO = pixels.clone();
+
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(FONTE_DIGITO);
+            FontMetrics fm = g.getFontMetrics();
+            for (int sprite = 0; sprite < DIGITOS.length; sprite++) {
+                // Todos os dígitos são desenhados na primeira caixa, sobre o fundo, e recortados de lá.
+                String digito = String.valueOf(sprite % 10);
+                g.setColor(sprite < 10 ? Color.BLACK : Color.RED);
+                g.drawString(digito, DISPLAY_X + (VISOR_LARGURA - fm.stringWidth(digito)) / 2, VISOR_Y + 29);
+                DIGITOS[sprite] = recortar(pixels, DISPLAY_X, VISOR_Y, VISOR_LARGURA, VISOR_ALTURA);
+                System.arraycopy(FUNDO, 0, pixels, 0, pixels.length);
+            }
+
+            int[][] centros = {{LITROS_X, LITROS_Y}, {DECIMOS_X, DECIMOS_Y}};
+            int[] posicoes = new int[4 * ALCANCE_PONTEIRO * ALCANCE_PONTEIRO];
+            int[] cores = new int[posicoes.length];
+            for (int mostrador = 0; mostrador < 2; mostrador++) {
+                int cx = centros[mostrador][0];
+                int cy = centros[mostrador][1];
+                for (int passo = 0; passo < PASSOS_PONTEIRO; passo++) {
+                    desenharPonteiro(g, cx, cy, RAIO_MOSTRADOR, passo * (360.0 / PASSOS_PONTEIRO));
+
+                    // Guarda só o que mudou em relação ao fundo e restaura a área para o próximo ângulo.
+                    int alterados = 0;
+                    for (int y = cy - ALCANCE_PONTEIRO; y < cy + ALCANCE_PONTEIRO; y++) {
+                        for (int x = cx - ALCANCE_PONTEIRO; x < cx + ALCANCE_PONTEIRO; x++) {
+                            int posicao = y * LARGURA + x;
+                            if (pixels[posicao] != FUNDO[posicao]) {
+                                posicoes[alterados] = posicao;
+                                cores[alterados] = pixels[posicao];
+                                alterados++;
+                                pixels[posicao] = FUNDO[posicao];
+                            }
+                        }
+                    }
+                    PONTEIRO_POSICOES[mostrador][passo] = Arrays.copyOf(posicoes, alterados);
+                    PONTEIRO_CORES[mostrador][passo] = Arrays.copyOf(cores, alterados);
+                }
+            }
+            g.dispose();
+        }
+
+        private static int[] recortar(int[] pixels, int x, int y, int largura, int altura) {
+            int[] recorte = new int[largura * altura];
+            for (int linha = 0; linha < altura; linha++) {
+                System.arraycopy(pixels, (y + linha) * LARGURA + x, recorte, linha * largura, largura);
+            }
+            return recorte;
+        }
+    }
+
     /**
      * Gera uma imagem completa do hidrômetro analógico com base no consumo total.
      *
@@ -25,30 +160,139 @@ public class HidrometroRenderer {
      * @return um objeto {@link BufferedImage} contendo a imagem renderizada do hidrômetro.
      */
     public BufferedImage gerarImagemAnalogica(float total_m3) {
-        // --- 1. Configuração Inicial do "Canvas" ---
-        int width = 800, height = 500;
-        // Cria a imagem em memória onde o desenho será feito.
-        BufferedImage imagem = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        // Obtém o "pincel" (contexto gráfico) para desenhar na imagem.
-        Graphics2D g = (Graphics2D) imagem.getGraphics();
+        long inicio = latenciaDaRenderizacao != null ? System.nanoTime() : 0;
+        BufferedImage imagem = new BufferedImage(LARGURA, ALTURA, BufferedImage.TYPE_INT_RGB);
+        renderizar(total_m3, imagem);
+        if (latenciaDaRenderizacao != null) {
+            latenciaDaRenderizacao.registrar(System.nanoTime() - inicio);
+        }
+        return imagem;
+    }
+
+    /**
+     * Passa a medir o tempo de cada {@link #gerarImagemAnalogica(float)} (alocação e desenho).
+     *
+     * @param latencia O histograma onde os tempos são registrados.
+     */
+    public void medirRenderizacoes(HistogramaDeLatencia latencia) {
+        this.latenciaDaRenderizacao = latencia;
+    }
+
+    /**
+     * Passa a emitir um {@link EventoRenderizacao} para o Java Flight Recorder a cada quadro desenhado
+     * em uma {@link BufferedImage} (inclusive os de {@link #gerarImagemAnalogica(float)}).
+     */
+    public void ativarEventosJfr() {
+        this.eventosJfr = true;
+    }
+
+    /**
+     * Desenha o hidrômetro em uma imagem já existente, sem alocar uma imagem nova.
+     * Útil para quem reaproveita buffers entre quadros.
+     *
+     * @param total_m3 O valor total de metros cúbicos consumidos a ser exibido.
+     * @param destino A imagem de destino, com {@link #LARGURA} x {@link #ALTURA} pixels.
+     */
+    public void renderizar(float total_m3, BufferedImage destino) {
+        if (!eventosJfr) {
+            desenhar(total_m3, destino);
+            return;
+        }
+        EventoRenderizacao evento = new EventoRenderizacao();
+        evento.begin();
+        desenhar(total_m3, destino);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.largura = destino.getWidth();
+            evento.altura = destino.getHeight();
+            evento.m3 = total_m3;
+            evento.commit();
+        }
+    }
 
+    private void desenhar(float total_m3, BufferedImage destino) {
+        if (destino.getType() == BufferedImage.TYPE_INT_RGB
+                && destino.getWidth() == LARGURA && destino.getHeight() == ALTURA) {
+            renderizar(total_m3, ((DataBufferInt) destino.getRaster().getDataBuffer()).getData());
+        } else {
+            // Formato diferente: monta o quadro em um array e converte na cópia.
+            int[] pixels = new int[LARGURA * ALTURA];
+            renderizar(total_m3, pixels);
+            destino.setRGB(0, 0, LARGURA, ALTURA, pixels, 0, LARGURA);
+        }
+    }
+
+    /**
+     * Monta o quadro diretamente em um array de pixels RGB ({@link #LARGURA} x {@link #ALTURA}),
+     * apenas com cópias do atlas. Não aloca nenhum objeto.
+     *
+     * @param total_m3 O valor total de metros cúbicos consumidos a ser exibido.
+     * @param pixels O array de destino, linha a linha.
+     */
+    public void renderizar(float total_m3, int[] pixels) {
+        // --- 1. Camada estática ---
+        System.arraycopy(Atlas.FUNDO, 0, pixels, 0, Atlas.FUNDO.length);
+
+        // --- 2. Dígitos do odômetro ---
+        // Os 4 dígitos inteiros da medição. O módulo 10000 garante que o valor "zere" após 9999.
+        int m3Inteiro = ((int) total_m3) % 10000;
+        copiarDigito(pixels, 0, m3Inteiro / 1000, false);
+        copiarDigito(pixels, 1, (m3Inteiro / 100) % 10, false);
+        copiarDigito(pixels, 2, (m3Inteiro / 10) % 10, false);
+        copiarDigito(pixels, 3, m3Inteiro % 10, false);
+        // Os dígitos decimais que representam as centenas e dezenas de litros.
+        copiarDigito(pixels, 4, (int) ((total_m3 * 10) % 10), true);
+        copiarDigito(pixels, 5, (int) ((total_m3 * 100) % 10), true);
+
+        // --- 3. Ponteiros dos mostradores ---
+        aplicarPonteiro(pixels, 0, (total_m3 * 1000f) % 10f);   // litros (3º dígito decimal)
+        aplicarPonteiro(pixels, 1, (total_m3 * 10000f) % 10f);  // décimos de litro (4º dígito decimal)
+    }
+
+    /**
+     * Copia, linha a linha, o sprite de um dígito para a caixa indicada do odômetro.
+     */
+    private static void copiarDigito(int[] pixels, int caixa, int digito, boolean vermelho) {
+        int[] sprite = Atlas.DIGITOS[(vermelho ? 10 : 0) + digito];
+        int inicio = VISOR_Y * LARGURA + DISPLAY_X + caixa * (VISOR_LARGURA + VISOR_ESPACO);
+        for (int linha = 0; linha < VISOR_ALTURA; linha++) {
+            System.arraycopy(sprite, linha * VISOR_LARGURA, pixels, inicio + linha * LARGURA, VISOR_LARGURA);
+        }
+    }
+
+    /**
+     * Aplica o sprite do ponteiro no ângulo mais próximo do valor (0.0 a 9.9...).
+     */
+    private static void aplicarPonteiro(int[] pixels, int mostrador, float valor) {
+        int passo = Math.round(valor * (PASSOS_PONTEIRO / 10f)) % PASSOS_PONTEIRO;
+        int[] posicoes = Atlas.PONTEIRO_POSICOES[mostrador][passo];
+        int[] cores = Atlas.PONTEIRO_CORES[mostrador][passo];
+        for (int i = 0; i < posicoes.length; i++) {
+            pixels[posicoes[i]] = cores[i];
+        }
+    }
+
+    /**
+     * Desenha tudo o que não depende do consumo. Chamado uma única vez por execução.
+     *
+     * @param g O contexto gráfico da imagem de fundo.
+     */
+    private static void desenharFundo(Graphics2D g) {
         // Ativa o anti-aliasing para suavizar as bordas de formas e textos, resultando em maior qualidade visual.
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         // Define um fundo branco inicial para a imagem.
         g.setColor(Color.WHITE);
-        g.fillRect(0, 0, width, height);
+        g.fillRect(0, 0, LARGURA, ALTURA);
 
-        // --- 2. Definição de Pontos e Medidas Chave ---
-        // Variáveis usadas como referência para posicionar os elementos de forma relativa.
-        int decimosCenterX = width / 2;
-        int centroY = height / 2;
+        int decimosCenterX = CENTRO_X;
+        int centroY = CENTRO_Y;
 
         int raioExterno = 200;
         int raioInterno = 175;
 
-        // --- 3. Desenho do Corpo Azul do Hidrômetro ---
+        // --- Corpo Azul do Hidrômetro ---
         int corpoAlturaCentro = 300;
         int corpoAlturaBorda = 260;
         int conexaoAltura = 150;
@@ -58,8 +302,8 @@ public class HidrometroRenderer {
         body.moveTo(0, centroY - conexaoAltura / 2.0);
         body.lineTo(decimosCenterX - raioExterno + 40, centroY - corpoAlturaBorda / 2.0);
         body.quadTo(decimosCenterX, centroY - corpoAlturaCentro / 2.0, decimosCenterX + raioExterno - 40, centroY - corpoAlturaBorda / 2.0);
-        body.lineTo(width, centroY - conexaoAltura / 2.0);
-        body.lineTo(width, centroY + conexaoAltura / 2.0);
+        body.lineTo(LARGURA, centroY - conexaoAltura / 2.0);
+        body.lineTo(LARGURA, centroY + conexaoAltura / 2.0);
         body.lineTo(decimosCenterX + raioExterno - 40, centroY + corpoAlturaBorda / 2.0);
         body.quadTo(decimosCenterX, centroY + corpoAlturaCentro / 2.0, decimosCenterX - raioExterno + 40, centroY + corpoAlturaBorda / 2.0);
         body.lineTo(0, centroY + conexaoAltura / 2.0);
@@ -71,7 +315,7 @@ public class HidrometroRenderer {
         g.setPaint(gpBody);
         g.fill(body);
 
-        // --- 4. Desenho da Carcaça Preta e Efeitos de Relevo (Bisel) ---
+        // --- Carcaça Preta e Efeitos de Relevo (Bisel) ---
         // Desenha a base preta circular.
         Color basePreto = new Color(40, 40, 40);
         g.setColor(basePreto);
@@ -80,7 +324,7 @@ public class HidrometroRenderer {
         // Simula um efeito de bisel (bevel) desenhando arcos claros (luz) e escuros (sombra) nas bordas.
         // Destaque superior do bisel EXTERNO (simula a luz batendo de cima).
         g.setColor(new Color(70, 70, 70));
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(TRACO_2);
         g.drawArc(decimosCenterX - raioExterno + 2, centroY - raioExterno + 2, 2 * raioExterno - 4, 2 * raioExterno - 4, 45, 180);
 
         // Sombra inferior do bisel EXTERNO (simula a sombra na parte de baixo).
@@ -95,88 +339,60 @@ public class HidrometroRenderer {
         g.setPaint(rgp);
         g.fillOval(decimosCenterX - raioExterno, centroY - raioExterno, 2 * raioExterno, 2 * raioExterno);
 
-        // --- 5. Desenho do Visor Interno Branco ---
+        // --- Visor Interno Branco ---
         g.setColor(Color.WHITE);
         g.fillOval(decimosCenterX - raioInterno, centroY - raioInterno, 2 * raioInterno, 2 * raioInterno);
 
         // Adiciona uma sombra interna projetada pela carcaça preta para dar profundidade.
-        // Sombra interna (sombra projetada no visor branco)
         g.setColor(new Color(0, 0, 0, 50));
-        g.setStroke(new BasicStroke(3));
+        g.setStroke(TRACO_3);
         g.drawArc(decimosCenterX - raioInterno, centroY - raioInterno, 2 * raioInterno, 2 * raioInterno, 225, 180);
 
         // Destaque interno (luz batendo na borda interna)
         g.setColor(new Color(255, 255, 255, 40));
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(TRACO_2);
         g.drawArc(decimosCenterX - raioInterno, centroY - raioInterno, 2 * raioInterno, 2 * raioInterno, 45, 180);
 
         // Desenha a linha de contorno final do visor.
         g.setColor(Color.DARK_GRAY);
-        g.setStroke(new BasicStroke(1));
+        g.setStroke(TRACO_1);
         g.drawOval(decimosCenterX - raioInterno, centroY - raioInterno, 2 * raioInterno, 2 * raioInterno);
 
-        // --- 6. Desenho do Display Digital dos M³ ---
-        int visorWidth = 28, visorHeight = 38, visorY = centroY - 75, gap = 4;
-        int totalDisplayWidth = 6 * visorWidth + 5 * gap;
-        int startX = decimosCenterX - totalDisplayWidth / 2;
-        Font fontDigital = new Font("Arial", Font.BOLD, 30);
-        g.setFont(fontDigital);
+        // --- Base do Display Digital dos M³ (os dígitos são desenhados a cada quadro) ---
+        int startX = DISPLAY_X;
+        int visorY = VISOR_Y;
 
         // Desenha a base cinza do display digital com cantos arredondados.
         g.setColor(new Color(220, 220, 200));
-        g.fill(new RoundRectangle2D.Float(startX - 3, visorY - 3, totalDisplayWidth + 6, visorHeight + 6, 8, 8));
+        g.fill(new RoundRectangle2D.Float(startX - 3, visorY - 3, DISPLAY_LARGURA + 6, VISOR_ALTURA + 6, 8, 8));
         g.setColor(new Color(180, 180, 180));
-        g.draw(new RoundRectangle2D.Float(startX - 3, visorY - 3, totalDisplayWidth + 6, visorHeight + 6, 8, 8));
-
-        // A lógica matemática a seguir quebra o valor total de m³ em dígitos individuais.
-        // Pega os 4 dígitos inteiros da medição. O módulo 10000 garante que o valor "zere" após 9999.
-        int m3Inteiro = (int) total_m3;
-        m3Inteiro = m3Inteiro % 10000;
-        String m3Str = String.format("%04d", m3Inteiro); // Formata para ter sempre 4 dígitos (ex: 12 -> "0012").
-        for (int i = 0; i < 4; i++) {
-            int visorX = startX + i * (visorWidth + gap);
-            g.setColor(Color.WHITE);
-            g.fillRect(visorX, visorY, visorWidth, visorHeight);
-            g.setColor(Color.BLACK);
-            // FontMetrics é usado para medir o tamanho do texto e centralizá-lo perfeitamente na caixa.
-            FontMetrics fm = g.getFontMetrics();
-            int textWidth = fm.stringWidth(String.valueOf(m3Str.charAt(i)));
-            g.drawString(String.valueOf(m3Str.charAt(i)), visorX + (visorWidth - textWidth) / 2, visorY + 29);
-        }
-        // Pega os dígitos decimais que representarão as centenas e dezenas de litros.
-        int centenasLitros = (int) ((total_m3 * 10) % 10); // 1º dígito decimal
-        int dezenasLitros = (int) ((total_m3 * 100) % 10);  // 2º dígito decimal
-        int[] digitosVermelhos = {centenasLitros, dezenasLitros};
-        for (int i = 0; i < 2; i++) {
-            int visorX = startX + (4 + i) * (visorWidth + gap);
-            g.setColor(Color.WHITE);
-            g.fillRect(visorX, visorY, visorWidth, visorHeight);
-            g.setColor(Color.RED);
-            String digito = String.valueOf(digitosVermelhos[i]);
-            FontMetrics fm = g.getFontMetrics();
-            int textWidth = fm.stringWidth(digito);
-            g.drawString(digito, visorX + (visorWidth - textWidth) / 2, visorY + 29);
+        g.draw(new RoundRectangle2D.Float(startX - 3, visorY - 3, DISPLAY_LARGURA + 6, VISOR_ALTURA + 6, 8, 8));
+
+        // As seis caixas brancas onde os dígitos aparecem.
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < 6; i++) {
+            g.fillRect(startX + i * (VISOR_LARGURA + VISOR_ESPACO), visorY, VISOR_LARGURA, VISOR_ALTURA);
         }
 
-        // Desenha as linhas divisórias entre os dígitos.
+        // Desenha as linhas divisórias entre os dígitos (ficam nos espaços entre as caixas).
         g.setColor(Color.GRAY);
-        g.setStroke(new BasicStroke(0.5f));
+        g.setStroke(TRACO_05);
         for (int i = 1; i < 6; i++) {
-            int lineX = startX + i * visorWidth + (i - 1) * gap + gap / 2;
-            g.drawLine(lineX, visorY, lineX, visorY + visorHeight);
+            int lineX = startX + i * VISOR_LARGURA + (i - 1) * VISOR_ESPACO + VISOR_ESPACO / 2;
+            g.drawLine(lineX, visorY, lineX, visorY + VISOR_ALTURA);
         }
 
         // Desenha a unidade de medida "m³".
-        g.setFont(new Font("Arial", Font.BOLD, 18));
+        g.setFont(FONTE_UNIDADE);
         g.setColor(Color.BLACK);
-        g.drawString("m³", startX + totalDisplayWidth + 8, visorY + 28);
+        g.drawString("m³", startX + DISPLAY_LARGURA + 8, visorY + 28);
 
-        // --- 7. Desenho dos Textos Informativos e Selo ---
+        // --- Textos Informativos e Selo ---
         int infoX = decimosCenterX - 145;
-        g.setFont(new Font("Arial", Font.BOLD, 13));
+        g.setFont(FONTE_MODELO);
         g.drawString("H-B", infoX, centroY - 8);
         g.drawString("V-A", infoX, centroY + 10);
-        g.setFont(new Font("Arial", Font.PLAIN, 11));
+        g.setFont(FONTE_VAZAO);
         g.drawString("Qn: 1,5 m³/h", infoX, centroY + 30);
         g.drawString("Qmin: 0,030 m³/h", infoX, centroY + 45);
 
@@ -184,14 +400,14 @@ public class HidrometroRenderer {
         int seloDiametro = 38;
 
         g.setColor(Color.BLACK);
-        g.setStroke(new BasicStroke(1.5f));
+        g.setStroke(TRACO_15);
         g.drawOval(infoX, seloY, seloDiametro, seloDiametro);
-        g.setFont(new Font("Arial", Font.BOLD, 20));
+        g.setFont(FONTE_SELO);
         g.drawString("N", infoX + 11, seloY + 27);
-        g.setStroke(new BasicStroke(2.0f));
+        g.setStroke(TRACO_2);
         g.drawLine(infoX + 9, seloY + 29, infoX + 26, seloY + 11);
 
-        // --- 8. Desenho do Indicador Central de Fluxo ---
+        // --- Indicador Central de Fluxo ---
         int circuloCentralY = centroY + 15;
         int circuloRaio = 16;
         // O efeito de "catavento" é criado desenhando quatro arcos de 90 graus, alternando as cores.
@@ -202,47 +418,31 @@ public class HidrometroRenderer {
         g.fillArc(decimosCenterX - circuloRaio, circuloCentralY - circuloRaio, circuloRaio * 2, circuloRaio * 2, 90, 90);
         g.fillArc(decimosCenterX - circuloRaio, circuloCentralY - circuloRaio, circuloRaio * 2, circuloRaio * 2, 270, 90);
         g.setColor(Color.BLACK);
-        g.setStroke(new BasicStroke(1.5f));
+        g.setStroke(TRACO_15);
         g.drawOval(decimosCenterX - circuloRaio, circuloCentralY - circuloRaio, circuloRaio * 2, circuloRaio * 2);
 
-        // --- 9. Desenho dos Relógios Analógicos (Mostradores) ---
-        int raioMostrador = 42;
-        int litrosCenterX = decimosCenterX + 85;
-        int litrosCenterY = centroY + 65;
-        int decimosCenterY = centroY + 125;
-
-        // Delega a tarefa repetitiva de desenhar um mostrador para um método auxiliar.
-        float litrosValor = (total_m3 * 1000f) % 10f;      // Pega o valor dos litros (3º dígito decimal).
-        desenharMostrador(g, litrosCenterX, litrosCenterY, raioMostrador, litrosValor);
-        float decimosValor = (total_m3 * 10000f) % 10f; // Pega o valor dos décimos de litro (4º dígito decimal).
-        desenharMostrador(g, decimosCenterX, decimosCenterY, raioMostrador, decimosValor);
-
-        // --- 10. Limpeza de Recursos ---
-        // Libera os recursos do sistema alocados pelo objeto Graphics. É uma boa prática fundamental.
-        g.dispose();
-
-        return imagem;
+        // --- Mostradores Analógicos (sem os ponteiros) ---
+        desenharMostrador(g, LITROS_X, LITROS_Y, RAIO_MOSTRADOR);
+        desenharMostrador(g, DECIMOS_X, DECIMOS_Y, RAIO_MOSTRADOR);
     }
 
     /**
-     * Desenha um único mostrador analógico com números de 0 a 9 e um ponteiro.
-     * Este é um método auxiliar para evitar a repetição de código.
+     * Desenha a parte fixa de um mostrador analógico: o contorno e os números de 0 a 9.
      *
      * @param g      O contexto gráfico para desenhar.
      * @param centerX A coordenada X do centro do mostrador.
      * @param centerY A coordenada Y do centro do mostrador.
      * @param radius O raio do mostrador.
-     * @param value  O valor (de 0.0 a 9.9...) que o ponteiro deve indicar.
      */
-    private void desenharMostrador(Graphics2D g, int centerX, int centerY, int radius, float value) {
+    private static void desenharMostrador(Graphics2D g, int centerX, int centerY, int radius) {
         g.setColor(Color.DARK_GRAY);
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(TRACO_2);
         g.drawOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
-        g.setFont(new Font("Arial", Font.BOLD, 11));
+        g.setFont(FONTE_ROTULO_MOSTRADOR);
         FontMetrics fmLabel = g.getFontMetrics();
         int labelWidth = fmLabel.stringWidth("");
         g.drawString("", centerX - labelWidth / 2, centerY - radius - 8);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
+        g.setFont(FONTE_NUMERO_MOSTRADOR);
         // Posiciona os números de 0 a 9 em um círculo usando trigonometria.
         // 36 graus = 360 (círculo completo) / 10 (números). O -90 é para o '0' começar no topo.
         for (int i = 0; i < 10; i++) {
@@ -253,21 +453,32 @@ public class HidrometroRenderer {
             int textWidth = fm.stringWidth(String.valueOf(i));
             g.drawString(String.valueOf(i), numX - textWidth / 2, numY + 5);
         }
+    }
 
-        // Calcula o ângulo do ponteiro com base no valor de entrada, usando a mesma lógica.
-        double angle = Math.toRadians((value * 36) - 90);
+    /**
+     * Desenha o ponteiro de um mostrador sobre a camada estática. Usado apenas na montagem do atlas.
+     *
+     * @param g      O contexto gráfico para desenhar.
+     * @param centerX A coordenada X do centro do mostrador.
+     * @param centerY A coordenada Y do centro do mostrador.
+     * @param radius O raio do mostrador.
+     * @param graus  O ângulo do ponteiro, em graus, a partir do '0' no topo.
+     */
+    private static void desenharPonteiro(Graphics2D g, int centerX, int centerY, int radius, double graus) {
+        // Calcula o ângulo do ponteiro usando a mesma lógica dos números (-90 para começar no topo).
+        double angle = Math.toRadians(graus - 90);
         int pointerEndX = centerX + (int) ((radius - 8) * Math.cos(angle));
         int pointerEndY = centerY + (int) ((radius - 8) * Math.sin(angle));
 
         // Desenha uma sombra sutil para o ponteiro antes de desenhar o ponteiro real para dar profundidade.
-        g.setColor(new Color(0,0,0,70));
-        g.setStroke(new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g.setColor(SOMBRA_PONTEIRO);
+        g.setStroke(TRACO_SOMBRA_PONTEIRO);
         g.drawLine(centerX + 1, centerY + 1, pointerEndX + 1, pointerEndY + 1);
 
         // Desenha o ponteiro vermelho e o pino central.
         g.setColor(Color.RED);
-        g.setStroke(new BasicStroke(2)); // Garante que o ponteiro tenha a espessura correta.
+        g.setStroke(TRACO_2); // Garante que o ponteiro tenha a espessura correta.
         g.drawLine(centerX, centerY, pointerEndX, pointerEndY);
         g.fillOval(centerX - 3, centerY - 3, 6, 6);
     }
-}
\ No newline at end of file
+}
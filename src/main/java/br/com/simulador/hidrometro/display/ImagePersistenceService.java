@@ -1,116 +1,347 @@
 package main.java.br.com.simulador.hidrometro.display;
 
 import main.java.br.com.simulador.config.SimulatorConfig;
-import javax.imageio.ImageIO;
+import main.java.br.com.simulador.jfr.EventoGravacaoImagem;
+import main.java.br.com.simulador.metricas.HistogramaDeLatencia;
+import main.java.br.com.simulador.metricas.MetricasDaSimulacao;
+import main.java.br.com.simulador.observer.PoliticaDeEntrega;
+
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Serviço especializado na persistência (salvamento) de imagens em disco.
  *
  * Esta classe tem a **única responsabilidade** de lidar com operações de I/O (Entrada/Saída) de arquivos.
- * Uma de suas características mais importantes é que ela executa o salvamento em uma **thread separada (background)**.
+ * Uma de suas características mais importantes é que ela executa o salvamento em **threads separadas (background)**.
  * Isso evita que a interface gráfica (UI) congele ou fique lenta durante o processo de escrita no disco,
  * que pode ser uma operação demorada.
+ *
+ * **Fila limitada:** antes, cada imagem ia para a fila sem limite de um {@code newSingleThreadExecutor};
+ * em simulações rápidas a fila crescia sem parar, segurando {@code BufferedImage}s inteiros na memória.
+ * Agora a fila tem capacidade fixa ({@code imagem.fila}) e, quando está cheia, a {@link PoliticaDeEntrega}
+ * configurada ({@code imagem.politica}) decide se quem salva espera ou se imagens são descartadas.
+ *
+ * **Codificadores:** um pequeno grupo de threads ({@code imagem.codificadores}) consome a fila, cada uma com
+ * o seu {@link CodificadorJpeg} (e, portanto, o seu próprio {@code ImageWriter}), na qualidade configurada
+ * ({@code imagem.qualidade}). O diretório e os 100 nomes de arquivo possíveis são resolvidos uma única vez.
+ *
+ * Como os nomes se repetem a cada 100 m³, dois codificadores podem gravar o mesmo arquivo ao mesmo tempo.
+ * Cada um escreve primeiro em um arquivo temporário próprio e depois o move para o lugar do definitivo
+ * ({@code ATOMIC_MOVE}): quem lê o diretório nunca vê um JPEG pela metade ou com bytes das duas imagens.
  */
 public class ImagePersistenceService {
 
-    /** Armazena a configuração da simulação para acessar dados como a matrícula. */
-    private final SimulatorConfig config;
+    /** Pedido especial que avisa cada codificador de que não há mais imagens. */
+    private static final Pedido FIM = new Pedido(null, -1, 0);
+
+    /** Diretório das imagens, ou {@code null} se a matrícula não estiver configurada. */
+    private final Path diretorio;
+    /** Caminho de cada arquivo, de 00.jpeg a 99.jpeg, indexado por {@code m3 % 100}. */
+    private final Path[] arquivos = new Path[100];
+    private volatile boolean diretorioCriado = false;
 
+    private final BlockingQueue<Pedido> fila;
+    private final PoliticaDeEntrega politica;
+    private final float qualidade;
+    private final List<Thread> codificadores = new ArrayList<>();
     /**
-     * Gerenciador da thread de background.
-     * 'newSingleThreadExecutor' cria uma única thread que executa tarefas em sequência,
-     * uma após a outra. Isso é ideal aqui para garantir que as imagens sejam salvas
-     * na ordem em que foram solicitadas, sem concorrência.
+     * Monitor que torna atômicos a verificação de {@link #encerrado} com a entrega de um pedido, e o
+     * encerramento com a entrega dos {@link #FIM}: nenhuma imagem entra na fila depois de um FIM, e
+     * as políticas que descartam pedidos nunca retiram um FIM da fila.
      */
-    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+    private final Object entrega = new Object();
+    private boolean encerrado = false;
+
+    // --- Métricas ---
+    private final AtomicLong imagensSalvas = new AtomicLong();
+    private final AtomicLong imagensDescartadas = new AtomicLong();
+    private final AtomicLong nanosCodificando = new AtomicLong();
+    private final AtomicLong maiorLatenciaNanos = new AtomicLong();
+    /** Histograma do tempo de cada gravação, ou {@code null} sem métricas. */
+    private final HistogramaDeLatencia latenciaDaGravacao;
+    /** Se cada gravação emite um {@link EventoGravacaoImagem} para o Java Flight Recorder ({@code jfr.eventos}). */
+    private final boolean eventosJfr;
 
     /**
-     * Constrói o serviço de persistência de imagem.
+     * Constrói o serviço de persistência de imagem e inicia os codificadores.
      *
-     * @param config A configuração da simulação, necessária para obter a matrícula do hidrômetro.
+     * @param config A configuração da simulação: matrícula e chaves {@code imagem.*}.
      */
     public ImagePersistenceService(SimulatorConfig config) {
-        this.config = config;
+        this(config, null);
+    }
+
+    /**
+     * Variante instrumentada: registra o tempo de cada gravação e expõe a profundidade da fila nas métricas.
+     *
+     * @param config A configuração da simulação: matrícula e chaves {@code imagem.*}.
+     * @param metricas As métricas da simulação, ou {@code null} para não medir.
+     */
+    public ImagePersistenceService(SimulatorConfig config, MetricasDaSimulacao metricas) {
+        if (config.getImagemFila() < 1 || config.getImagemCodificadores() < 1) {
+            throw new IllegalArgumentException("imagem.fila e imagem.codificadores devem ser maiores que zero.");
+        }
+        this.fila = new ArrayBlockingQueue<>(config.getImagemFila());
+        this.politica = PoliticaDeEntrega.fromString(config.getImagemPolitica());
+        this.qualidade = config.getImagemQualidade();
+        this.latenciaDaGravacao = metricas != null ? metricas.getGravacaoImagem() : null;
+        this.eventosJfr = config.isJfrEventos();
+        if (metricas != null) {
+            metricas.monitorarFilaDeImagens(fila::size);
+        }
+        // Valida a qualidade já na construção, e não na primeira imagem.
+        new CodificadorJpeg(qualidade).close();
+
+        // Pega a matrícula do hidrômetro a partir do objeto de configuração.
+        String matricula = config.getMatricula();
+        if (matricula == null || matricula.trim().isEmpty()) {
+            System.err.println("AVISO: Matrícula não configurada. As imagens não serão salvas.");
+            this.diretorio = null;
+        } else {
+            // Define o nome do diretório baseado na matrícula para organizar as medições.
+            this.diretorio = Path.of(nomeDoDiretorio(matricula.trim()));
+            // Usa o operador de módulo (%) para criar um ciclo de 0 a 99: após 99 m³, as imagens
+            // começam a ser sobrescritas (00.jpeg, 01.jpeg, ...).
+            for (int i = 0; i < arquivos.length; i++) {
+                arquivos[i] = diretorio.resolve(nomeDoArquivo(i));
+            }
+        }
+
+        for (int i = 0; i < config.getImagemCodificadores(); i++) {
+            Thread codificador = new Thread(this::consumirFila, "gravador-imagem-" + i);
+            codificador.start();
+            codificadores.add(codificador);
+        }
     }
 
     /**
      * Agenda uma imagem para ser salva em disco.
      *
-     * Este método **não** salva a imagem diretamente. Ele submete a tarefa de salvamento
-     * para a thread de background e retorna imediatamente, mantendo a aplicação responsiva.
+     * Este método **não** salva a imagem diretamente. Ele coloca o pedido na fila e retorna
+     * imediatamente, a menos que a fila esteja cheia e a política seja {@code BLOQUEAR}.
+     * A imagem não deve ser alterada depois de entregue.
      *
      * @param imagem A imagem {@link BufferedImage} a ser salva.
      * @param m3Atual O valor atual de m³ medido, usado para nomear o arquivo.
      */
     public void salvarImagem(BufferedImage imagem, int m3Atual) {
-        // 'submit' adiciona a tarefa (definida por uma expressão lambda) à fila do executor.
-        // A tarefa será executada pela thread de background assim que possível.
-        saveExecutor.submit(() -> performSave(imagem, m3Atual));
+        if (diretorio == null) {
+            imagensDescartadas.incrementAndGet();
+            return;
+        }
+        // O instante da entrega só é lido quando o evento do JFR vai usá-lo (espera na fila).
+        Pedido pedido = new Pedido(imagem, m3Atual, eventosJfr ? System.nanoTime() : 0);
+        synchronized (entrega) {
+            if (encerrado) {
+                imagensDescartadas.incrementAndGet();
+                return;
+            }
+            entregar(pedido);
+        }
     }
 
     /**
-     * Executa a lógica real de salvamento do arquivo.
-     * **Este método é sempre executado na thread de background.**
-     *
-     * @param imagem A imagem a ser escrita no disco.
-     * @param m3Atual O valor de m³ para o nome do arquivo.
+     * Coloca o pedido na fila de acordo com a política. Chamado com o monitor {@link #entrega}.
      */
-    private void performSave(BufferedImage imagem, int m3Atual) {
-        // Pega a matrícula do hidrômetro a partir do objeto de configuração.
-        String matricula = config.getMatricula();
-        // Validação para garantir que a matrícula existe antes de prosseguir.
-        if (matricula == null || matricula.trim().isEmpty()) {
-            System.err.println("AVISO: Matrícula não configurada. Não foi possível salvar a imagem.");
-            return; // Interrompe a operação se a matrícula não estiver disponível.
+    private void entregar(Pedido pedido) {
+        switch (politica) {
+            case BLOQUEAR:
+                try {
+                    fila.put(pedido);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    imagensDescartadas.incrementAndGet();
+                }
+                break;
+            case DESCARTAR_MAIS_ANTIGO:
+                while (!fila.offer(pedido)) {
+                    if (fila.poll() != null) {
+                        imagensDescartadas.incrementAndGet();
+                    }
+                }
+                break;
+            case CONFLATAR:
+                // Só a imagem mais recente interessa: tudo o que ainda está na fila é substituído.
+                do {
+                    while (fila.poll() != null) {
+                        imagensDescartadas.incrementAndGet();
+                    }
+                } while (!fila.offer(pedido));
+                break;
         }
+    }
 
-        // --- Lógica de Criação do Diretório ---
-        // Define o nome do diretório baseado na matrícula para organizar as medições.
-        String nomeDiretorio = "Medicoes_" + matricula;
-        File diretorio = new File(nomeDiretorio);
-        // Verifica se o diretório já existe; se não, tenta criá-lo.
-        if (!diretorio.exists()) {
-            // mkdirs() cria também os diretórios pai, se necessário, sendo mais robusto.
-            if (!diretorio.mkdirs()) {
-                System.err.println("ERRO: Não foi possível criar o diretório: " + nomeDiretorio);
-                return; // Interrompe se não conseguir criar o diretório.
+    /**
+     * Laço de cada thread codificadora: retira pedidos da fila até receber o {@link #FIM}.
+     */
+    private void consumirFila() {
+        try (CodificadorJpeg codificador = new CodificadorJpeg(qualidade)) {
+            while (true) {
+                Pedido pedido = fila.take();
+                if (pedido == FIM) {
+                    return;
+                }
+                performSave(codificador, pedido);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        // --- Lógica de Nomenclatura do Arquivo ---
-        // Usa o operador de módulo (%) para criar um ciclo de 0 a 99.
-        // Isso significa que após 99 m³, as imagens começarão a ser sobrescritas (00.jpeg, 01.jpeg, ...).
-        int numeroArquivo = m3Atual % 100;
-        // Formata o nome do arquivo para ter sempre dois dígitos, com um zero à esquerda se necessário (ex: 5 -> "05.jpeg").
-        String nomeArquivo = String.format("%02d.jpeg", numeroArquivo);
-        // Cria o objeto File final, combinando o caminho do diretório e o nome do arquivo.
-        File arquivoDeSaida = new File(diretorio, nomeArquivo);
-
-        // --- Escrita do Arquivo em Disco ---
+    /**
+     * Executa a lógica real de salvamento do arquivo.
+     * **Este método é sempre executado em uma thread codificadora.**
+     */
+    private void performSave(CodificadorJpeg codificador, Pedido pedido) {
+        Path arquivoDeSaida = arquivos[pedido.m3() % 100];
+        // Temporário exclusivo desta thread codificadora, no mesmo diretório para que a troca seja atômica.
+        Path temporario = arquivoDeSaida.resolveSibling(arquivoDeSaida.getFileName() + "." + Thread.currentThread().getName() + ".tmp");
+        long inicio = System.nanoTime();
+        EventoGravacaoImagem evento = eventosJfr ? new EventoGravacaoImagem() : null;
+        if (evento != null) {
+            evento.begin();
+        }
         try {
-            // Usa a classe ImageIO do Java para escrever a imagem no formato JPEG.
-            ImageIO.write(imagem, "jpeg", arquivoDeSaida);
-            System.out.println("Imagem salva: " + arquivoDeSaida.getPath());
+            garantirDiretorio();
+            codificador.gravar(pedido.imagem(), temporario);
+            substituir(temporario, arquivoDeSaida);
+            registrarLatencia(System.nanoTime() - inicio);
+            imagensSalvas.incrementAndGet();
+            if (evento != null) {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.arquivo = arquivoDeSaida.toString();
+                    evento.bytes = codificador.getTamanho();
+                    evento.esperaNaFila = inicio - pedido.enfileiradoNanos();
+                    evento.commit();
+                }
+            }
+            System.out.println("Imagem salva: " + arquivoDeSaida);
         } catch (IOException e) {
             // Captura possíveis erros de I/O (ex: disco cheio, falta de permissão) e informa no console.
-            System.err.println("ERRO ao salvar a imagem " + nomeArquivo);
+            System.err.println("ERRO ao salvar a imagem " + arquivoDeSaida);
             e.printStackTrace();
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException ignorada) {
+                // O temporário é sobrescrito na próxima imagem com o mesmo nome.
+            }
         }
     }
 
     /**
-     * Encerra o serviço de thread de forma graciosa.
-     * Este método deve ser chamado ao final da aplicação para garantir que a thread de
-     * background seja terminada corretamente.
+     * Coloca o arquivo temporário no lugar do definitivo, substituindo-o de uma só vez.
+     */
+    private static void substituir(Path temporario, Path destino) throws IOException {
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Sistemas de arquivos sem troca atômica: a substituição comum ainda evita a escrita intercalada.
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Cria o diretório na primeira imagem; depois disso, nenhuma verificação é feita no disco.
+     */
+    private void garantirDiretorio() throws IOException {
+        if (!diretorioCriado) {
+            synchronized (this) {
+                if (!diretorioCriado) {
+                    // createDirectories cria também os diretórios pai, se necessário.
+                    Files.createDirectories(diretorio);
+                    diretorioCriado = true;
+                }
+            }
+        }
+    }
+
+    private void registrarLatencia(long nanos) {
+        nanosCodificando.addAndGet(nanos);
+        maiorLatenciaNanos.accumulateAndGet(nanos, Math::max);
+        if (latenciaDaGravacao != null) {
+            latenciaDaGravacao.registrar(nanos);
+        }
+    }
+
+    /**
+     * Encerra o serviço de forma graciosa: novas imagens são recusadas, as que já estão na fila são
+     * gravadas, e o método só retorna quando todos os codificadores terminaram.
      */
     public void shutdown() {
-        // 'shutdown()' impede que novas tarefas sejam submetidas,
-        // mas permite que as tarefas já na fila terminem de executar antes de parar a thread.
-        saveExecutor.shutdown();
+        try {
+            synchronized (entrega) {
+                if (encerrado) {
+                    return;
+                }
+                encerrado = true;
+                // Um FIM por codificador, atrás de todas as imagens pendentes. Os codificadores continuam
+                // consumindo a fila sem o monitor, então o put espera no máximo pela gravação de uma imagem.
+                for (int i = 0; i < codificadores.size(); i++) {
+                    fila.put(FIM);
+                }
+            }
+            for (Thread codificador : codificadores) {
+                codificador.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Nome do diretório de medições de um hidrômetro (ex: "Medicoes_199911250009").
+     */
+    static String nomeDoDiretorio(String matricula) {
+        return "Medicoes_" + matricula;
+    }
+
+    /**
+     * Nome do arquivo de uma medição: o m³ inteiro módulo 100, com dois dígitos (ex: 5 -> "05.jpeg").
+     */
+    static String nomeDoArquivo(int m3) {
+        return String.format("%02d.jpeg", m3 % 100);
+    }
+
+    /** Quantas imagens estão na fila, esperando um codificador. */
+    public int getProfundidadeFila() {
+        return fila.size();
+    }
+
+    public long getImagensSalvas() {
+        return imagensSalvas.get();
     }
-}
\ No newline at end of file
+
+    /** Imagens descartadas pela política de fila cheia, ou recusadas após o encerramento. */
+    public long getImagensDescartadas() {
+        return imagensDescartadas.get();
+    }
+
+    /** Tempo médio para codificar e gravar uma imagem, em microssegundos. */
+    public long getLatenciaMediaMicros() {
+        long salvas = imagensSalvas.get();
+        return salvas == 0 ? 0 : nanosCodificando.get() / salvas / 1000;
+    }
+
+    /** Maior tempo para codificar e gravar uma imagem, em microssegundos. */
+    public long getLatenciaMaximaMicros() {
+        return maiorLatenciaNanos.get() / 1000;
+    }
+
+    /**
+     * Uma imagem esperando para ser gravada.
+     *
+     * @param enfileiradoNanos O instante da entrega ({@code System.nanoTime()}), ou 0 sem eventos do JFR.
+     */
+    private record Pedido(BufferedImage imagem, int m3, long enfileiradoNanos) {}
+}
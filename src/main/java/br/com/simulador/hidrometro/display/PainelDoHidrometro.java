@@ -0,0 +1,149 @@
+package main.java.br.com.simulador.hidrometro.display;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Componente Swing que exibe o hidrômetro, alimentado pela thread da simulação sem bloqueá-la.
+ *
+ * Antes, o {@code Display} desenhava um {@code BufferedImage} novo a cada passo e chamava
+ * {@code setIcon} diretamente da thread da simulação, o que viola a regra de thread do Swing
+ * (componentes só devem ser tocados na EDT) e aloca um quadro inteiro mesmo quando a tela não
+ * consegue mostrá-lo.
+ *
+ * **Como funciona:**
+ * <ol>
+ *   <li>A thread da simulação desenha, fora da EDT, em um de três buffers reaproveitados
+ *       (o de escrita) e o troca atomicamente pelo buffer "pronto".</li>
+ *   <li>A EDT, ao pintar, troca o seu buffer (o de leitura) pelo "pronto", se houver um quadro novo.</li>
+ * </ol>
+ * São três buffers, e não dois, para que nenhum dos lados espere o outro: a simulação sempre tem onde
+ * desenhar, e a EDT sempre tem um quadro completo para pintar. Se a EDT ficar para trás, os quadros
+ * intermediários são simplesmente substituídos (descartados); se ainda há um quadro esperando a EDT,
+ * a simulação nem desenha o próximo. Assim, uma simulação rápida nunca é freada pela pintura.
+ *
+ * Na EDT, o quadro é copiado para uma {@link VolatileImage} (memória de vídeo) quando o ambiente
+ * gráfico oferece uma; repinturas sem quadro novo (ex: a janela foi descoberta) saem direto dela.
+ */
+public class PainelDoHidrometro extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Bit que indica que o buffer "pronto" ainda não foi pintado pela EDT. */
+    private static final int NOVO = 4;
+    private static final int INDICE = 3;
+
+    private final HidrometroRenderer renderer;
+    private final BufferedImage[] buffers = new BufferedImage[3];
+
+    /** Índice do buffer "pronto" e, no bit {@link #NOVO}, se ele ainda não foi pintado. */
+    private final AtomicInteger pronto = new AtomicInteger(1);
+    /** Buffer onde a simulação desenha. Usado apenas pela thread da simulação. */
+    private int escrita = 0;
+    /** Buffer exibido. Usado apenas pela EDT. */
+    private int leitura = 2;
+
+    /** Cópia do quadro exibido em memória de vídeo, ou {@code null} se indisponível. Usado apenas pela EDT. */
+    private VolatileImage imagemAcelerada;
+    private boolean aceleradaDesatualizada = true;
+
+    // --- Métricas ---
+    private final AtomicInteger quadrosPublicados = new AtomicInteger();
+    private final AtomicInteger quadrosExibidos = new AtomicInteger();
+    private final AtomicInteger quadrosDescartados = new AtomicInteger();
+
+    /**
+     * @param renderer O renderizador usado para desenhar os quadros.
+     */
+    public PainelDoHidrometro(HidrometroRenderer renderer) {
+        this.renderer = renderer;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new BufferedImage(HidrometroRenderer.LARGURA, HidrometroRenderer.ALTURA, BufferedImage.TYPE_INT_RGB);
+            renderer.renderizar(0.0f, buffers[i]);
+        }
+        setPreferredSize(new Dimension(HidrometroRenderer.LARGURA, HidrometroRenderer.ALTURA));
+        setOpaque(true);
+    }
+
+    /**
+     * Publica a leitura atual. Chamado pela thread da simulação, a cada passo.
+     *
+     * Se o quadro anterior ainda não foi pintado, a leitura é descartada sem desenhar nada,
+     * a menos que {@code forcar} seja verdadeiro (usado no último passo, para que a tela termine
+     * sempre com o valor final).
+     *
+     * @param totalM3 O volume a exibir.
+     * @param forcar Se o quadro deve ser desenhado mesmo que a EDT ainda não tenha pintado o anterior.
+     */
+    public void publicar(float totalM3, boolean forcar) {
+        if (!forcar && (pronto.get() & NOVO) != 0) {
+            quadrosDescartados.incrementAndGet();
+            return;
+        }
+        renderer.renderizar(totalM3, buffers[escrita]);
+        int anterior = pronto.getAndSet(escrita | NOVO);
+        escrita = anterior & INDICE;
+        if ((anterior & NOVO) != 0) {
+            // O quadro substituído nunca chegou à tela.
+            quadrosDescartados.incrementAndGet();
+        }
+        quadrosPublicados.incrementAndGet();
+        // O RepaintManager agrupa vários pedidos seguidos em uma única pintura.
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if ((pronto.get() & NOVO) != 0) {
+            int anterior = pronto.getAndSet(leitura);
+            leitura = anterior & INDICE;
+            aceleradaDesatualizada = true;
+            quadrosExibidos.incrementAndGet();
+        }
+        BufferedImage quadro = buffers[leitura];
+
+        if (!desenharAcelerado(g, quadro)) {
+            g.drawImage(quadro, 0, 0, null);
+        }
+    }
+
+    /**
+     * Pinta através da {@link VolatileImage}, recriando-a se o conteúdo tiver sido perdido.
+     *
+     * @return {@code false} se não houver memória de vídeo disponível.
+     */
+    private boolean desenharAcelerado(Graphics g, BufferedImage quadro) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) {
+            return false;
+        }
+        do {
+            int estado = imagemAcelerada == null ? VolatileImage.IMAGE_INCOMPATIBLE : imagemAcelerada.validate(gc);
+            if (estado == VolatileImage.IMAGE_INCOMPATIBLE) {
+                imagemAcelerada = gc.createCompatibleVolatileImage(quadro.getWidth(), quadro.getHeight());
+                if (imagemAcelerada == null) {
+                    return false;
+                }
+                aceleradaDesatualizada = true;
+            } else if (estado == VolatileImage.IMAGE_RESTORED) {
+                // A memória de vídeo foi perdida e devolvida vazia.
+                aceleradaDesatualizada = true;
+            }
+            if (aceleradaDesatualizada) {
+                Graphics2D gv = imagemAcelerada.createGraphics();
+                gv.drawImage(quadro, 0, 0, null);
+                gv.dispose();
+                aceleradaDesatualizada = false;
+            }
+            g.drawImage(imagemAcelerada, 0, 0, null);
+        } while (imagemAcelerada.contentsLost());
+        return true;
+    }
+
+    public int getQuadrosPublicados() { return quadrosPublicados.get(); }
+    public int getQuadrosExibidos() { return quadrosExibidos.get(); }
+    public int getQuadrosDescartados() { return quadrosDescartados.get(); }
+}
@@ -0,0 +1,325 @@
+package main.java.br.com.simulador.hidrometro.display;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import main.java.br.com.simulador.hidrometro.Medidor;
+import main.java.br.com.simulador.observer.Observador;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transmite a imagem do hidrômetro para o navegador, como MJPEG sobre HTTP, usando o servidor
+ * embutido no JDK ({@code com.sun.net.httpserver}). Escuta apenas no endereço local.
+ *
+ * Rotas:
+ * <ul>
+ *   <li>{@code /} — página com a imagem ao vivo;</li>
+ *   <li>{@code /stream} — fluxo {@code multipart/x-mixed-replace} com um JPEG por quadro;</li>
+ *   <li>{@code /quadro.jpg} — o quadro mais recente, uma única vez.</li>
+ * </ul>
+ *
+ * **Codifica uma vez, entrega para todos:** uma única thread ("transmissao-mjpeg") renderiza e codifica
+ * cada quadro, e os bytes prontos (com o cabeçalho da parte MIME) são compartilhados, sem cópia, por todas as
+ * conexões. Cada conexão só escreve bytes no socket; 100 espectadores custam praticamente o mesmo que um.
+ *
+ * **Taxa adaptativa:** sem espectadores, nada é renderizado. Com espectadores, um quadro só é codificado se a
+ * leitura mudou, no máximo {@code mjpeg.fps} vezes por segundo, e nunca com menos que o dobro do tempo de
+ * codificação de intervalo (a codificação ocupa no máximo metade de um núcleo). Uma conexão lenta sempre recebe
+ * o quadro mais recente, pulando os intermediários, e não atrasa as demais. Se a leitura parar de mudar
+ * (simulação pausada ou encerrada), o quadro atual é reenviado a cada {@link #ESPERA_MAXIMA_MS}: sem isso,
+ * um navegador que se desconectasse nunca seria percebido, e a conexão e o espectador ficariam presos.
+ */
+public class TransmissaoMjpeg implements Observador, AutoCloseable {
+
+    private static final String FRONTEIRA = "quadro";
+    private static final byte[] FIM_DA_PARTE = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PAGINA = ("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Hidrômetro</title></head>"
+            + "<body style=\"margin:0;background:#222\"><img src=\"/stream\" alt=\"Hidrômetro\"></body></html>")
+            .getBytes(StandardCharsets.UTF_8);
+    /** Espera máxima por um quadro novo antes de verificar se a transmissão foi encerrada. */
+    private static final long ESPERA_MAXIMA_MS = 1000;
+
+    private final HttpServer servidor;
+    private final ExecutorService conexoes;
+    private final Thread codificadora;
+    private final long intervaloMinimoNanos;
+    private final float qualidade;
+
+    /** Monitor que protege {@link #quadro} e {@link #espectadores}. */
+    private final Object monitor = new Object();
+    private Quadro quadro;
+    private int espectadores = 0;
+
+    /** Última leitura recebida da simulação. */
+    private volatile float m3Atual = 0.0f;
+    private volatile boolean aberta = true;
+
+    // --- Métricas ---
+    private volatile long quadrosCodificados = 0;
+    private volatile long ultimaCodificacaoNanos = 0;
+
+    /**
+     * Inicia o servidor e a thread codificadora.
+     *
+     * @param porta A porta local (ex: 8080); 0 escolhe uma porta livre.
+     * @param fpsMaximo A taxa máxima de quadros por segundo.
+     * @param qualidade A qualidade do JPEG, de 0.0 a 1.0.
+     * @throws RuntimeException se a porta não puder ser aberta.
+     */
+    public TransmissaoMjpeg(int porta, int fpsMaximo, float qualidade) {
+        if (fpsMaximo < 1) {
+            throw new IllegalArgumentException("mjpeg.fps deve ser maior que zero: " + fpsMaximo);
+        }
+        new CodificadorJpeg(qualidade).close(); // valida a qualidade antes de abrir a porta
+        this.intervaloMinimoNanos = 1_000_000_000L / fpsMaximo;
+        this.qualidade = qualidade;
+
+        try {
+            this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao abrir a porta da transmissão MJPEG: " + porta, e);
+        }
+        // Cada fluxo ocupa uma thread enquanto o navegador estiver conectado.
+        this.conexoes = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "transmissao-conexao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        servidor.setExecutor(conexoes);
+        servidor.createContext("/", this::responderPagina);
+        servidor.createContext("/stream", this::transmitir);
+        servidor.createContext("/quadro.jpg", this::responderQuadro);
+        servidor.start();
+
+        this.codificadora = new Thread(this::codificarQuadros, "transmissao-mjpeg");
+        codificadora.setDaemon(true);
+        codificadora.start();
+    }
+
+    @Override
+    public void atualizar(Medidor medidor, int tempoSimulado) {
+        m3Atual = medidor.getM3();
+    }
+
+    @Override
+    public void simulacaoFinalizada(Medidor estadoFinal) {
+        m3Atual = estadoFinal.getM3();
+    }
+
+    /**
+     * Laço da thread codificadora: espera por espectadores e produz quadros no ritmo adaptativo.
+     */
+    private void codificarQuadros() {
+        HidrometroRenderer renderer = new HidrometroRenderer();
+        BufferedImage imagem = new BufferedImage(HidrometroRenderer.LARGURA, HidrometroRenderer.ALTURA, BufferedImage.TYPE_INT_RGB);
+        long sequencia = 0;
+        float ultimoM3 = Float.NaN;
+
+        try (CodificadorJpeg codificador = new CodificadorJpeg(qualidade)) {
+            while (aberta) {
+                synchronized (monitor) {
+                    while (aberta && espectadores == 0) {
+                        monitor.wait();
+                    }
+                }
+                if (!aberta) {
+                    return;
+                }
+
+                long inicio = System.nanoTime();
+                float m3 = m3Atual;
+                if (m3 != ultimoM3) {
+                    renderer.renderizar(m3, imagem);
+                    codificador.codificar(imagem);
+                    Quadro novo = Quadro.de(++sequencia, codificador.getBytes(), codificador.getTamanho());
+                    ultimoM3 = m3;
+                    ultimaCodificacaoNanos = System.nanoTime() - inicio;
+                    quadrosCodificados++;
+                    synchronized (monitor) {
+                        quadro = novo;
+                        monitor.notifyAll();
+                    }
+                }
+
+                long intervalo = Math.max(intervaloMinimoNanos, 2 * ultimaCodificacaoNanos);
+                long restante = intervalo - (System.nanoTime() - inicio);
+                if (restante > 0) {
+                    Thread.sleep(restante / 1_000_000, (int) (restante % 1_000_000));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("ERRO na codificação da transmissão MJPEG: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rota {@code /stream}: envia quadros enquanto o navegador estiver conectado.
+     */
+    private void transmitir(HttpExchange troca) throws IOException {
+        troca.getResponseHeaders().set("Content-Type", "multipart/x-mixed-replace; boundary=" + FRONTEIRA);
+        troca.getResponseHeaders().set("Cache-Control", "no-cache, no-store");
+        troca.sendResponseHeaders(200, 0);
+        entrarEspectador();
+        try (OutputStream saida = troca.getResponseBody()) {
+            long enviado = 0;
+            while (aberta) {
+                Quadro q = aguardarQuadro(enviado);
+                if (q == null) {
+                    // Nenhum quadro novo: reenvia o atual, para que a escrita falhe se o navegador tiver saído.
+                    q = quadroAtual();
+                    if (q == null) {
+                        continue;
+                    }
+                }
+                saida.write(q.cabecalho());
+                saida.write(q.jpeg());
+                saida.write(FIM_DA_PARTE);
+                saida.flush();
+                enviado = q.sequencia();
+            }
+        } catch (IOException e) {
+            // O navegador fechou a conexão.
+        } finally {
+            sairEspectador();
+            troca.close();
+        }
+    }
+
+    /**
+     * Rota {@code /quadro.jpg}: o quadro mais recente.
+     */
+    private void responderQuadro(HttpExchange troca) throws IOException {
+        entrarEspectador();
+        try {
+            Quadro q = null;
+            while (aberta && q == null) {
+                q = aguardarQuadro(0);
+            }
+            if (q == null) {
+                troca.sendResponseHeaders(503, -1);
+                return;
+            }
+            troca.getResponseHeaders().set("Content-Type", "image/jpeg");
+            troca.sendResponseHeaders(200, q.jpeg().length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(q.jpeg());
+            }
+        } finally {
+            sairEspectador();
+            troca.close();
+        }
+    }
+
+    private void responderPagina(HttpExchange troca) throws IOException {
+        if (!"/".equals(troca.getRequestURI().getPath())) {
+            troca.sendResponseHeaders(404, -1);
+            troca.close();
+            return;
+        }
+        troca.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        troca.sendResponseHeaders(200, PAGINA.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(PAGINA);
+        }
+    }
+
+    /**
+     * Espera um quadro mais novo que o último enviado.
+     *
+     * @return O quadro, ou {@code null} se nenhum chegou dentro de {@link #ESPERA_MAXIMA_MS}.
+     */
+    private Quadro aguardarQuadro(long ultimaSequencia) {
+        synchronized (monitor) {
+            long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MS;
+            while (aberta && (quadro == null || quadro.sequencia() <= ultimaSequencia)) {
+                long espera = limite - System.currentTimeMillis();
+                if (espera <= 0) {
+                    return null;
+                }
+                try {
+                    monitor.wait(espera);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return aberta ? quadro : null;
+        }
+    }
+
+    /**
+     * @return O quadro mais recente, ou {@code null} se ainda não houver um (ou a transmissão foi encerrada).
+     */
+    private Quadro quadroAtual() {
+        synchronized (monitor) {
+            return aberta ? quadro : null;
+        }
+    }
+
+    private void entrarEspectador() {
+        synchronized (monitor) {
+            espectadores++;
+            monitor.notifyAll();
+        }
+    }
+
+    private void sairEspectador() {
+        synchronized (monitor) {
+            espectadores--;
+        }
+    }
+
+    /**
+     * Encerra o servidor, as conexões e a thread codificadora.
+     */
+    @Override
+    public void close() {
+        aberta = false;
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+        servidor.stop(0);
+        conexoes.shutdownNow();
+    }
+
+    /** A porta em que o servidor está escutando (útil quando a porta configurada é 0). */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    public int getEspectadores() {
+        synchronized (monitor) {
+            return espectadores;
+        }
+    }
+
+    public long getQuadrosCodificados() {
+        return quadrosCodificados;
+    }
+
+    /** Tempo da última renderização e codificação, em microssegundos. */
+    public long getUltimaCodificacaoMicros() {
+        return ultimaCodificacaoNanos / 1000;
+    }
+
+    /**
+     * Um quadro pronto para envio: o cabeçalho da parte MIME e o JPEG, imutáveis e compartilhados.
+     */
+    private record Quadro(long sequencia, byte[] cabecalho, byte[] jpeg) {
+        static Quadro de(long sequencia, byte[] buffer, int tamanho) {
+            byte[] cabecalho = ("--" + FRONTEIRA + "\r\nContent-Type: image/jpeg\r\nContent-Length: " + tamanho + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            return new Quadro(sequencia, cabecalho, Arrays.copyOf(buffer, tamanho));
+        }
+    }
+}
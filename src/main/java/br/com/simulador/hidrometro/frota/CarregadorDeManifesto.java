@@ -0,0 +1,288 @@
+package main.java.br.com.simulador.hidrometro.frota;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.strategy.AgendaDeConsumo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Carrega uma frota inteira a partir de um manifesto CSV, com um medidor por linha:
+ * <pre>
+ * matricula,bitola,classe,pressaoMinima,pressaoMaxima
+ * 2024000001,3/4,residencial,2.5,4.0
+ * 2024000002,1 1/2,comercial
+ * 2024000003,1/2
+ * </pre>
+ * Apenas matrícula e bitola são obrigatórias. Sem classe (ou com a classe {@code padrao}), o medidor
+ * usa a agenda do arquivo de configuração; sem faixa de pressão, usa a faixa da configuração.
+ * A linha de cabeçalho, linhas vazias e comentários ({@code #}) são ignorados.
+ *
+ * **Baixa alocação:** o arquivo é lido em blocos de 1 MB para um único {@code byte[]}, e cada linha é
+ * interpretada diretamente sobre esses bytes, sem {@code readLine()}, {@code split()} ou
+ * {@code Float.parseFloat()}. A bitola é reconhecida comparando bytes com a polegada de cada constante,
+ * e a matrícula é copiada direto do buffer para o {@link EstadoFrota}. Um objeto só é criado quando
+ * aparece uma classe de consumo ou uma faixa de pressão nova, e isso acontece poucas vezes por arquivo.
+ *
+ * **Estratégias compartilhadas:** cada classe de consumo é resolvida uma única vez, e todos os medidores
+ * dela apontam para a mesma {@link AgendaDeConsumo} imutável, por um índice de 2 bytes.
+ *
+ * Esta classe não é thread-safe; use uma instância por carga.
+ */
+public final class CarregadorDeManifesto {
+
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    private static final int MAXIMO_CAMPOS = 5;
+    private static final String CLASSE_PADRAO = "padrao";
+    private static final byte[] CABECALHO = "matricula".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Bitola[] BITOLAS = Bitola.values();
+    /** A polegada de cada bitola em ASCII, indexada pelo ordinal. */
+    private static final byte[][] POLEGADAS = new byte[BITOLAS.length][];
+
+    static {
+        for (Bitola bitola : BITOLAS) {
+            POLEGADAS[bitola.ordinal()] = bitola.getPolegada().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final FrotaSimulator frota;
+    private final Function<String, AgendaDeConsumo> resolvedorDeClasse;
+
+    // --- Classes já vistas neste arquivo: nome em bytes -> índice na frota ---
+    private byte[][] nomesClasse = new byte[8][];
+    private int[] indicesClasse = new int[8];
+    private int quantidadeClasses = 0;
+
+    // --- Última faixa de pressão vista; manifestos costumam repetir a mesma faixa em sequência ---
+    private float ultimaMinima = Float.NaN;
+    private float ultimaMaxima = Float.NaN;
+    private int ultimaFaixa = 0;
+
+    // --- Posições dos campos da linha atual, reaproveitadas entre linhas ---
+    private final int[] inicioCampo = new int[MAXIMO_CAMPOS];
+    private final int[] fimCampo = new int[MAXIMO_CAMPOS];
+
+    private long numeroLinha = 0;
+    private boolean primeiraLinhaUtil = true;
+
+    /**
+     * @param frota A frota que recebe os medidores.
+     * @param resolvedorDeClasse Devolve a agenda de uma classe de consumo pelo nome
+     *                           (ex: {@code new ClassesDeConsumo(diretorio)::buscar}).
+     *                           É chamado no máximo uma vez por classe.
+     */
+    public CarregadorDeManifesto(FrotaSimulator frota, Function<String, AgendaDeConsumo> resolvedorDeClasse) {
+        this.frota = frota;
+        this.resolvedorDeClasse = resolvedorDeClasse;
+    }
+
+    /**
+     * Lê o manifesto inteiro e adiciona cada medidor à frota, na ordem das linhas.
+     *
+     * @param arquivo O caminho do manifesto CSV.
+     * @return A quantidade de medidores adicionados.
+     * @throws IllegalArgumentException se uma linha for inválida, indicando o número da linha.
+     */
+    public int carregar(Path arquivo) {
+        int quantidadeAntes = frota.getEstado().getQuantidade();
+        byte[] buffer = new byte[TAMANHO_BUFFER];
+        ByteBuffer envoltorio = ByteBuffer.wrap(buffer);
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            int ocupados = 0;
+            while (true) {
+                envoltorio.clear().position(ocupados);
+                int lidos = canal.read(envoltorio);
+                if (lidos < 0) {
+                    break;
+                }
+                ocupados += lidos;
+
+                // Interpreta todas as linhas completas do bloco.
+                int inicioLinha = 0;
+                for (int i = 0; i < ocupados; i++) {
+                    if (buffer[i] == '\n') {
+                        processarLinha(buffer, inicioLinha, i);
+                        inicioLinha = i + 1;
+                    }
+                }
+
+                // A linha incompleta do fim do bloco é movida para o início e completada na próxima leitura.
+                int restante = ocupados - inicioLinha;
+                if (restante == buffer.length) {
+                    throw erro("linha maior que " + TAMANHO_BUFFER + " bytes");
+                }
+                System.arraycopy(buffer, inicioLinha, buffer, 0, restante);
+                ocupados = restante;
+            }
+            if (ocupados > 0) {
+                processarLinha(buffer, 0, ocupados);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler o manifesto da frota: " + arquivo, e);
+        }
+        return frota.getEstado().getQuantidade() - quantidadeAntes;
+    }
+
+    /**
+     * Interpreta uma linha {@code [inicio, fim)} do buffer, sem o '\n'.
+     */
+    private void processarLinha(byte[] b, int inicio, int fim) {
+        numeroLinha++;
+        if (fim > inicio && b[fim - 1] == '\r') {
+            fim--;
+        }
+        while (inicio < fim && b[inicio] == ' ') {
+            inicio++;
+        }
+        if (inicio == fim || b[inicio] == '#') {
+            return;
+        }
+        if (primeiraLinhaUtil) {
+            primeiraLinhaUtil = false;
+            if (comecaCom(b, inicio, fim, CABECALHO)) {
+                return;
+            }
+        }
+
+        // Separa os campos pelas vírgulas, já sem os espaços das pontas.
+        int campos = 0;
+        int inicioAtual = inicio;
+        for (int i = inicio; i <= fim; i++) {
+            if (i == fim || b[i] == ',') {
+                if (campos == MAXIMO_CAMPOS) {
+                    throw erro("mais de " + MAXIMO_CAMPOS + " campos");
+                }
+                int a = inicioAtual;
+                int z = i;
+                while (a < z && b[a] == ' ') a++;
+                while (z > a && b[z - 1] == ' ') z--;
+                inicioCampo[campos] = a;
+                fimCampo[campos] = z;
+                campos++;
+                inicioAtual = i + 1;
+            }
+        }
+        if (campos < 2 || campos == 4) {
+            throw erro("esperado matricula,bitola[,classe[,pressaoMinima,pressaoMaxima]]");
+        }
+        if (inicioCampo[0] == fimCampo[0]) {
+            throw erro("matrícula vazia");
+        }
+
+        Bitola bitola = reconhecerBitola(b, inicioCampo[1], fimCampo[1]);
+        int classe = campos >= 3 ? resolverClasse(b, inicioCampo[2], fimCampo[2]) : 0;
+        int faixa = 0;
+        if (campos == 5) {
+            float minima = lerDecimal(b, inicioCampo[3], fimCampo[3]);
+            float maxima = lerDecimal(b, inicioCampo[4], fimCampo[4]);
+            faixa = resolverFaixa(minima, maxima);
+        }
+        frota.adicionarMedidor(bitola, classe, faixa, b, inicioCampo[0], fimCampo[0] - inicioCampo[0]);
+    }
+
+    private Bitola reconhecerBitola(byte[] b, int inicio, int fim) {
+        for (int i = 0; i < POLEGADAS.length; i++) {
+            if (Arrays.equals(b, inicio, fim, POLEGADAS[i], 0, POLEGADAS[i].length)) {
+                return BITOLAS[i];
+            }
+        }
+        throw erro("bitola não suportada: " + new String(b, inicio, fim - inicio, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Devolve o índice da classe na frota. Classes novas são resolvidas e registradas uma única vez.
+     */
+    private int resolverClasse(byte[] b, int inicio, int fim) {
+        if (inicio == fim) {
+            return 0;
+        }
+        for (int i = 0; i < quantidadeClasses; i++) {
+            byte[] nome = nomesClasse[i];
+            if (Arrays.equals(b, inicio, fim, nome, 0, nome.length)) {
+                return indicesClasse[i];
+            }
+        }
+
+        byte[] nome = Arrays.copyOfRange(b, inicio, fim);
+        String texto = new String(nome, StandardCharsets.UTF_8);
+        int indice;
+        if (CLASSE_PADRAO.equals(texto)) {
+            indice = 0;
+        } else {
+            try {
+                indice = frota.registrarClasse(texto, resolvedorDeClasse.apply(texto));
+            } catch (IllegalArgumentException e) {
+                throw erro(e.getMessage());
+            }
+        }
+
+        if (quantidadeClasses == nomesClasse.length) {
+            nomesClasse = Arrays.copyOf(nomesClasse, quantidadeClasses * 2);
+            indicesClasse = Arrays.copyOf(indicesClasse, quantidadeClasses * 2);
+        }
+        nomesClasse[quantidadeClasses] = nome;
+        indicesClasse[quantidadeClasses] = indice;
+        quantidadeClasses++;
+        return indice;
+    }
+
+    private int resolverFaixa(float minima, float maxima) {
+        if (minima != ultimaMinima || maxima != ultimaMaxima) {
+            try {
+                ultimaFaixa = frota.registrarFaixaDePressao(minima, maxima);
+            } catch (IllegalArgumentException e) {
+                throw erro(e.getMessage());
+            }
+            ultimaMinima = minima;
+            ultimaMaxima = maxima;
+        }
+        return ultimaFaixa;
+    }
+
+    /**
+     * Converte um decimal simples ("3", "2.5", ".75") sem criar uma {@code String}.
+     */
+    private float lerDecimal(byte[] b, int inicio, int fim) {
+        long mantissa = 0;
+        int casasDecimais = 0;
+        boolean temDigito = false;
+        boolean depoisDoPonto = false;
+        for (int i = inicio; i < fim; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    throw erro("número longo demais");
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                temDigito = true;
+                if (depoisDoPonto) {
+                    casasDecimais++;
+                }
+            } else if (c == '.' && !depoisDoPonto) {
+                depoisDoPonto = true;
+            } else {
+                throw erro("número inválido: " + new String(b, inicio, fim - inicio, StandardCharsets.US_ASCII));
+            }
+        }
+        if (!temDigito) {
+            throw erro("número ausente");
+        }
+        return (float) (mantissa / Math.pow(10, casasDecimais));
+    }
+
+    private static boolean comecaCom(byte[] b, int inicio, int fim, byte[] prefixo) {
+        return fim - inicio >= prefixo.length && Arrays.equals(b, inicio, inicio + prefixo.length, prefixo, 0, prefixo.length);
+    }
+
+    private IllegalArgumentException erro(String mensagem) {
+        return new IllegalArgumentException("Linha " + numeroLinha + " do manifesto: " + mensagem);
+    }
+}
@@ -0,0 +1,216 @@
+package main.java.br.com.simulador.hidrometro.frota;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.observer.LoteDeLeituras;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Armazena o estado de uma frota inteira de hidrômetros no formato "struct-of-arrays".
+ *
+ * Em vez de um objeto {@code Medidor} por hidrômetro (cada um com seu cabeçalho de objeto,
+ * campos e referência para a {@code Bitola}), cada campo é guardado em um array primitivo
+ * indexado pelo id do medidor. Assim, uma frota com um milhão de medidores ocupa apenas
+ * alguns megabytes contíguos, e o laço de atualização percorre a memória de forma sequencial,
+ * sem seguir ponteiros.
+ *
+ * A semântica de leitura é a mesma de {@code Medidor.atualizarMedicao}: o volume é acumulado
+ * como {@code fluxo * intervalo} em precisão {@code float}, e a pressão é sempre a mais recente.
+ */
+public class EstadoFrota {
+
+    /** Tabela de constantes do enum, indexada pelo ordinal guardado em {@link #bitola}. */
+    private static final Bitola[] BITOLAS = Bitola.values();
+
+    private int quantidade = 0;
+    /** Volume acumulado de cada medidor, em m³. */
+    private float[] m3;
+    /** Pressão mais recente de cada medidor, em bar. */
+    private float[] pressao;
+    /** Fluxo aplicado no último passo de cada medidor, em m³/s. */
+    private float[] fluxo;
+    /** Ordinal da {@link Bitola} de cada medidor. */
+    private byte[] bitola;
+    /** Índice da classe de consumo de cada medidor (0 = agenda da configuração). */
+    private short[] classe;
+    /** Índice da faixa de pressão de cada medidor (0 = faixa da configuração). */
+    private short[] faixaPressao;
+    /**
+     * Matrículas de todos os medidores, concatenadas em ASCII. A matrícula do medidor {@code id}
+     * ocupa {@code [fimMatricula[id - 1], fimMatricula[id])}; assim, um milhão de matrículas
+     * custam dois arrays, e não um milhão de objetos {@code String}.
+     */
+    private byte[] matriculas;
+    private int[] fimMatricula;
+
+    /**
+     * Cria um estado de frota vazio.
+     *
+     * @param capacidadeInicial Quantidade de medidores para a qual os arrays são pré-alocados.
+     */
+    public EstadoFrota(int capacidadeInicial) {
+        int capacidade = Math.max(1, capacidadeInicial);
+        this.m3 = new float[capacidade];
+        this.pressao = new float[capacidade];
+        this.fluxo = new float[capacidade];
+        this.bitola = new byte[capacidade];
+        this.classe = new short[capacidade];
+        this.faixaPressao = new short[capacidade];
+        this.matriculas = new byte[capacidade * 8];
+        this.fimMatricula = new int[capacidade];
+    }
+
+    /**
+     * Adiciona um novo medidor com volume zerado, assim como o construtor de {@code Medidor}.
+     *
+     * @param bitolaMedidor A bitola do novo medidor.
+     * @param pressaoInicial A pressão da rede no instante t=0.
+     * @return O id atribuído ao medidor (sua posição nos arrays).
+     */
+    public int adicionar(Bitola bitolaMedidor, float pressaoInicial) {
+        return adicionar(bitolaMedidor, pressaoInicial, 0, 0, null, 0, 0);
+    }
+
+    /**
+     * Adiciona um novo medidor com classe de consumo, faixa de pressão e matrícula próprias.
+     *
+     * @param bitolaMedidor A bitola do novo medidor.
+     * @param pressaoInicial A pressão da rede no instante t=0.
+     * @param indiceClasse O índice da classe de consumo do medidor.
+     * @param indiceFaixa O índice da faixa de pressão do medidor.
+     * @param origem O buffer que contém a matrícula em ASCII, ou {@code null} para nenhuma.
+     * @param inicio A posição do primeiro byte da matrícula em {@code origem}.
+     * @param tamanho A quantidade de bytes da matrícula.
+     * @return O id atribuído ao medidor (sua posição nos arrays).
+     */
+    public int adicionar(Bitola bitolaMedidor, float pressaoInicial, int indiceClasse, int indiceFaixa,
+                         byte[] origem, int inicio, int tamanho) {
+        if (quantidade == m3.length) {
+            crescer();
+        }
+        int id = quantidade++;
+        m3[id] = 0.0f;
+        pressao[id] = pressaoInicial;
+        fluxo[id] = 0.0f;
+        bitola[id] = (byte) bitolaMedidor.ordinal();
+        classe[id] = (short) indiceClasse;
+        faixaPressao[id] = (short) indiceFaixa;
+
+        int inicioMatricula = id == 0 ? 0 : fimMatricula[id - 1];
+        if (inicioMatricula + tamanho > matriculas.length) {
+            matriculas = Arrays.copyOf(matriculas, Math.max(matriculas.length * 2, inicioMatricula + tamanho));
+        }
+        if (tamanho > 0) {
+            System.arraycopy(origem, inicio, matriculas, inicioMatricula, tamanho);
+        }
+        fimMatricula[id] = inicioMatricula + tamanho;
+        return id;
+    }
+
+    /**
+     * Atualiza o estado de um medidor, acumulando o consumo e atualizando a pressão.
+     * Equivalente a {@code Medidor.atualizarMedicao} para o medidor de índice {@code id}.
+     *
+     * @param id O id do medidor.
+     * @param novoFluxo O fluxo do intervalo, em m³/s.
+     * @param novaPressao A pressão mais recente, em bar.
+     * @param intervalo O tempo em segundos desde a última medição.
+     */
+    public void atualizarMedicao(int id, float novoFluxo, float novaPressao, int intervalo) {
+        fluxo[id] = novoFluxo;
+        m3[id] += novoFluxo * intervalo;
+        pressao[id] = novaPressao;
+    }
+
+    /**
+     * Copia um intervalo contíguo de medidores para um lote de leituras, em bloco (System.arraycopy).
+     *
+     * @param lote O lote de destino; seu conteúdo anterior é substituído.
+     * @param inicio O id do primeiro medidor a copiar.
+     * @param quantidade Quantos medidores copiar (no máximo a capacidade do lote).
+     * @param tempoSimulado O tempo simulado atribuído a todas as leituras.
+     */
+    public void copiarPara(LoteDeLeituras lote, int inicio, int quantidade, int tempoSimulado) {
+        System.arraycopy(m3, inicio, lote.getVolumes(), 0, quantidade);
+        System.arraycopy(pressao, inicio, lote.getPressoes(), 0, quantidade);
+        System.arraycopy(fluxo, inicio, lote.getFluxos(), 0, quantidade);
+        System.arraycopy(bitola, inicio, lote.getOrdinaisBitola(), 0, quantidade);
+        int[] ids = lote.getIds();
+        for (int i = 0; i < quantidade; i++) {
+            ids[i] = inicio + i;
+        }
+        Arrays.fill(lote.getTempos(), 0, quantidade, tempoSimulado);
+        lote.setTamanho(quantidade);
+    }
+
+    /**
+     * Substitui todo o estado da frota pelas colunas lidas de um checkpoint, copiando-as diretamente
+     * para os arrays internos.
+     *
+     * @param quantidadeMedidores A quantidade de medidores do checkpoint.
+     * @param leitor Copia as colunas (m³, pressão, fluxo, bitola) para os arrays recebidos.
+     */
+    void restaurar(int quantidadeMedidores, LeitorDeColunas leitor) {
+        while (m3.length < quantidadeMedidores) {
+            crescer();
+        }
+        leitor.ler(m3, pressao, fluxo, bitola);
+        // Medidores que não existiam antes da restauração usam a classe, a faixa e a matrícula padrão.
+        for (int id = quantidade; id < quantidadeMedidores; id++) {
+            classe[id] = 0;
+            faixaPressao[id] = 0;
+            fimMatricula[id] = id == 0 ? 0 : fimMatricula[id - 1];
+        }
+        this.quantidade = quantidadeMedidores;
+    }
+
+    /**
+     * Quem preenche as colunas do estado na restauração (normalmente, o arquivo de checkpoint).
+     */
+    @FunctionalInterface
+    interface LeitorDeColunas {
+        void ler(float[] m3, float[] pressao, float[] fluxo, byte[] bitola);
+    }
+
+    /**
+     * Dobra a capacidade dos arrays quando a frota fica cheia.
+     */
+    private void crescer() {
+        int novaCapacidade = m3.length * 2;
+        m3 = Arrays.copyOf(m3, novaCapacidade);
+        pressao = Arrays.copyOf(pressao, novaCapacidade);
+        fluxo = Arrays.copyOf(fluxo, novaCapacidade);
+        bitola = Arrays.copyOf(bitola, novaCapacidade);
+        classe = Arrays.copyOf(classe, novaCapacidade);
+        faixaPressao = Arrays.copyOf(faixaPressao, novaCapacidade);
+        fimMatricula = Arrays.copyOf(fimMatricula, novaCapacidade);
+    }
+
+    public int getQuantidade() { return quantidade; }
+    public float getM3(int id) { return m3[id]; }
+    public float getPressao(int id) { return pressao[id]; }
+    public float getFluxo(int id) { return fluxo[id]; }
+    public Bitola getBitola(int id) { return BITOLAS[bitola[id]]; }
+    public int getOrdinalBitola(int id) { return bitola[id]; }
+    public int getClasse(int id) { return classe[id]; }
+    public int getFaixaPressao(int id) { return faixaPressao[id]; }
+
+    /**
+     * Monta a matrícula do medidor. Cria uma {@code String} a cada chamada; não deve ser usado
+     * dentro do laço de simulação.
+     *
+     * @param id O id do medidor.
+     * @return A matrícula, ou uma string vazia se o medidor não tiver uma.
+     */
+    public String getMatricula(int id) {
+        int inicio = id == 0 ? 0 : fimMatricula[id - 1];
+        return new String(matriculas, inicio, fimMatricula[id] - inicio, StandardCharsets.US_ASCII);
+    }
+
+    // --- Acesso direto às colunas, para cópias em bloco (checkpoint) dentro do pacote ---
+    float[] colunaM3() { return m3; }
+    float[] colunaPressao() { return pressao; }
+    float[] colunaFluxo() { return fluxo; }
+    byte[] colunaBitola() { return bitola; }
+}
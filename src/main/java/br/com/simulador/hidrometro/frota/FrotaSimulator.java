@@ -0,0 +1,492 @@
+package main.java.br.com.simulador.hidrometro.frota;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.config.SimulatorConfig;
+import main.java.br.com.simulador.hidrometro.ControleVazao;
+import main.java.br.com.simulador.hidrometro.GeradorReprodutivel;
+import main.java.br.com.simulador.hidrometro.ParametrosDaSimulacao;
+import main.java.br.com.simulador.hidrometro.RoteiroDeVazao;
+import main.java.br.com.simulador.hidrometro.checkpoint.ArquivoDeCheckpoint;
+import main.java.br.com.simulador.jfr.EventoPasso;
+import main.java.br.com.simulador.observer.LoteDeLeituras;
+import main.java.br.com.simulador.observer.ObservadorEmLote;
+import main.java.br.com.simulador.strategy.AgendaDeConsumo;
+import main.java.br.com.simulador.strategy.PerfilDeConsumoStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Motor de simulação para uma frota inteira de hidrômetros (um bairro ou distrito).
+ *
+ * Enquanto o {@code HidrometroSimulator} atualiza um único {@code Medidor} por passo, este motor
+ * mantém todos os medidores em um {@link EstadoFrota} (arrays primitivos) e avança todos eles
+ * a cada passo de tempo.
+ *
+ * O cálculo de pressão e fluxo de cada medidor segue exatamente as mesmas regras da
+ * classe {@code Entrada} (sorteio de pressão, simulação de ar, perfil de consumo ativo,
+ * multiplicador de vazão e limite de Qmax da bitola). O que muda é que tudo o que não depende
+ * do medidor (perfil ativo de cada classe de consumo, multiplicador, área de cada bitola) é calculado uma única vez.
+ *
+ * **Paralelismo determinístico:** os medidores são agrupados em blocos de tamanho fixo
+ * ({@link #TAMANHO_BLOCO}). Cada bloco tem o seu próprio {@link GeradorReprodutivel}, derivado da
+ * semente mestre no momento em que o bloco é criado, e é sempre processado inteiro por uma
+ * única tarefa do {@link ForkJoinPool}. Como as fronteiras dos blocos não dependem da quantidade
+ * de threads, o resultado é idêntico bit a bit com 1 ou com 32 threads.
+ */
+public class FrotaSimulator {
+
+    /** Faixa de velocidade usada na simulação de passagem de ar, igual à da {@code Entrada}. */
+    private static final float MIN_VELOCIDADE_AR = 0.001f;
+    private static final float MAX_VELOCIDADE_AR = 0.005f;
+
+    /**
+     * Quantidade de medidores por bloco. Grande o bastante para diluir o custo de cada tarefa
+     * e para que blocos vizinhos raramente compartilhem a mesma linha de cache.
+     */
+    public static final int TAMANHO_BLOCO = 4096;
+
+    private static final long[] SEM_OBSERVADORES = new long[0];
+
+    /** Parâmetros em uso, lidos pela thread da simulação sem lock. */
+    private ParametrosDaSimulacao parametros;
+    /** Parâmetros recarregados que entram em vigor no início do próximo passo, ou {@code null}. */
+    private final AtomicReference<ParametrosDaSimulacao> parametrosPendentes = new AtomicReference<>();
+    private final ControleVazao controleVazao;
+    private final EstadoFrota estado;
+    private final ForkJoinPool pool;
+
+    /** Gerador mestre: usado apenas para derivar (split) o gerador de cada novo bloco. */
+    private final GeradorReprodutivel geradorMestre;
+    /** Gerador de cada bloco de medidores, indexado por {@code id / TAMANHO_BLOCO}. */
+    private GeradorReprodutivel[] geradoresPorBloco = new GeradorReprodutivel[0];
+
+    /** Área da seção de cada bitola (m²), indexada pelo ordinal. Calculada uma única vez. */
+    private final float[] areaPorBitola;
+    /** Vazão máxima de cada bitola (m³/s), indexada pelo ordinal. */
+    private final float[] qmaxPorBitola;
+
+    private final List<ObservadorEmLote> observadores = new ArrayList<>();
+    /** Lote reaproveitado em todas as notificações, do tamanho de um bloco de medidores. */
+    private final LoteDeLeituras lote = new LoteDeLeituras(TAMANHO_BLOCO);
+
+    private int tempoTotalSimulado = 0;
+    /** Pares (semente, gamma) do gerador mestre e de cada bloco, reaproveitados entre checkpoints. */
+    private long[] estadosGeradores = new long[0];
+    /** Mudanças de vazão programadas no tempo, aplicadas a toda a frota, ou {@code null}. */
+    private RoteiroDeVazao roteiro;
+    /** Se cada passo grava um {@link EventoPasso} no Java Flight Recorder. */
+    private boolean eventosJfr = false;
+
+    /**
+     * Agenda de cada classe de consumo, indexada pelo índice guardado em {@link EstadoFrota}.
+     * A posição 0 é a agenda da configuração (acompanha as recargas); as demais são instâncias
+     * imutáveis compartilhadas por todos os medidores da classe.
+     */
+    private AgendaDeConsumo[] agendasPorClasse = new AgendaDeConsumo[1];
+    private final Map<String, Integer> indicePorClasse = new HashMap<>();
+    /** Perfil ativo de cada classe no passo atual, reaproveitado entre passos. */
+    private PerfilDeConsumoStrategy[] perfilPorClasse = new PerfilDeConsumoStrategy[1];
+
+    /** Pressão mínima e amplitude de cada faixa de pressão; a posição 0 é a faixa da configuração. */
+    private float[] minimaPorFaixa = new float[1];
+    private float[] amplitudePorFaixa = new float[1];
+    private int quantidadeFaixas = 1;
+    /** Chave: bits da mínima (32 bits altos) e da máxima (32 bits baixos). */
+    private final Map<Long, Integer> indicePorFaixa = new HashMap<>();
+
+    /**
+     * Cria um simulador de frota vazio, com semente aleatória, usando o pool comum do ForkJoin.
+     *
+     * @param config A configuração da simulação (pressões, perfis, escala de tempo).
+     * @param controleVazao O controle de vazão compartilhado, aplicado a todos os medidores.
+     * @param capacidadeInicial Quantidade estimada de medidores, usada para pré-alocar os arrays.
+     */
+    public FrotaSimulator(SimulatorConfig config, ControleVazao controleVazao, int capacidadeInicial) {
+        this(config, controleVazao, capacidadeInicial, new GeradorReprodutivel().nextLong(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria um simulador de frota vazio e reprodutível.
+     *
+     * @param config A configuração da simulação (pressões, perfis, escala de tempo).
+     * @param controleVazao O controle de vazão compartilhado, aplicado a todos os medidores.
+     * @param capacidadeInicial Quantidade estimada de medidores, usada para pré-alocar os arrays.
+     * @param sementeMestre A semente da qual todos os geradores de blocos são derivados.
+     * @param pool O pool onde os blocos são processados. A quantidade de threads dele não altera os resultados.
+     */
+    public FrotaSimulator(SimulatorConfig config, ControleVazao controleVazao, int capacidadeInicial,
+                          long sementeMestre, ForkJoinPool pool) {
+        this.parametros = ParametrosDaSimulacao.de(config);
+        this.controleVazao = controleVazao;
+        this.estado = new EstadoFrota(capacidadeInicial);
+        this.geradorMestre = new GeradorReprodutivel(sementeMestre);
+        this.pool = pool;
+
+        Bitola[] bitolas = Bitola.values();
+        this.areaPorBitola = new float[bitolas.length];
+        this.qmaxPorBitola = new float[bitolas.length];
+        for (Bitola b : bitolas) {
+            areaPorBitola[b.ordinal()] = b.getArea();
+            qmaxPorBitola[b.ordinal()] = b.getQmax();
+        }
+        aplicarParametrosPadrao();
+    }
+
+    /**
+     * Adiciona um medidor à frota, com volume zerado e pressão inicial sorteada,
+     * assim como acontece com a {@code Entrada} inicial do simulador de um único medidor.
+     *
+     * @param bitola A bitola do novo medidor.
+     * @return O id do medidor dentro da frota.
+     */
+    public int adicionarMedidor(Bitola bitola) {
+        return adicionarMedidor(bitola, 0, 0, null, 0, 0);
+    }
+
+    /**
+     * Adiciona um medidor com classe de consumo, faixa de pressão e matrícula próprias.
+     * Usado pelo {@link CarregadorDeManifesto}.
+     *
+     * @param bitola A bitola do novo medidor.
+     * @param indiceClasse Índice devolvido por {@link #registrarClasse(String, AgendaDeConsumo)}, ou 0.
+     * @param indiceFaixa Índice devolvido por {@link #registrarFaixaDePressao(float, float)}, ou 0.
+     * @param matricula O buffer que contém a matrícula em ASCII, ou {@code null}.
+     * @param inicio A posição do primeiro byte da matrícula.
+     * @param tamanho A quantidade de bytes da matrícula.
+     * @return O id do medidor dentro da frota.
+     */
+    public int adicionarMedidor(Bitola bitola, int indiceClasse, int indiceFaixa, byte[] matricula, int inicio, int tamanho) {
+        if (indiceClasse < 0 || indiceClasse >= agendasPorClasse.length) {
+            throw new IllegalArgumentException("Classe de consumo não registrada: " + indiceClasse);
+        }
+        if (indiceFaixa < 0 || indiceFaixa >= quantidadeFaixas) {
+            throw new IllegalArgumentException("Faixa de pressão não registrada: " + indiceFaixa);
+        }
+        int bloco = estado.getQuantidade() / TAMANHO_BLOCO;
+        if (bloco == geradoresPorBloco.length) {
+            geradoresPorBloco = Arrays.copyOf(geradoresPorBloco, bloco + 1);
+            geradoresPorBloco[bloco] = geradorMestre.dividir();
+        }
+        float pressaoInicial = sortearPressao(geradoresPorBloco[bloco], indiceFaixa);
+        return estado.adicionar(bitola, pressaoInicial, indiceClasse, indiceFaixa, matricula, inicio, tamanho);
+    }
+
+    /**
+     * Registra uma classe de consumo, ou devolve o índice dela se o nome já tiver sido registrado.
+     * Todos os medidores da classe compartilham a mesma agenda (imutável).
+     *
+     * @param nome O nome da classe (ex: "residencial").
+     * @param agenda A agenda compilada da classe; ignorada se a classe já existir.
+     * @return O índice da classe, a ser passado a {@link #adicionarMedidor(Bitola, int, int, byte[], int, int)}.
+     */
+    public int registrarClasse(String nome, AgendaDeConsumo agenda) {
+        Integer existente = indicePorClasse.get(nome);
+        if (existente != null) {
+            return existente;
+        }
+        if (agendasPorClasse.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Limite de classes de consumo atingido: " + Short.MAX_VALUE);
+        }
+        int indice = agendasPorClasse.length;
+        agendasPorClasse = Arrays.copyOf(agendasPorClasse, indice + 1);
+        agendasPorClasse[indice] = agenda;
+        perfilPorClasse = new PerfilDeConsumoStrategy[indice + 1];
+        indicePorClasse.put(nome, indice);
+        return indice;
+    }
+
+    /**
+     * Registra uma faixa de pressão, ou devolve o índice dela se uma faixa idêntica já existir.
+     *
+     * @param pressaoMinima A pressão mínima da faixa, em bar.
+     * @param pressaoMaxima A pressão máxima da faixa, em bar.
+     * @return O índice da faixa.
+     * @throws IllegalArgumentException se a faixa for inválida.
+     */
+    public int registrarFaixaDePressao(float pressaoMinima, float pressaoMaxima) {
+        if (!(pressaoMinima >= 0) || !(pressaoMaxima >= pressaoMinima)) {
+            throw new IllegalArgumentException("Faixa de pressão inválida: " + pressaoMinima + " a " + pressaoMaxima);
+        }
+        long chave = ((long) Float.floatToIntBits(pressaoMinima) << 32) | (Float.floatToIntBits(pressaoMaxima) & 0xFFFFFFFFL);
+        Integer existente = indicePorFaixa.get(chave);
+        if (existente != null) {
+            return existente;
+        }
+        if (quantidadeFaixas > Short.MAX_VALUE) {
+            throw new IllegalStateException("Limite de faixas de pressão atingido: " + Short.MAX_VALUE);
+        }
+        if (quantidadeFaixas == minimaPorFaixa.length) {
+            minimaPorFaixa = Arrays.copyOf(minimaPorFaixa, quantidadeFaixas * 2);
+            amplitudePorFaixa = Arrays.copyOf(amplitudePorFaixa, quantidadeFaixas * 2);
+        }
+        int indice = quantidadeFaixas++;
+        minimaPorFaixa[indice] = pressaoMinima;
+        amplitudePorFaixa[indice] = pressaoMaxima - pressaoMinima;
+        indicePorFaixa.put(chave, indice);
+        return indice;
+    }
+
+    /**
+     * Atualiza a classe 0 e a faixa 0, que acompanham os parâmetros da configuração.
+     */
+    private void aplicarParametrosPadrao() {
+        agendasPorClasse[0] = parametros.agenda();
+        minimaPorFaixa[0] = parametros.pressaoMinima();
+        amplitudePorFaixa[0] = parametros.pressaoMaxima() - parametros.pressaoMinima();
+    }
+
+    /**
+     * Agenda a troca dos parâmetros da simulação; a troca acontece no início do próximo passo.
+     * A bitola dos parâmetros é ignorada, pois cada medidor da frota tem a sua.
+     *
+     * @param novos Os novos parâmetros, já convertidos e validados.
+     */
+    public void agendarParametros(ParametrosDaSimulacao novos) {
+        parametrosPendentes.set(novos);
+    }
+
+    /**
+     * Passa a aplicar o roteiro de vazão no início de cada passo.
+     */
+    public void usarRoteiro(RoteiroDeVazao roteiro) {
+        this.roteiro = roteiro;
+    }
+
+    /**
+     * Passa a emitir um {@link EventoPasso} para o Java Flight Recorder a cada passo, com a quantidade
+     * de medidores avançados. O evento só é gravado se houver uma gravação do JFR em andamento.
+     */
+    public void ativarEventosJfr() {
+        this.eventosJfr = true;
+    }
+
+    public void adicionarObservador(ObservadorEmLote obs) {
+        this.observadores.add(obs);
+    }
+
+    /**
+     * Notifica os observadores com as leituras de todos os medidores, em lotes de até
+     * {@link #TAMANHO_BLOCO} leituras (um lote por bloco de medidores).
+     */
+    public void notificarObservadores() {
+        if (observadores.isEmpty()) {
+            return;
+        }
+        int quantidade = estado.getQuantidade();
+        for (int inicio = 0; inicio < quantidade; inicio += TAMANHO_BLOCO) {
+            estado.copiarPara(lote, inicio, Math.min(TAMANHO_BLOCO, quantidade - inicio), tempoTotalSimulado);
+            for (ObservadorEmLote obs : observadores) {
+                obs.atualizarLote(lote);
+            }
+        }
+    }
+
+    /**
+     * Notifica todos os observadores que a simulação terminou.
+     */
+    public void notificarFimSimulacao() {
+        for (ObservadorEmLote obs : observadores) {
+            obs.simulacaoFinalizada();
+        }
+    }
+
+    /**
+     * Avança todos os medidores da frota em um passo de tempo e notifica os observadores.
+     */
+    public void avancarSimulacao() {
+        avancarSemNotificar();
+        notificarObservadores();
+    }
+
+    /**
+     * Avança todos os medidores da frota em um passo de tempo, distribuindo os blocos
+     * entre as threads do pool, sem notificar os observadores.
+     */
+    public void avancarSemNotificar() {
+        if (!eventosJfr) {
+            avancarUmPasso();
+            return;
+        }
+        EventoPasso evento = new EventoPasso();
+        evento.begin();
+        avancarUmPasso();
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.tempoSimulado = tempoTotalSimulado;
+            evento.escalaDeTempo = parametros.escalaDeTempo();
+            evento.medidores = estado.getQuantidade();
+            evento.commit();
+        }
+    }
+
+    private void avancarUmPasso() {
+        // Fronteira entre passos: único ponto em que uma configuração recarregada entra em vigor.
+        ParametrosDaSimulacao novos = parametrosPendentes.getAndSet(null);
+        if (novos != null) {
+            parametros = novos;
+            aplicarParametrosPadrao();
+        }
+
+        int intervalo = parametros.escalaDeTempo();
+        tempoTotalSimulado += intervalo;
+        if (roteiro != null) {
+            roteiro.aplicar(tempoTotalSimulado, controleVazao);
+        }
+
+        // Tudo o que é igual para todos os medidores é resolvido antes do laço.
+        // Uma única leitura do multiplicador; o percentual é derivado dela, como em ControleVazao.getPercentual().
+        double multiplicador = controleVazao.getMultiplicador();
+        boolean simulandoAr = Math.round(multiplicador * 100) == 0 && parametros.simularAr();
+        // O perfil ativo é resolvido uma vez por classe, e não uma vez por medidor.
+        for (int classe = 0; classe < agendasPorClasse.length; classe++) {
+            perfilPorClasse[classe] = simulandoAr ? null : agendasPorClasse[classe].buscar(tempoTotalSimulado);
+        }
+        Passo passo = new Passo(intervalo, simulandoAr, multiplicador, perfilPorClasse);
+
+        int totalBlocos = geradoresPorBloco.length;
+        if (totalBlocos <= 1 || pool.getParallelism() == 1) {
+            for (int bloco = 0; bloco < totalBlocos; bloco++) {
+                avancarBloco(bloco, passo);
+            }
+        } else {
+            pool.invoke(new TarefaBlocos(0, totalBlocos, passo));
+        }
+    }
+
+    /**
+     * Avança sequencialmente todos os medidores de um bloco, usando o gerador exclusivo dele.
+     */
+    private void avancarBloco(int bloco, Passo passo) {
+        GeradorReprodutivel random = geradoresPorBloco[bloco];
+        int inicio = bloco * TAMANHO_BLOCO;
+        int fim = Math.min(inicio + TAMANHO_BLOCO, estado.getQuantidade());
+
+        PerfilDeConsumoStrategy[] perfis = passo.perfilPorClasse();
+        for (int id = inicio; id < fim; id++) {
+            float pressao = sortearPressao(random, estado.getFaixaPressao(id));
+
+            float velocidade;
+            if (passo.simulandoAr()) {
+                velocidade = MIN_VELOCIDADE_AR + random.nextFloat() * (MAX_VELOCIDADE_AR - MIN_VELOCIDADE_AR);
+            } else {
+                PerfilDeConsumoStrategy perfilAtivo = perfis[estado.getClasse(id)];
+                velocidade = perfilAtivo != null ? perfilAtivo.getVelocidade(random) : 0.0f;
+                velocidade = (float) (velocidade * passo.multiplicador());
+            }
+
+            int b = estado.getOrdinalBitola(id);
+            float fluxo = Math.min(areaPorBitola[b] * velocidade, qmaxPorBitola[b]);
+            estado.atualizarMedicao(id, fluxo, pressao, passo.intervalo());
+        }
+    }
+
+    private float sortearPressao(GeradorReprodutivel random, int faixa) {
+        return minimaPorFaixa[faixa] + random.nextFloat() * amplitudePorFaixa[faixa];
+    }
+
+    public boolean isFinalizado() {
+        int tempoExecucaoConfigurado = parametros.tempoExecucao();
+        if (tempoExecucaoConfigurado == -1) {
+            return false;
+        }
+        return tempoTotalSimulado >= tempoExecucaoConfigurado;
+    }
+
+    /**
+     * Grava o estado de toda a frota no checkpoint: uma cópia em bloco de cada coluna do
+     * {@link EstadoFrota} e o estado do gerador mestre e de cada bloco.
+     *
+     * @param arquivo O arquivo de checkpoint, com capacidade para todos os medidores e geradores.
+     */
+    public void gravarCheckpoint(ArquivoDeCheckpoint arquivo) {
+        int quantidadeGeradores = 1 + geradoresPorBloco.length;
+        if (estadosGeradores.length < quantidadeGeradores * 2) {
+            estadosGeradores = new long[quantidadeGeradores * 2];
+        }
+        estadosGeradores[0] = geradorMestre.getSemente();
+        estadosGeradores[1] = geradorMestre.getGamma();
+        for (int bloco = 0; bloco < geradoresPorBloco.length; bloco++) {
+            estadosGeradores[2 + bloco * 2] = geradoresPorBloco[bloco].getSemente();
+            estadosGeradores[3 + bloco * 2] = geradoresPorBloco[bloco].getGamma();
+        }
+        arquivo.gravar(tempoTotalSimulado, controleVazao.getMultiplicador(),
+                estado.colunaM3(), estado.colunaPressao(), estado.colunaFluxo(), estado.colunaBitola(),
+                estado.getQuantidade(), estadosGeradores, quantidadeGeradores, SEM_OBSERVADORES, 0);
+    }
+
+    /**
+     * Restaura a frota a partir do checkpoint mais recente do arquivo.
+     *
+     * O checkpoint guarda apenas as colunas de medição. Por isso a frota deve estar vazia (todos os
+     * medidores usam a classe e a faixa da configuração) ou já conter exatamente os medidores do
+     * checkpoint, recarregados do mesmo manifesto, para que classes, faixas e matrículas sejam mantidas.
+     *
+     * @param arquivo O arquivo de checkpoint.
+     * @return {@code true} se um checkpoint foi encontrado e restaurado.
+     * @throws IllegalStateException se a frota tiver uma quantidade de medidores diferente da do checkpoint.
+     */
+    public boolean restaurarCheckpoint(ArquivoDeCheckpoint arquivo) {
+        if (!arquivo.carregar()) {
+            return false;
+        }
+        if (estado.getQuantidade() != 0 && estado.getQuantidade() != arquivo.getQuantidadeMedidores()) {
+            throw new IllegalStateException("O checkpoint tem " + arquivo.getQuantidadeMedidores()
+                    + " medidores, mas a frota tem " + estado.getQuantidade() + ".");
+        }
+        this.tempoTotalSimulado = arquivo.getTempo();
+        controleVazao.restaurarMultiplicador(arquivo.getMultiplicador());
+        estado.restaurar(arquivo.getQuantidadeMedidores(), arquivo::lerMedidores);
+
+        int quantidadeGeradores = arquivo.getQuantidadeGeradores();
+        estadosGeradores = new long[quantidadeGeradores * 2];
+        arquivo.lerGeradores(estadosGeradores);
+        geradorMestre.restaurar(estadosGeradores[0], estadosGeradores[1]);
+        geradoresPorBloco = new GeradorReprodutivel[quantidadeGeradores - 1];
+        for (int bloco = 0; bloco < geradoresPorBloco.length; bloco++) {
+            geradoresPorBloco[bloco] = new GeradorReprodutivel(estadosGeradores[2 + bloco * 2], estadosGeradores[3 + bloco * 2]);
+        }
+        return true;
+    }
+
+    public EstadoFrota getEstado() { return estado; }
+    public int getTempoTotalSimulado() { return tempoTotalSimulado; }
+
+    /**
+     * Parâmetros de um passo que são iguais para todos os medidores.
+     */
+    private record Passo(int intervalo, boolean simulandoAr, double multiplicador, PerfilDeConsumoStrategy[] perfilPorClasse) {}
+
+    /**
+     * Tarefa do ForkJoin que divide um intervalo de blocos ao meio até restar um único bloco.
+     */
+    private final class TarefaBlocos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int blocoInicio;
+        private final int blocoFim;
+        private final Passo passo;
+
+        TarefaBlocos(int blocoInicio, int blocoFim, Passo passo) {
+            this.blocoInicio = blocoInicio;
+            this.blocoFim = blocoFim;
+            this.passo = passo;
+        }
+
+        @Override
+        protected void compute() {
+            if (blocoFim - blocoInicio == 1) {
+                avancarBloco(blocoInicio, passo);
+                return;
+            }
+            int meio = (blocoInicio + blocoFim) >>> 1;
+            invokeAll(new TarefaBlocos(blocoInicio, meio, passo), new TarefaBlocos(meio, blocoFim, passo));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package main.java.br.com.simulador.hidrometro.historico;
+
+import main.java.br.com.simulador.observer.LoteDeLeituras;
+import main.java.br.com.simulador.observer.ObservadorEmLote;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Histórico das leituras de todos os medidores, em séries temporais colunares mapeadas em memória.
+ *
+ * Cada medidor tem o seu próprio arquivo ({@code medidor-<id>.serie}) dentro do diretório do armazém,
+ * dividido em {@link SegmentoColunar}es. Registrado como {@link ObservadorEmLote}, o armazém acrescenta
+ * cada leitura recebida ao fim da série do medidor correspondente.
+ *
+ * As consultas leem diretamente das páginas mapeadas, sem carregar o histórico no heap:
+ * <ul>
+ *   <li>{@link #getVolumeEntre(int, int, int)}: volume de um medidor entre dois instantes;</li>
+ *   <li>{@link #percorrer(int, int, VisitanteDeLeituras)}: todas as leituras da frota em um intervalo.</li>
+ * </ul>
+ * Reabrir um diretório existente recupera as séries gravadas, e novas leituras continuam no fim delas.
+ * Se a simulação recomeçar de um instante anterior (nova execução ou retomada de checkpoint), as leituras
+ * gravadas a partir desse instante são substituídas pelas novas.
+ * Não é thread-safe: gravação e consultas devem acontecer na mesma thread (ou com sincronização externa).
+ */
+public class ArmazemDeSeries implements ObservadorEmLote, AutoCloseable {
+
+    private static final String PREFIXO_ARQUIVO = "medidor-";
+    private static final String EXTENSAO_ARQUIVO = ".serie";
+
+    private final Path diretorio;
+    /** Série de cada medidor, indexada pelo id; {@code null} se o medidor ainda não tem leituras. */
+    private SerieDoMedidor[] series = new SerieDoMedidor[0];
+
+    /**
+     * Abre o armazém, criando o diretório se necessário e recuperando as séries já existentes.
+     *
+     * @param diretorio O diretório do armazém.
+     * @throws RuntimeException se o diretório não puder ser criado ou lido.
+     */
+    public ArmazemDeSeries(Path diretorio) {
+        this.diretorio = diretorio;
+        try {
+            Files.createDirectories(diretorio);
+            try (var arquivos = Files.newDirectoryStream(diretorio, PREFIXO_ARQUIVO + "*" + EXTENSAO_ARQUIVO)) {
+                for (Path arquivo : arquivos) {
+                    String nome = arquivo.getFileName().toString();
+                    int id = Integer.parseInt(nome.substring(PREFIXO_ARQUIVO.length(), nome.length() - EXTENSAO_ARQUIVO.length()));
+                    garantirCapacidade(id);
+                    series[id] = new SerieDoMedidor(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao abrir armazém de séries: " + diretorio, e);
+        }
+    }
+
+    @Override
+    public void atualizarLote(LoteDeLeituras lote) {
+        int[] ids = lote.getIds();
+        int[] tempos = lote.getTempos();
+        float[] volumes = lote.getVolumes();
+        float[] pressoes = lote.getPressoes();
+        float[] fluxos = lote.getFluxos();
+        for (int i = 0; i < lote.getTamanho(); i++) {
+            adicionar(ids[i], tempos[i], volumes[i], pressoes[i], fluxos[i]);
+        }
+    }
+
+    /**
+     * Acrescenta uma leitura ao fim da série do medidor, criando o arquivo dela se for a primeira.
+     */
+    public void adicionar(int id, int tempo, float m3, float pressao, float fluxo) {
+        garantirCapacidade(id);
+        SerieDoMedidor serie = series[id];
+        if (serie == null) {
+            serie = new SerieDoMedidor(diretorio.resolve(PREFIXO_ARQUIVO + id + EXTENSAO_ARQUIVO));
+            series[id] = serie;
+        }
+        serie.adicionar(tempo, m3, pressao, fluxo);
+    }
+
+    /**
+     * Volume consumido por um medidor entre dois instantes simulados.
+     *
+     * @param id O id do medidor.
+     * @param t1 O instante inicial, em segundos.
+     * @param t2 O instante final, em segundos.
+     * @return O volume em m³, ou {@code NaN} se o medidor não tiver leituras.
+     */
+    public float getVolumeEntre(int id, int t1, int t2) {
+        SerieDoMedidor serie = getSerie(id);
+        return serie == null ? Float.NaN : serie.getVolumeEntre(t1, t2);
+    }
+
+    /**
+     * Percorre as leituras de toda a frota com tempo no intervalo [t1, t2], medidor por medidor.
+     * Cada série é percorrida sequencialmente, de forma que o acesso às páginas mapeadas é linear.
+     */
+    public void percorrer(int t1, int t2, VisitanteDeLeituras visitante) {
+        for (int id = 0; id < series.length; id++) {
+            if (series[id] != null) {
+                series[id].percorrer(id, t1, t2, visitante);
+            }
+        }
+    }
+
+    /**
+     * Percorre as leituras de um único medidor com tempo no intervalo [t1, t2].
+     */
+    public void percorrer(int id, int t1, int t2, VisitanteDeLeituras visitante) {
+        SerieDoMedidor serie = getSerie(id);
+        if (serie != null) {
+            serie.percorrer(id, t1, t2, visitante);
+        }
+    }
+
+    /**
+     * @return A série do medidor, ou {@code null} se ele não tiver leituras.
+     */
+    public SerieDoMedidor getSerie(int id) {
+        return id < series.length ? series[id] : null;
+    }
+
+    private void garantirCapacidade(int id) {
+        if (id >= series.length) {
+            series = Arrays.copyOf(series, Math.max(id + 1, series.length * 2));
+        }
+    }
+
+    /**
+     * No fim da simulação, grava as páginas no disco e fecha os arquivos.
+     */
+    @Override
+    public void simulacaoFinalizada() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        for (SerieDoMedidor serie : series) {
+            if (serie != null) {
+                serie.close();
+            }
+        }
+    }
+
+    public Path getDiretorio() { return diretorio; }
+}
@@ -0,0 +1,158 @@
+package main.java.br.com.simulador.hidrometro.historico;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Um bloco de tamanho fixo de leituras de um único medidor, mapeado em memória e organizado em colunas.
+ *
+ * Layout (big-endian), a partir do início do segmento dentro do arquivo do medidor:
+ * <pre>
+ * [cabeçalho: 16 bytes] número mágico, capacidade, linhas gravadas, reservado
+ * [tempos:    capacidade * 4 bytes] int
+ * [m3:        capacidade * 4 bytes] float
+ * [pressões:  capacidade * 4 bytes] float
+ * [fluxos:    capacidade * 4 bytes] float
+ * </pre>
+ * Como cada coluna é contígua, uma busca por tempo só toca as páginas da coluna de tempos, e os
+ * dados nunca são copiados para o heap: o sistema operacional carrega as páginas sob demanda.
+ *
+ * **Índice esparso:** a cada {@link #PASSO_INDICE} linhas, o tempo da linha é guardado em um pequeno
+ * array no heap. A busca por tempo usa esse índice para escolher uma janela de no máximo
+ * {@link #PASSO_INDICE} linhas e só então faz a busca binária na coluna mapeada.
+ */
+public class SegmentoColunar {
+
+    /** Identifica um segmento válido ("SEGC"). */
+    static final int NUMERO_MAGICO = 0x53454743;
+    static final int TAMANHO_CABECALHO = 16;
+    /** Quantidade de linhas de cada segmento. */
+    public static final int CAPACIDADE = 16384;
+    /** Tamanho total de um segmento no arquivo, em bytes. */
+    public static final int TAMANHO_SEGMENTO = TAMANHO_CABECALHO + CAPACIDADE * 16;
+    /** Intervalo, em linhas, entre duas entradas do índice esparso. */
+    public static final int PASSO_INDICE = 128;
+
+    private static final int POSICAO_LINHAS = 8;
+    private static final int INICIO_TEMPOS = TAMANHO_CABECALHO;
+    private static final int INICIO_M3 = INICIO_TEMPOS + CAPACIDADE * 4;
+    private static final int INICIO_PRESSOES = INICIO_M3 + CAPACIDADE * 4;
+    private static final int INICIO_FLUXOS = INICIO_PRESSOES + CAPACIDADE * 4;
+
+    private final MappedByteBuffer mapa;
+    /** Tempo de cada {@link #PASSO_INDICE}-ésima linha. */
+    private final int[] indice = new int[(CAPACIDADE + PASSO_INDICE - 1) / PASSO_INDICE];
+    private int linhas;
+
+    /**
+     * Envolve uma região já mapeada do arquivo. Se a região for nova (zerada), o cabeçalho é escrito;
+     * se já contiver um segmento, as linhas gravadas são recuperadas e o índice esparso é reconstruído.
+     *
+     * @param mapa A região mapeada, com {@link #TAMANHO_SEGMENTO} bytes.
+     * @throws IllegalStateException se a região contiver dados que não são de um segmento.
+     */
+    SegmentoColunar(MappedByteBuffer mapa) {
+        this.mapa = mapa;
+        int magico = mapa.getInt(0);
+        if (magico == 0) {
+            mapa.putInt(0, NUMERO_MAGICO);
+            mapa.putInt(4, CAPACIDADE);
+            mapa.putInt(POSICAO_LINHAS, 0);
+            this.linhas = 0;
+        } else if (magico != NUMERO_MAGICO || mapa.getInt(4) != CAPACIDADE) {
+            throw new IllegalStateException("Segmento de série temporal corrompido ou incompatível.");
+        } else {
+            this.linhas = mapa.getInt(POSICAO_LINHAS);
+            for (int i = 0; i < linhas; i += PASSO_INDICE) {
+                indice[i / PASSO_INDICE] = getTempo(i);
+            }
+        }
+    }
+
+    /**
+     * Acrescenta uma linha ao fim do segmento. As colunas são escritas antes do contador de linhas,
+     * de modo que uma linha só passa a ser visível (inclusive após reabrir o arquivo) quando está completa.
+     *
+     * @return {@code false} se o segmento já estiver cheio.
+     */
+    boolean adicionar(int tempo, float m3, float pressao, float fluxo) {
+        if (linhas == CAPACIDADE) {
+            return false;
+        }
+        int i = linhas;
+        mapa.putInt(INICIO_TEMPOS + i * 4, tempo);
+        mapa.putFloat(INICIO_M3 + i * 4, m3);
+        mapa.putFloat(INICIO_PRESSOES + i * 4, pressao);
+        mapa.putFloat(INICIO_FLUXOS + i * 4, fluxo);
+        if (i % PASSO_INDICE == 0) {
+            indice[i / PASSO_INDICE] = tempo;
+        }
+        linhas = i + 1;
+        mapa.putInt(POSICAO_LINHAS, linhas);
+        return true;
+    }
+
+    /**
+     * Mantém apenas as primeiras linhas do segmento. As entradas do índice esparso além delas são
+     * sobrescritas à medida que novas linhas forem acrescentadas.
+     *
+     * @param linhas Quantas linhas manter (no máximo as já gravadas).
+     */
+    void truncar(int linhas) {
+        if (linhas < this.linhas) {
+            this.linhas = linhas;
+            mapa.putInt(POSICAO_LINHAS, linhas);
+        }
+    }
+
+    /**
+     * Encontra a última linha com tempo menor ou igual ao informado.
+     *
+     * @param tempo O tempo simulado procurado, em segundos.
+     * @return O índice da linha, ou -1 se todas as linhas forem posteriores.
+     */
+    public int buscarUltimaAte(int tempo) {
+        if (linhas == 0 || getTempo(0) > tempo) {
+            return -1;
+        }
+        // 1. Índice esparso (heap): última amostra com tempo <= procurado.
+        int entradas = (linhas + PASSO_INDICE - 1) / PASSO_INDICE;
+        int baixo = 0;
+        int alto = entradas - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            if (indice[meio] <= tempo) {
+                baixo = meio;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        // 2. Busca binária apenas dentro da janela, na coluna mapeada.
+        int inicio = baixo * PASSO_INDICE;
+        int fim = Math.min(inicio + PASSO_INDICE, linhas) - 1;
+        while (inicio < fim) {
+            int meio = (inicio + fim + 1) >>> 1;
+            if (getTempo(meio) <= tempo) {
+                inicio = meio;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Força a gravação das páginas alteradas no disco.
+     */
+    void forcar() {
+        mapa.force();
+    }
+
+    public int getLinhas() { return linhas; }
+    public boolean isCheio() { return linhas == CAPACIDADE; }
+    public int getTempo(int linha) { return mapa.getInt(INICIO_TEMPOS + linha * 4); }
+    public float getM3(int linha) { return mapa.getFloat(INICIO_M3 + linha * 4); }
+    public float getPressao(int linha) { return mapa.getFloat(INICIO_PRESSOES + linha * 4); }
+    public float getFluxo(int linha) { return mapa.getFloat(INICIO_FLUXOS + linha * 4); }
+    public int getPrimeiroTempo() { return getTempo(0); }
+    public int getUltimoTempo() { return getTempo(linhas - 1); }
+}
@@ -0,0 +1,189 @@
+package main.java.br.com.simulador.hidrometro.historico;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A série temporal de um único medidor: um arquivo formado por uma sequência de {@link SegmentoColunar}.
+ *
+ * Só é possível acrescentar leituras no fim (append-only) e em ordem de tempo não decrescente.
+ * Quando o último segmento enche, uma nova região do arquivo é mapeada para o próximo segmento.
+ *
+ * **Nova geração:** uma leitura anterior à última gravada indica que a simulação recomeçou (nova execução
+ * sobre o mesmo diretório, ou retomada de um checkpoint). As leituras com tempo maior ou igual ao dela
+ * são descartadas e a série continua a partir desse ponto, sem interromper a simulação.
+ */
+public class SerieDoMedidor implements AutoCloseable {
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final List<SegmentoColunar> segmentos = new ArrayList<>();
+
+    /**
+     * Abre a série do medidor, recuperando os segmentos já gravados, ou cria um arquivo novo.
+     *
+     * @param arquivo O arquivo da série.
+     * @throws RuntimeException se o arquivo não puder ser aberto ou mapeado.
+     */
+    public SerieDoMedidor(Path arquivo) {
+        this.arquivo = arquivo;
+        try {
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long quantidade = canal.size() / SegmentoColunar.TAMANHO_SEGMENTO;
+            for (long i = 0; i < quantidade; i++) {
+                segmentos.add(mapearSegmento(i));
+            }
+            // Segmentos vazios no fim (deixados por um truncamento) são reaproveitados pelo próximo adicionar.
+            descartarSegmentosVazios();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao abrir série temporal: " + arquivo, e);
+        }
+    }
+
+    private SegmentoColunar mapearSegmento(long posicao) throws IOException {
+        return new SegmentoColunar(canal.map(FileChannel.MapMode.READ_WRITE,
+                posicao * SegmentoColunar.TAMANHO_SEGMENTO, SegmentoColunar.TAMANHO_SEGMENTO));
+    }
+
+    /**
+     * Acrescenta uma leitura ao fim da série. Se o tempo for anterior ao da última leitura gravada,
+     * as leituras a partir dele são descartadas antes (ver {@link #truncarAPartirDe(int)}).
+     */
+    public void adicionar(int tempo, float m3, float pressao, float fluxo) {
+        SegmentoColunar ultimo = segmentos.isEmpty() ? null : segmentos.get(segmentos.size() - 1);
+        if (ultimo != null && ultimo.getLinhas() > 0 && tempo < ultimo.getUltimoTempo()) {
+            truncarAPartirDe(tempo);
+            ultimo = segmentos.isEmpty() ? null : segmentos.get(segmentos.size() - 1);
+        }
+        if (ultimo == null || ultimo.isCheio()) {
+            try {
+                ultimo = mapearSegmento(segmentos.size());
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao estender série temporal: " + arquivo, e);
+            }
+            segmentos.add(ultimo);
+        }
+        ultimo.adicionar(tempo, m3, pressao, fluxo);
+    }
+
+    /**
+     * Descarta as leituras com tempo maior ou igual ao informado. Os segmentos que ficam vazios saem da
+     * lista, mas a região deles no arquivo continua lá e é mapeada de novo quando a série voltar a crescer.
+     *
+     * @param tempo O primeiro tempo descartado, em segundos.
+     */
+    public void truncarAPartirDe(int tempo) {
+        int segmento = buscarSegmento(tempo - 1);
+        for (int i = segmentos.size() - 1; i > segmento; i--) {
+            segmentos.get(i).truncar(0);
+        }
+        if (segmento >= 0) {
+            SegmentoColunar s = segmentos.get(segmento);
+            s.truncar(s.buscarUltimaAte(tempo - 1) + 1);
+        }
+        descartarSegmentosVazios();
+    }
+
+    private void descartarSegmentosVazios() {
+        while (!segmentos.isEmpty() && segmentos.get(segmentos.size() - 1).getLinhas() == 0) {
+            segmentos.remove(segmentos.size() - 1);
+        }
+    }
+
+    /**
+     * Retorna o volume acumulado da última leitura com tempo menor ou igual ao informado.
+     * Antes da primeira leitura, retorna o volume da primeira leitura (o consumo anterior não é conhecido).
+     *
+     * @param tempo O tempo simulado, em segundos.
+     * @return O volume em m³, ou {@code NaN} se a série estiver vazia.
+     */
+    public float getM3Ate(int tempo) {
+        if (getQuantidadeDeLeituras() == 0) {
+            return Float.NaN;
+        }
+        int segmento = buscarSegmento(tempo);
+        if (segmento < 0) {
+            return segmentos.get(0).getM3(0);
+        }
+        SegmentoColunar s = segmentos.get(segmento);
+        return s.getM3(s.buscarUltimaAte(tempo));
+    }
+
+    /**
+     * Volume consumido entre dois instantes: diferença entre os volumes acumulados em {@code t2} e em {@code t1}.
+     */
+    public float getVolumeEntre(int t1, int t2) {
+        return getM3Ate(t2) - getM3Ate(t1);
+    }
+
+    /**
+     * Percorre, em ordem, as leituras com tempo no intervalo fechado [t1, t2].
+     *
+     * @param id O id do medidor, repassado ao visitante.
+     */
+    public void percorrer(int id, int t1, int t2, VisitanteDeLeituras visitante) {
+        int segmento = Math.max(0, buscarSegmento(t1));
+        for (; segmento < segmentos.size(); segmento++) {
+            SegmentoColunar s = segmentos.get(segmento);
+            if (s.getLinhas() == 0 || s.getPrimeiroTempo() > t2) {
+                return;
+            }
+            int linha = Math.max(0, s.buscarUltimaAte(t1));
+            for (; linha < s.getLinhas(); linha++) {
+                int tempo = s.getTempo(linha);
+                if (tempo > t2) {
+                    return;
+                }
+                if (tempo >= t1) {
+                    visitante.visitar(id, tempo, s.getM3(linha), s.getPressao(linha), s.getFluxo(linha));
+                }
+            }
+        }
+    }
+
+    /**
+     * Último segmento cujo primeiro tempo é menor ou igual ao informado, por busca binária
+     * sobre os segmentos (o primeiro tempo de cada um funciona como o nível mais alto do índice).
+     */
+    private int buscarSegmento(int tempo) {
+        int baixo = -1;
+        int alto = segmentos.size() - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            SegmentoColunar s = segmentos.get(meio);
+            if (s.getLinhas() > 0 && s.getPrimeiroTempo() <= tempo) {
+                baixo = meio;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return baixo;
+    }
+
+    public long getQuantidadeDeLeituras() {
+        if (segmentos.isEmpty()) {
+            return 0;
+        }
+        return (long) (segmentos.size() - 1) * SegmentoColunar.CAPACIDADE + segmentos.get(segmentos.size() - 1).getLinhas();
+    }
+
+    /**
+     * Força a gravação dos segmentos no disco e fecha o arquivo.
+     */
+    @Override
+    public void close() {
+        try {
+            for (SegmentoColunar s : segmentos) {
+                s.forcar();
+            }
+            canal.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fechar série temporal: " + arquivo, e);
+        }
+    }
+}
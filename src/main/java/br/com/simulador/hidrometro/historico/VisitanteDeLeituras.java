@@ -0,0 +1,18 @@
+package main.java.br.com.simulador.hidrometro.historico;
+
+/**
+ * Recebe, uma a uma, as leituras encontradas em uma varredura do {@link ArmazemDeSeries}.
+ * Os valores chegam como primitivos, lidos diretamente das colunas mapeadas.
+ */
+@FunctionalInterface
+public interface VisitanteDeLeituras {
+
+    /**
+     * @param id O id do medidor.
+     * @param tempo O tempo simulado da leitura, em segundos.
+     * @param m3 O volume acumulado, em m³.
+     * @param pressao A pressão, em bar.
+     * @param fluxo O fluxo do passo, em m³/s.
+     */
+    void visitar(int id, int tempo, float m3, float pressao, float fluxo);
+}
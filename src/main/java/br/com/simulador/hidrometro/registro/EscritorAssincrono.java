@@ -0,0 +1,235 @@
+package main.java.br.com.simulador.hidrometro.registro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Escritor de arquivo bufferizado e assíncrono, com gravação em grupo.
+ *
+ * Quem produz os dados escreve em um {@link ByteBuffer} obtido de {@link #reservar(int)}. Quando o
+ * buffer enche, ele é entregue a uma thread de gravação e um buffer livre é pego do pool. A thread de
+ * gravação junta todos os buffers cheios que estiverem esperando e os grava com uma única chamada
+ * ({@code FileChannel.write(ByteBuffer[])}), de modo que, sob carga, muitos buffers são gravados por
+ * chamada de sistema ("group flush").
+ *
+ * O pool de buffers é fixo: se o disco não acompanhar, o produtor espera por um buffer livre em vez
+ * de acumular memória sem limite. Não é thread-safe do lado do produtor: apenas uma thread deve
+ * chamar {@link #reservar(int)}.
+ */
+public class EscritorAssincrono implements AutoCloseable {
+
+    /** Marcador enviado à thread de gravação para indicar o fim dos dados. */
+    private static final ByteBuffer FIM = ByteBuffer.allocate(0);
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final BlockingQueue<ByteBuffer> livres;
+    private final BlockingQueue<ByteBuffer> cheios;
+    private final Thread gravador;
+    /** Buffer sendo preenchido pelo produtor. */
+    private ByteBuffer atual;
+    private boolean fechado = false;
+
+    /** Tamanho do arquivo na abertura: 0 se ele foi criado ou recriado. */
+    private final long tamanhoInicial;
+
+    /** Buffers entregues à thread de gravação pelo produtor. */
+    private long buffersEnviados = 0;
+    /** Buffers já gravados (ou descartados após um erro) pela thread de gravação; protegido por {@code this}. */
+    private long buffersConcluidos = 0;
+
+    private volatile IOException erro;
+    private volatile long bytesGravados = 0;
+    private volatile long gruposGravados = 0;
+
+    /**
+     * Abre (ou recria) o arquivo e inicia a thread de gravação.
+     *
+     * @param arquivo O arquivo de destino.
+     * @param tamanhoBuffer O tamanho de cada buffer, em bytes.
+     * @param quantidadeBuffers Quantos buffers existem no pool (pelo menos 2).
+     * @throws RuntimeException se o arquivo não puder ser aberto.
+     */
+    public EscritorAssincrono(Path arquivo, int tamanhoBuffer, int quantidadeBuffers) {
+        this(arquivo, tamanhoBuffer, quantidadeBuffers, false);
+    }
+
+    /**
+     * Abre o arquivo, recriando-o ou continuando no fim dele, e inicia a thread de gravação.
+     *
+     * @param arquivo O arquivo de destino.
+     * @param tamanhoBuffer O tamanho de cada buffer, em bytes.
+     * @param quantidadeBuffers Quantos buffers existem no pool (pelo menos 2).
+     * @param acrescentar Se {@code true}, o conteúdo existente é mantido e os dados são gravados no fim.
+     * @throws RuntimeException se o arquivo não puder ser aberto.
+     */
+    public EscritorAssincrono(Path arquivo, int tamanhoBuffer, int quantidadeBuffers, boolean acrescentar) {
+        if (quantidadeBuffers < 2) {
+            throw new IllegalArgumentException("São necessários pelo menos 2 buffers: " + quantidadeBuffers);
+        }
+        this.arquivo = arquivo;
+        try {
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    acrescentar ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+            this.tamanhoInicial = canal.size();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao abrir arquivo de registro: " + arquivo, e);
+        }
+        this.livres = new ArrayBlockingQueue<>(quantidadeBuffers);
+        this.cheios = new ArrayBlockingQueue<>(quantidadeBuffers + 1);
+        for (int i = 1; i < quantidadeBuffers; i++) {
+            livres.add(ByteBuffer.allocateDirect(tamanhoBuffer));
+        }
+        this.atual = ByteBuffer.allocateDirect(tamanhoBuffer);
+
+        this.gravador = new Thread(this::gravar, "registro-" + arquivo.getFileName());
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Retorna o buffer atual com pelo menos {@code bytes} bytes livres, trocando-o se necessário.
+     *
+     * @param bytes Quantidade de bytes que o produtor pretende escrever em seguida.
+     * @return O buffer onde escrever.
+     */
+    public ByteBuffer reservar(int bytes) {
+        if (atual.remaining() < bytes) {
+            enviarAtual();
+        }
+        return atual;
+    }
+
+    /**
+     * Entrega o buffer atual à thread de gravação, mesmo que não esteja cheio.
+     */
+    public void descarregar() {
+        if (atual.position() > 0) {
+            enviarAtual();
+        }
+    }
+
+    /**
+     * Entrega o buffer atual à thread de gravação e espera até que tudo o que foi enviado esteja no arquivo
+     * (no cache do sistema operacional, sem {@code force}). Depois disso, os dados sobrevivem ao fim do processo.
+     */
+    public void gravarPendentes() {
+        descarregar();
+        synchronized (this) {
+            while (buffersConcluidos < buffersEnviados && gravador.isAlive()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrompido aguardando a gravação do registro: " + arquivo, e);
+                }
+            }
+        }
+        verificarErro();
+    }
+
+    private void enviarAtual() {
+        verificarErro();
+        atual.flip();
+        try {
+            cheios.put(atual);
+            buffersEnviados++;
+            atual = livres.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando buffer de registro livre", e);
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: grava em grupo todos os buffers cheios disponíveis.
+     */
+    private void gravar() {
+        List<ByteBuffer> grupo = new ArrayList<>();
+        boolean terminou = false;
+        while (!terminou) {
+            try {
+                grupo.add(cheios.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            cheios.drainTo(grupo);
+            if (grupo.get(grupo.size() - 1) == FIM) {
+                grupo.remove(grupo.size() - 1);
+                terminou = true;
+            }
+
+            if (erro == null && !grupo.isEmpty()) {
+                try {
+                    ByteBuffer[] buffers = grupo.toArray(new ByteBuffer[0]);
+                    long restante = 0;
+                    for (ByteBuffer b : buffers) {
+                        restante += b.remaining();
+                    }
+                    long total = restante;
+                    while (restante > 0) {
+                        restante -= canal.write(buffers);
+                    }
+                    bytesGravados += total;
+                    gruposGravados++;
+                } catch (IOException e) {
+                    erro = e;
+                    System.err.println("ERRO ao gravar registro em " + arquivo);
+                    e.printStackTrace();
+                }
+            }
+
+            for (ByteBuffer b : grupo) {
+                b.clear();
+                livres.offer(b);
+            }
+            synchronized (this) {
+                buffersConcluidos += grupo.size();
+                notifyAll();
+            }
+            grupo.clear();
+        }
+    }
+
+    private void verificarErro() {
+        if (erro != null) {
+            throw new RuntimeException("Erro ao gravar registro: " + arquivo, erro);
+        }
+    }
+
+    /**
+     * Grava tudo o que estiver pendente, aguarda a thread de gravação e fecha o arquivo.
+     */
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        descarregar();
+        try {
+            cheios.put(FIM);
+            gravador.join();
+            canal.force(false);
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fechar arquivo de registro: " + arquivo, e);
+        }
+        verificarErro();
+    }
+
+    /** Tamanho do arquivo quando foi aberto (0 se ele foi criado ou recriado). */
+    public long getTamanhoInicial() { return tamanhoInicial; }
+    public long getBytesGravados() { return bytesGravados; }
+    public long getGruposGravados() { return gruposGravados; }
+    public int getBuffersPendentes() { return cheios.size(); }
+}
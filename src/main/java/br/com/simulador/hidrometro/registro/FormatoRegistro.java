@@ -0,0 +1,46 @@
+package main.java.br.com.simulador.hidrometro.registro;
+
+/**
+ * Formatos de arquivo suportados pelo {@link RegistradorDeLeituras}.
+ */
+public enum FormatoRegistro {
+
+    /** Texto separado por vírgulas, com cabeçalho: {@code id,tempo,m3,pressao,fluxo,bitola}. */
+    CSV("csv"),
+
+    /** Um objeto JSON por linha (JSON Lines), com os mesmos campos do CSV. */
+    JSONL("jsonl"),
+
+    /**
+     * Registros binários de tamanho fixo ({@value RegistradorDeLeituras#TAMANHO_REGISTRO_BINARIO} bytes,
+     * big-endian), precedidos por um cabeçalho. Veja {@link RegistradorDeLeituras} para o layout.
+     */
+    BINARIO("binario");
+
+    /** O valor usado no arquivo de configuração. */
+    private final String chave;
+
+    FormatoRegistro(String chave) {
+        this.chave = chave;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Converte o valor lido do arquivo de configuração em uma constante do enum.
+     *
+     * @param chave O valor em texto (ex: "csv", "jsonl", "binario").
+     * @return A constante {@link FormatoRegistro} correspondente.
+     * @throws IllegalArgumentException se o valor não corresponder a nenhum formato suportado.
+     */
+    public static FormatoRegistro fromString(String chave) {
+        for (FormatoRegistro formato : FormatoRegistro.values()) {
+            if (formato.chave.equalsIgnoreCase(chave)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de registro não suportado: " + chave);
+    }
+}
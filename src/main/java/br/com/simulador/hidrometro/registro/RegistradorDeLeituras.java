@@ -0,0 +1,263 @@
+package main.java.br.com.simulador.hidrometro.registro;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.observer.LoteDeLeituras;
+import main.java.br.com.simulador.observer.ObservadorEmLote;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Observador em lote que grava as leituras em arquivo, em formato estruturado (CSV, JSON Lines ou binário).
+ *
+ * Substitui os vários {@code System.out.printf} por passo da {@code Saida} quando é preciso processar
+ * as leituras depois. Os números são convertidos para texto diretamente em bytes, sem {@code String.format}
+ * nem objetos intermediários, e os bytes vão para um {@link EscritorAssincrono}, que grava em outra thread.
+ *
+ * **Amostragem:** é possível gravar apenas uma a cada N passos e/ou apenas as leituras cujo volume mudou
+ * desde a última leitura gravada daquele medidor.
+ *
+ * **Formato binário:** cabeçalho de 12 bytes ({@code "HIDR"}, versão {@code int}, tamanho do registro
+ * {@code int}), seguido de registros de {@value #TAMANHO_REGISTRO_BINARIO} bytes, big-endian:
+ * id ({@code int}), tempo ({@code int}), m³ ({@code float}), pressão ({@code float}), fluxo ({@code float}),
+ * ordinal da bitola ({@code byte}) e 3 bytes reservados.
+ */
+public class RegistradorDeLeituras implements ObservadorEmLote {
+
+    public static final int TAMANHO_REGISTRO_BINARIO = 24;
+    private static final int VERSAO_BINARIO = 1;
+    /** Maior tamanho possível de uma linha de texto, com folga. */
+    private static final int MAXIMO_BYTES_POR_REGISTRO = 160;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    private static final int QUANTIDADE_BUFFERS = 4;
+
+    private static final byte[][] POLEGADAS = new byte[Bitola.values().length][];
+    static {
+        for (Bitola b : Bitola.values()) {
+            POLEGADAS[b.ordinal()] = b.getPolegada().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final byte[] JSON_ID = bytes("{\"id\":");
+    private static final byte[] JSON_TEMPO = bytes(",\"tempo\":");
+    private static final byte[] JSON_M3 = bytes(",\"m3\":");
+    private static final byte[] JSON_PRESSAO = bytes(",\"pressao\":");
+    private static final byte[] JSON_FLUXO = bytes(",\"fluxo\":");
+    private static final byte[] JSON_BITOLA = bytes(",\"bitola\":\"");
+    private static final byte[] JSON_FIM = bytes("\"}\n");
+    /** Potências de 10 usadas na conversão de decimais com quantidade fixa de casas. */
+    private static final long[] POTENCIAS_10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L};
+
+    private final FormatoRegistro formato;
+    private final EscritorAssincrono escritor;
+    private final int amostragem;
+    private final boolean somenteMudancaDeVolume;
+
+    // --- Estado da amostragem ---
+    private long passos = 0;
+    private int ultimoTempo = Integer.MIN_VALUE;
+    private boolean passoAtualAmostrado = false;
+    /** Último volume gravado de cada medidor (NaN = nunca gravado), indexado pelo id. */
+    private float[] ultimoVolumeGravado = new float[0];
+
+    private volatile long registrosGravados = 0;
+
+    /**
+     * Cria o registrador e escreve o cabeçalho do arquivo.
+     *
+     * @param arquivo O arquivo de destino (recriado se existir).
+     * @param formato O formato do arquivo.
+     * @param amostragem Grava apenas um a cada {@code amostragem} passos (1 = todos).
+     * @param somenteMudancaDeVolume Se {@code true}, só grava leituras cujo volume mudou desde a última gravada.
+     */
+    public RegistradorDeLeituras(Path arquivo, FormatoRegistro formato, int amostragem, boolean somenteMudancaDeVolume) {
+        this(arquivo, formato, amostragem, somenteMudancaDeVolume, false);
+    }
+
+    /**
+     * Cria o registrador, recriando o arquivo ou continuando no fim dele. O cabeçalho só é escrito se o
+     * arquivo estiver vazio.
+     *
+     * Usado na retomada de um checkpoint: as leituras anteriores são mantidas. Como o registro é
+     * {@linkplain #descarregar() descarregado} antes de cada checkpoint, nenhuma leitura anterior a ele se perde.
+     * As leituras gravadas entre o checkpoint e a interrupção aparecem duas vezes (com os mesmos tempos),
+     * e a segunda ocorrência é a que vale.
+     *
+     * @param arquivo O arquivo de destino.
+     * @param formato O formato do arquivo (o mesmo da execução anterior, ao acrescentar).
+     * @param amostragem Grava apenas um a cada {@code amostragem} passos (1 = todos).
+     * @param somenteMudancaDeVolume Se {@code true}, só grava leituras cujo volume mudou desde a última gravada.
+     * @param acrescentar Se {@code true}, mantém o conteúdo existente do arquivo.
+     */
+    public RegistradorDeLeituras(Path arquivo, FormatoRegistro formato, int amostragem, boolean somenteMudancaDeVolume,
+                                 boolean acrescentar) {
+        if (amostragem < 1) {
+            throw new IllegalArgumentException("A amostragem deve ser de pelo menos 1 passo: " + amostragem);
+        }
+        this.formato = formato;
+        this.amostragem = amostragem;
+        this.somenteMudancaDeVolume = somenteMudancaDeVolume;
+        this.escritor = new EscritorAssincrono(arquivo, TAMANHO_BUFFER, QUANTIDADE_BUFFERS, acrescentar);
+        if (escritor.getTamanhoInicial() == 0) {
+            escreverCabecalho();
+        }
+    }
+
+    private void escreverCabecalho() {
+        ByteBuffer buffer = escritor.reservar(MAXIMO_BYTES_POR_REGISTRO);
+        switch (formato) {
+            case CSV:
+                buffer.put(bytes("id,tempo,m3,pressao,fluxo,bitola\n"));
+                break;
+            case BINARIO:
+                buffer.put(bytes("HIDR")).putInt(VERSAO_BINARIO).putInt(TAMANHO_REGISTRO_BINARIO);
+                break;
+            default:
+                // JSON Lines não tem cabeçalho.
+        }
+    }
+
+    @Override
+    public void atualizarLote(LoteDeLeituras lote) {
+        int[] ids = lote.getIds();
+        int[] tempos = lote.getTempos();
+        float[] volumes = lote.getVolumes();
+        float[] pressoes = lote.getPressoes();
+        float[] fluxos = lote.getFluxos();
+        byte[] bitolas = lote.getOrdinaisBitola();
+
+        for (int i = 0; i < lote.getTamanho(); i++) {
+            if (!amostrar(ids[i], tempos[i], volumes[i])) {
+                continue;
+            }
+            ByteBuffer buffer = escritor.reservar(MAXIMO_BYTES_POR_REGISTRO);
+            switch (formato) {
+                case CSV:
+                    escreverInteiro(buffer, ids[i]);
+                    buffer.put((byte) ',');
+                    escreverInteiro(buffer, tempos[i]);
+                    buffer.put((byte) ',');
+                    escreverDecimal(buffer, volumes[i], 4);
+                    buffer.put((byte) ',');
+                    escreverDecimal(buffer, pressoes[i], 2);
+                    buffer.put((byte) ',');
+                    escreverDecimal(buffer, fluxos[i], 7);
+                    buffer.put((byte) ',');
+                    buffer.put(POLEGADAS[bitolas[i]]);
+                    buffer.put((byte) '\n');
+                    break;
+                case JSONL:
+                    buffer.put(JSON_ID);
+                    escreverInteiro(buffer, ids[i]);
+                    buffer.put(JSON_TEMPO);
+                    escreverInteiro(buffer, tempos[i]);
+                    buffer.put(JSON_M3);
+                    escreverDecimal(buffer, volumes[i], 4);
+                    buffer.put(JSON_PRESSAO);
+                    escreverDecimal(buffer, pressoes[i], 2);
+                    buffer.put(JSON_FLUXO);
+                    escreverDecimal(buffer, fluxos[i], 7);
+                    buffer.put(JSON_BITOLA);
+                    buffer.put(POLEGADAS[bitolas[i]]);
+                    buffer.put(JSON_FIM);
+                    break;
+                case BINARIO:
+                    buffer.putInt(ids[i]).putInt(tempos[i])
+                            .putFloat(volumes[i]).putFloat(pressoes[i]).putFloat(fluxos[i])
+                            .put(bitolas[i]).put((byte) 0).put((byte) 0).put((byte) 0);
+                    break;
+            }
+            registrosGravados++;
+        }
+    }
+
+    /**
+     * Decide se a leitura deve ser gravada, de acordo com a amostragem configurada.
+     */
+    private boolean amostrar(int id, int tempo, float volume) {
+        // Um novo valor de tempo marca o início de um novo passo.
+        if (tempo != ultimoTempo) {
+            ultimoTempo = tempo;
+            passoAtualAmostrado = passos % amostragem == 0;
+            passos++;
+        }
+        if (!passoAtualAmostrado) {
+            return false;
+        }
+        if (!somenteMudancaDeVolume) {
+            return true;
+        }
+        if (id >= ultimoVolumeGravado.length) {
+            int tamanhoAnterior = ultimoVolumeGravado.length;
+            ultimoVolumeGravado = Arrays.copyOf(ultimoVolumeGravado, Math.max(id + 1, tamanhoAnterior * 2));
+            Arrays.fill(ultimoVolumeGravado, tamanhoAnterior, ultimoVolumeGravado.length, Float.NaN);
+        }
+        // NaN é diferente de qualquer valor, então a primeira leitura de cada medidor é sempre gravada.
+        if (ultimoVolumeGravado[id] != volume) {
+            ultimoVolumeGravado[id] = volume;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Grava no arquivo as leituras que estão no buffer e espera a gravação terminar.
+     */
+    @Override
+    public void descarregar() {
+        escritor.gravarPendentes();
+    }
+
+    /**
+     * Grava os dados pendentes e fecha o arquivo.
+     */
+    @Override
+    public void simulacaoFinalizada() {
+        escritor.close();
+    }
+
+    // --- Conversão de números para texto ASCII, sem alocação ---
+
+    private static void escreverInteiro(ByteBuffer buffer, long valor) {
+        if (valor < 0) {
+            buffer.put((byte) '-');
+            valor = -valor;
+        }
+        if (valor < 10) {
+            buffer.put((byte) ('0' + valor));
+            return;
+        }
+        // Descobre a maior potência de 10 que cabe no valor e escreve os dígitos do mais significativo para o menos.
+        long divisor = 1;
+        while (valor / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + (valor / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    private static void escreverDecimal(ByteBuffer buffer, float valor, int casas) {
+        long escalado = Math.round((double) valor * POTENCIAS_10[casas]);
+        if (escalado < 0) {
+            buffer.put((byte) '-');
+            escalado = -escalado;
+        }
+        escreverInteiro(buffer, escalado / POTENCIAS_10[casas]);
+        buffer.put((byte) '.');
+        long fracao = escalado % POTENCIAS_10[casas];
+        for (long divisor = POTENCIAS_10[casas - 1]; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (fracao / divisor) % 10));
+        }
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public long getRegistrosGravados() { return registrosGravados; }
+    public EscritorAssincrono getEscritor() { return escritor; }
+}
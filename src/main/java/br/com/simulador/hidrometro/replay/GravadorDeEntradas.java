@@ -0,0 +1,103 @@
+package main.java.br.com.simulador.hidrometro.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Grava, em um log binário compacto, tudo o que vem de fora da simulação e influencia as leituras.
+ *
+ * Junto com a semente do gerador aleatório, o log permite que o {@link ReprodutorDeEntradas} repita
+ * a execução sem janela e obtenha exatamente as mesmas leituras, bit a bit.
+ *
+ * A única entrada externa hoje é o multiplicador de vazão (slider do {@code ControleVazaoPanel}). Ele é
+ * registrado no momento em que a thread da simulação o lê, com o tempo simulado do passo, e não no
+ * momento em que o usuário move o slider: assim o log descreve o que a simulação de fato usou, sem
+ * depender de quando a thread da interface conseguiu alterar o valor. Só as mudanças são gravadas.
+ *
+ * Formato (big-endian): cabeçalho {@code "RPLY"}, versão ({@code int}), semente ({@code long}),
+ * escala de tempo ({@code int}); depois, registros de 12 bytes: tempo ({@code int}) e multiplicador
+ * ({@code double}). O registro final tem multiplicador {@code NaN} e marca o tempo em que a execução terminou.
+ */
+public class GravadorDeEntradas implements AutoCloseable {
+
+    static final int NUMERO_MAGICO = 0x52504c59;
+    static final int VERSAO = 1;
+
+    private final Path arquivo;
+    private final DataOutputStream saida;
+    /** Último multiplicador gravado; NaN garante que o primeiro passo sempre seja registrado. */
+    private double ultimoMultiplicador = Double.NaN;
+    private long registros = 0;
+
+    /**
+     * Cria (ou recria) o log e grava o cabeçalho.
+     *
+     * @param arquivo O arquivo do log.
+     * @param semente A semente do gerador aleatório da simulação.
+     * @param escalaDeTempo Os segundos simulados por passo.
+     * @throws RuntimeException se o arquivo não puder ser criado.
+     */
+    public GravadorDeEntradas(Path arquivo, long semente, int escalaDeTempo) {
+        this.arquivo = arquivo;
+        try {
+            this.saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo)));
+            saida.writeInt(NUMERO_MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeLong(semente);
+            saida.writeInt(escalaDeTempo);
+            saida.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao criar log de entradas: " + arquivo, e);
+        }
+    }
+
+    /**
+     * Registra o multiplicador usado no passo, se ele mudou desde o último registro.
+     *
+     * @param tempo O tempo simulado do passo, em segundos.
+     * @param multiplicador O multiplicador de vazão aplicado (0.0 a 1.0).
+     */
+    public void registrar(int tempo, double multiplicador) {
+        if (Double.compare(multiplicador, ultimoMultiplicador) == 0) {
+            return;
+        }
+        ultimoMultiplicador = multiplicador;
+        escrever(tempo, multiplicador);
+    }
+
+    /**
+     * Grava o registro de fim da execução e fecha o log.
+     *
+     * @param tempoFinal O tempo simulado em que a execução terminou.
+     */
+    public void finalizar(int tempoFinal) {
+        escrever(tempoFinal, Double.NaN);
+        close();
+    }
+
+    private void escrever(int tempo, double multiplicador) {
+        try {
+            saida.writeInt(tempo);
+            saida.writeDouble(multiplicador);
+            // Mudanças são raras; descarregar a cada uma evita perdê-las se o processo for encerrado.
+            saida.flush();
+            registros++;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar log de entradas: " + arquivo, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            saida.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fechar log de entradas: " + arquivo, e);
+        }
+    }
+
+    public long getRegistros() { return registros; }
+}
@@ -0,0 +1,108 @@
+package main.java.br.com.simulador.hidrometro.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Lê um log gravado pelo {@link GravadorDeEntradas} e devolve, passo a passo, o multiplicador de vazão
+ * que foi usado na execução original.
+ *
+ * O log inteiro é carregado em dois arrays primitivos (tempos e multiplicadores) na criação; durante a
+ * reprodução, cada consulta apenas avança um cursor, sem I/O e sem alocação.
+ */
+public class ReprodutorDeEntradas {
+
+    private final long semente;
+    private final int escalaDeTempo;
+    private final int[] tempos;
+    private final double[] multiplicadores;
+    private final int quantidade;
+    /** Tempo em que a execução original terminou, ou -1 se o log não tiver o registro final. */
+    private final int tempoFinal;
+
+    private int cursor = 0;
+    private double multiplicadorAtual = 1.0;
+
+    private ReprodutorDeEntradas(long semente, int escalaDeTempo, int[] tempos, double[] multiplicadores,
+                                 int quantidade, int tempoFinal) {
+        this.semente = semente;
+        this.escalaDeTempo = escalaDeTempo;
+        this.tempos = tempos;
+        this.multiplicadores = multiplicadores;
+        this.quantidade = quantidade;
+        this.tempoFinal = tempoFinal;
+    }
+
+    /**
+     * Carrega um log de entradas.
+     *
+     * @param arquivo O arquivo do log.
+     * @return O reprodutor, pronto para o primeiro passo.
+     * @throws IllegalArgumentException se o arquivo não for um log de entradas.
+     * @throws RuntimeException se o arquivo não puder ser lido.
+     */
+    public static ReprodutorDeEntradas carregar(Path arquivo) {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            if (entrada.readInt() != GravadorDeEntradas.NUMERO_MAGICO || entrada.readInt() != GravadorDeEntradas.VERSAO) {
+                throw new IllegalArgumentException("Arquivo não é um log de entradas compatível: " + arquivo);
+            }
+            long semente = entrada.readLong();
+            int escalaDeTempo = entrada.readInt();
+
+            int[] tempos = new int[64];
+            double[] multiplicadores = new double[64];
+            int quantidade = 0;
+            int tempoFinal = -1;
+            while (true) {
+                int tempo;
+                double multiplicador;
+                try {
+                    tempo = entrada.readInt();
+                    multiplicador = entrada.readDouble();
+                } catch (EOFException fim) {
+                    // Log de uma execução interrompida: sem registro final.
+                    break;
+                }
+                if (Double.isNaN(multiplicador)) {
+                    tempoFinal = tempo;
+                    break;
+                }
+                if (quantidade == tempos.length) {
+                    tempos = Arrays.copyOf(tempos, quantidade * 2);
+                    multiplicadores = Arrays.copyOf(multiplicadores, quantidade * 2);
+                }
+                tempos[quantidade] = tempo;
+                multiplicadores[quantidade] = multiplicador;
+                quantidade++;
+            }
+            return new ReprodutorDeEntradas(semente, escalaDeTempo, tempos, multiplicadores, quantidade, tempoFinal);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler log de entradas: " + arquivo, e);
+        }
+    }
+
+    /**
+     * Retorna o multiplicador que estava em vigor no passo do tempo informado.
+     * Os tempos devem ser consultados em ordem crescente, como acontece na simulação.
+     *
+     * @param tempo O tempo simulado do passo, em segundos.
+     * @return O multiplicador de vazão (0.0 a 1.0).
+     */
+    public double getMultiplicadorEm(int tempo) {
+        while (cursor < quantidade && tempos[cursor] <= tempo) {
+            multiplicadorAtual = multiplicadores[cursor];
+            cursor++;
+        }
+        return multiplicadorAtual;
+    }
+
+    public long getSemente() { return semente; }
+    public int getEscalaDeTempo() { return escalaDeTempo; }
+    public int getTempoFinal() { return tempoFinal; }
+    public int getQuantidadeDeRegistros() { return quantidade; }
+}
@@ -0,0 +1,35 @@
+package main.java.br.com.simulador.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do Java Flight Recorder para a codificação e gravação de uma imagem JPEG.
+ *
+ * A duração do evento é a da codificação e da escrita; a espera na fila, antes de um codificador
+ * ficar livre, vem à parte em {@link #esperaNaFila}.
+ */
+@Name("br.com.simulador.GravacaoImagem")
+@Label("Gravação de Imagem JPEG")
+@Category({"Simulador de Hidrômetro", "Imagens"})
+@Description("Codificação e gravação de uma imagem do hidrômetro")
+@StackTrace(false)
+public class EventoGravacaoImagem extends jdk.jfr.Event {
+
+    @Label("Arquivo")
+    public String arquivo;
+
+    @Label("Tamanho")
+    @DataAmount
+    public long bytes;
+
+    @Label("Espera na Fila")
+    @Description("Tempo entre a entrega da imagem e o início da codificação")
+    @Timespan(Timespan.NANOSECONDS)
+    public long esperaNaFila;
+}
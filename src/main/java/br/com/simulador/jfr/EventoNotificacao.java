@@ -0,0 +1,31 @@
+package main.java.br.com.simulador.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do Java Flight Recorder para a entrega de uma leitura a um observador ({@code Observador.atualizar}).
+ *
+ * Com o barramento assíncrono, o evento é gravado na thread do canal do observador; o nome da thread
+ * (gravado pelo próprio JFR) mostra onde o trabalho aconteceu.
+ */
+@Name("br.com.simulador.Notificacao")
+@Label("Notificação de Observador")
+@Category({"Simulador de Hidrômetro", "Observadores"})
+@Description("Uma chamada a Observador.atualizar")
+@StackTrace(false)
+public class EventoNotificacao extends jdk.jfr.Event {
+
+    @Label("Observador")
+    @Description("Classe do observador notificado")
+    public String observador;
+
+    @Label("Tempo Simulado")
+    @Description("Relógio virtual da leitura entregue")
+    @Timespan(Timespan.SECONDS)
+    public long tempoSimulado;
+}
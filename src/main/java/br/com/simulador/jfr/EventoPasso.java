@@ -0,0 +1,36 @@
+package main.java.br.com.simulador.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do Java Flight Recorder para um passo da simulação (de um medidor ou de uma frota inteira).
+ *
+ * A duração do evento é a do cálculo do passo, sem a notificação dos observadores, que tem o seu
+ * próprio evento ({@link EventoNotificacao}).
+ */
+@Name("br.com.simulador.Passo")
+@Label("Passo da Simulação")
+@Category({"Simulador de Hidrômetro", "Simulação"})
+@Description("Cálculo de um passo de tempo da simulação")
+@StackTrace(false)
+public class EventoPasso extends jdk.jfr.Event {
+
+    @Label("Tempo Simulado")
+    @Description("Relógio virtual da simulação ao final do passo")
+    @Timespan(Timespan.SECONDS)
+    public long tempoSimulado;
+
+    @Label("Escala de Tempo")
+    @Description("Segundos simulados avançados neste passo")
+    @Timespan(Timespan.SECONDS)
+    public long escalaDeTempo;
+
+    @Label("Medidores")
+    @Description("Quantos medidores foram avançados neste passo")
+    public int medidores;
+}
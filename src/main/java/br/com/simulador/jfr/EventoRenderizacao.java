@@ -0,0 +1,30 @@
+package main.java.br.com.simulador.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder para o desenho de um quadro do hidrômetro em uma imagem.
+ */
+@Name("br.com.simulador.Renderizacao")
+@Label("Renderização do Hidrômetro")
+@Category({"Simulador de Hidrômetro", "Imagens"})
+@Description("Desenho de um quadro do hidrômetro")
+@StackTrace(false)
+public class EventoRenderizacao extends jdk.jfr.Event {
+
+    @Label("Largura")
+    @Description("Largura da imagem, em pixels")
+    public int largura;
+
+    @Label("Altura")
+    @Description("Altura da imagem, em pixels")
+    public int altura;
+
+    @Label("Volume (m³)")
+    @Description("Volume exibido no quadro")
+    public float m3;
+}
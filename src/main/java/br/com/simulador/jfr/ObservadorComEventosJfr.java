@@ -0,0 +1,47 @@
+package main.java.br.com.simulador.jfr;
+
+import main.java.br.com.simulador.hidrometro.Medidor;
+import main.java.br.com.simulador.observer.Observador;
+
+/**
+ * Decorador que grava um {@link EventoNotificacao} a cada {@link Observador#atualizar} do observador real.
+ *
+ * Só é usado com {@code jfr.eventos = true}; sem isso, o {@code Controller} registra o observador original.
+ * Se nenhuma gravação do JFR estiver em andamento, o evento não é gravado e o custo é desprezível.
+ */
+public class ObservadorComEventosJfr implements Observador {
+
+    private final Observador observador;
+    private final String nome;
+
+    public ObservadorComEventosJfr(Observador observador) {
+        this(observador, observador.getClass().getSimpleName());
+    }
+
+    /**
+     * @param observador O observador a decorar (que pode ser outro decorador).
+     * @param nome O nome gravado nos eventos, normalmente a classe do observador real.
+     */
+    public ObservadorComEventosJfr(Observador observador, String nome) {
+        this.observador = observador;
+        this.nome = nome;
+    }
+
+    @Override
+    public void atualizar(Medidor medidor, int tempoSimulado) {
+        EventoNotificacao evento = new EventoNotificacao();
+        evento.begin();
+        observador.atualizar(medidor, tempoSimulado);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.observador = nome;
+            evento.tempoSimulado = tempoSimulado;
+            evento.commit();
+        }
+    }
+
+    @Override
+    public void simulacaoFinalizada(Medidor estadoFinal) {
+        observador.simulacaoFinalizada(estadoFinal);
+    }
+}
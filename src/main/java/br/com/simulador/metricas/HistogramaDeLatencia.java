@@ -0,0 +1,151 @@
+package main.java.br.com.simulador.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências no estilo do HdrHistogram: faixas log-lineares com precisão relativa fixa.
+ *
+ * Até 63 ns, cada nanossegundo tem a sua faixa. Acima disso, cada potência de dois é dividida em
+ * {@value #SUBFAIXAS} faixas iguais, então o erro de qualquer percentil é de no máximo 1/32 (~3%),
+ * seja ele de 100 ns ou de 10 s. O histograma cobre até 2^40 ns (~18 minutos); valores maiores caem na
+ * última faixa, mas o máximo é sempre guardado exato.
+ *
+ * **Custo:** registrar um valor não aloca nada, não usa lock e custa duas operações atômicas sem disputa
+ * (a faixa e a soma), mais uma comparação com o máximo. Pode ser usado por várias threads ao mesmo tempo.
+ * A leitura ({@link #retrato()}) percorre as ~1.150 faixas e pode ser feita a qualquer momento, de outra
+ * thread, sem parar quem registra; o retrato não é atômico, mas cada faixa é consistente.
+ */
+public class HistogramaDeLatencia implements HistogramaDeLatenciaMBean {
+
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    /** Valores abaixo deste limite têm uma faixa por nanossegundo. */
+    private static final int LIMITE_LINEAR = 2 * SUBFAIXAS;
+    private static final int EXPOENTE_MAXIMO = 40;
+    private static final int QUANTIDADE_FAIXAS = LIMITE_LINEAR + (EXPOENTE_MAXIMO - BITS_SUBFAIXA - 1) * SUBFAIXAS;
+
+    private final String nome;
+    private final AtomicLongArray contagens = new AtomicLongArray(QUANTIDADE_FAIXAS);
+    private final AtomicLong somaNanos = new AtomicLong();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    /**
+     * @param nome O nome do caminho medido (ex: "passo", "observador.Saida").
+     */
+    public HistogramaDeLatencia(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Registra uma duração.
+     *
+     * @param nanos A duração, em nanossegundos (valores negativos contam como zero).
+     */
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        contagens.incrementAndGet(indiceDaFaixa(nanos));
+        somaNanos.addAndGet(nanos);
+        long maximo = maximoNanos.get();
+        while (nanos > maximo && !maximoNanos.compareAndSet(maximo, nanos)) {
+            maximo = maximoNanos.get();
+        }
+    }
+
+    static int indiceDaFaixa(long nanos) {
+        if (nanos < LIMITE_LINEAR) {
+            return (int) nanos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (expoente >= EXPOENTE_MAXIMO) {
+            return QUANTIDADE_FAIXAS - 1;
+        }
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        int topo = (int) (nanos >>> deslocamento); // entre SUBFAIXAS e 2 * SUBFAIXAS - 1
+        return LIMITE_LINEAR + (deslocamento - 1) * SUBFAIXAS + (topo - SUBFAIXAS);
+    }
+
+    /** O maior valor que cai na faixa informada. */
+    static long limiteSuperior(int indice) {
+        if (indice < LIMITE_LINEAR) {
+            return indice;
+        }
+        int deslocamento = (indice - LIMITE_LINEAR) / SUBFAIXAS + 1;
+        long topo = SUBFAIXAS + (indice - LIMITE_LINEAR) % SUBFAIXAS;
+        return ((topo + 1) << deslocamento) - 1;
+    }
+
+    /**
+     * Lê o estado atual do histograma.
+     */
+    public Retrato retrato() {
+        long[] copia = new long[QUANTIDADE_FAIXAS];
+        long contagem = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            contagem += copia[i];
+        }
+        long maximo = maximoNanos.get();
+        return new Retrato(nome, contagem, somaNanos.get(),
+                percentil(copia, contagem, 0.50, maximo), percentil(copia, contagem, 0.90, maximo),
+                percentil(copia, contagem, 0.99, maximo), percentil(copia, contagem, 0.999, maximo), maximo);
+    }
+
+    private static long percentil(long[] contagens, long total, double p, long maximo) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(p * total));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    @Override
+    public void zerar() {
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+        somaNanos.set(0);
+        maximoNanos.set(0);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    // --- Atributos JMX (cada leitura gera um retrato novo) ---
+
+    @Override
+    public long getContagem() { return retrato().contagem(); }
+    @Override
+    public double getMediaMicros() { return retrato().mediaNanos() / 1000.0; }
+    @Override
+    public double getP50Micros() { return retrato().p50Nanos() / 1000.0; }
+    @Override
+    public double getP90Micros() { return retrato().p90Nanos() / 1000.0; }
+    @Override
+    public double getP99Micros() { return retrato().p99Nanos() / 1000.0; }
+    @Override
+    public double getP999Micros() { return retrato().p999Nanos() / 1000.0; }
+    @Override
+    public double getMaximoMicros() { return maximoNanos.get() / 1000.0; }
+
+    /**
+     * O estado de um histograma em um instante. Os percentis são o limite superior da faixa
+     * (nunca subestimam a latência) e nunca passam do máximo.
+     */
+    public record Retrato(String nome, long contagem, long somaNanos, long p50Nanos, long p90Nanos,
+                          long p99Nanos, long p999Nanos, long maximoNanos) {
+        public double mediaNanos() {
+            return contagem == 0 ? 0.0 : (double) somaNanos / contagem;
+        }
+    }
+}
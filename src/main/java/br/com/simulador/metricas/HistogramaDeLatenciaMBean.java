@@ -0,0 +1,24 @@
+package main.java.br.com.simulador.metricas;
+
+/**
+ * Interface de gerenciamento (JMX) de um {@link HistogramaDeLatencia}. Os tempos são em microssegundos.
+ */
+public interface HistogramaDeLatenciaMBean {
+
+    long getContagem();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+
+    /** Zera o histograma, para medir a partir de agora. */
+    void zerar();
+}
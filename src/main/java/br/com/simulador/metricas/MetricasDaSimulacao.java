@@ -0,0 +1,254 @@
+package main.java.br.com.simulador.metricas;
+
+import main.java.br.com.simulador.observer.Observador;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Instrumentação da simulação em produção: histogramas de latência dos caminhos quentes, contadores de
+ * vazão, a profundidade da fila de imagens e o atraso do agendador de tempo real, publicados como MBeans (JMX) e, opcionalmente, impressos
+ * periodicamente no console.
+ *
+ * Caminhos medidos:
+ * <ul>
+ *   <li>{@code passo} — o cálculo de um passo ({@code avancarSemNotificar}, parte de {@code avancarSimulacao});</li>
+ *   <li>{@code notificacao} — a notificação de todos os observadores registrados no simulador;</li>
+ *   <li>{@code observador.<Classe>} — cada {@code Observador.atualizar}, pelo {@link ObservadorMedido};</li>
+ *   <li>{@code renderizacao} — {@code HidrometroRenderer.gerarImagemAnalogica};</li>
+ *   <li>{@code gravacaoImagem} — a codificação e gravação de cada imagem ({@code performSave}).</li>
+ * </ul>
+ *
+ * **Desligadas, custam quase nada:** a instância só existe com {@code metricas.ativas = true}. Sem ela, cada
+ * componente guarda {@code null} no lugar do histograma e paga apenas um teste de nulo por chamada, e os
+ * observadores são registrados sem o decorador. Ligadas, cada ponto medido custa duas leituras de
+ * {@code System.nanoTime()} e duas operações atômicas sem disputa, sem nenhuma alocação.
+ *
+ * Os MBeans ficam no domínio {@value #DOMINIO}, visíveis no JConsole ou no VisualVM:
+ * {@code tipo=Simulacao} para os contadores e {@code tipo=Latencia,nome=<caminho>} para cada histograma.
+ */
+public class MetricasDaSimulacao implements MetricasDaSimulacaoMBean, AutoCloseable {
+
+    public static final String DOMINIO = "br.com.simulador";
+
+    private final HistogramaDeLatencia passo = new HistogramaDeLatencia("passo");
+    private final HistogramaDeLatencia notificacao = new HistogramaDeLatencia("notificacao");
+    private final HistogramaDeLatencia renderizacao = new HistogramaDeLatencia("renderizacao");
+    private final HistogramaDeLatencia gravacaoImagem = new HistogramaDeLatencia("gravacaoImagem");
+    private final List<HistogramaDeLatencia> observadores = new CopyOnWriteArrayList<>();
+    private volatile IntSupplier profundidadeFilaImagens = () -> 0;
+    private volatile boolean agendadorMonitorado = false;
+    private volatile LongSupplier lotesComAtraso = () -> 0;
+    private volatile LongSupplier atrasoAtualNanos = () -> 0;
+    private volatile LongSupplier atrasoMaximoNanos = () -> 0;
+
+    private final long inicioNanos = System.nanoTime();
+    private final List<ObjectName> publicados = new ArrayList<>();
+    private ScheduledExecutorService relatorio;
+
+    // --- Estado do relatório periódico, usado apenas pela thread do relatório ---
+    private long passosNoUltimoRelatorio = 0;
+    private long nanosDoUltimoRelatorio = inicioNanos;
+
+    /**
+     * Envolve um observador com o {@link ObservadorMedido}, criando o histograma dele.
+     * Deve ser chamado antes de {@link #publicarNoJmx()}.
+     *
+     * @param observador O observador real.
+     * @return O observador decorado, a ser registrado no lugar do original.
+     */
+    public Observador medir(Observador observador) {
+        String nome = "observador." + observador.getClass().getSimpleName();
+        int repetidos = 0;
+        for (HistogramaDeLatencia existente : observadores) {
+            if (existente.getNome().equals(nome) || existente.getNome().startsWith(nome + "-")) {
+                repetidos++;
+            }
+        }
+        HistogramaDeLatencia latencia = new HistogramaDeLatencia(repetidos == 0 ? nome : nome + "-" + (repetidos + 1));
+        observadores.add(latencia);
+        return new ObservadorMedido(observador, latencia);
+    }
+
+    /**
+     * Passa a acompanhar a profundidade da fila de gravação de imagens.
+     */
+    public void monitorarFilaDeImagens(IntSupplier profundidade) {
+        this.profundidadeFilaImagens = profundidade;
+    }
+
+    /**
+     * Passa a acompanhar o atraso do agendador de tempo real.
+     *
+     * @param lotesComAtraso Quantidade de lotes em que mais de um passo estava vencido.
+     * @param atrasoAtualNanos Atraso no último lote, em nanossegundos.
+     * @param atrasoMaximoNanos Maior atraso desde o início, em nanossegundos.
+     */
+    public void monitorarAgendador(LongSupplier lotesComAtraso, LongSupplier atrasoAtualNanos, LongSupplier atrasoMaximoNanos) {
+        this.lotesComAtraso = lotesComAtraso;
+        this.atrasoAtualNanos = atrasoAtualNanos;
+        this.atrasoMaximoNanos = atrasoMaximoNanos;
+        this.agendadorMonitorado = true;
+    }
+
+    /**
+     * Registra os MBeans no servidor da plataforma. Nomes já registrados (ex: por uma simulação anterior
+     * na mesma JVM) são substituídos.
+     */
+    public void publicarNoJmx() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            publicar(servidor, new ObjectName(DOMINIO + ":tipo=Simulacao"), this);
+            for (HistogramaDeLatencia histograma : histogramas()) {
+                publicar(servidor, new ObjectName(DOMINIO + ":tipo=Latencia,nome=" + ObjectName.quote(histograma.getNome())), histograma);
+            }
+        } catch (JMException e) {
+            System.err.println("AVISO: Não foi possível publicar as métricas no JMX: " + e.getMessage());
+        }
+    }
+
+    private void publicar(MBeanServer servidor, ObjectName nome, Object mbean) throws JMException {
+        if (servidor.isRegistered(nome)) {
+            servidor.unregisterMBean(nome);
+        }
+        servidor.registerMBean(mbean, nome);
+        publicados.add(nome);
+    }
+
+    /**
+     * Imprime um retrato das métricas a cada intervalo, em uma thread própria (daemon).
+     *
+     * @param intervaloSegundos O intervalo entre dois retratos; zero ou negativo não imprime nada.
+     */
+    public void iniciarRelatorioPeriodico(int intervaloSegundos) {
+        if (intervaloSegundos <= 0) {
+            return;
+        }
+        relatorio = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "relatorio-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relatorio.scheduleAtFixedRate(this::imprimirRetrato, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Imprime no console a vazão desde o último retrato e os percentis de cada caminho medido.
+     */
+    public synchronized void imprimirRetrato() {
+        long agora = System.nanoTime();
+        long passos = passo.retrato().contagem();
+        double segundos = (agora - nanosDoUltimoRelatorio) / 1_000_000_000.0;
+        double passosPorSegundo = segundos > 0 ? (passos - passosNoUltimoRelatorio) / segundos : 0.0;
+        passosNoUltimoRelatorio = passos;
+        nanosDoUltimoRelatorio = agora;
+
+        System.out.println("=============================================");
+        System.out.println("           MÉTRICAS DA SIMULAÇÃO");
+        System.out.println("=============================================");
+        System.out.printf("Passos: %d (%.1f/s no intervalo)%n", passos, passosPorSegundo);
+        System.out.printf("Fila de imagens: %d%n", getProfundidadeFilaImagens());
+        if (agendadorMonitorado) {
+            System.out.printf("Agendador: %d lotes com atraso, atraso %.1f ms (máx %.1f ms)%n",
+                    getLotesComAtraso(), getAtrasoAtualMillis(), getAtrasoMaximoMillis());
+        }
+        System.out.printf("%-32s %8s %8s %7s %7s %7s %8s%n", "Latências (µs)", "n", "média", "p50", "p99", "p99.9", "máx");
+        for (HistogramaDeLatencia histograma : histogramas()) {
+            HistogramaDeLatencia.Retrato r = histograma.retrato();
+            if (r.contagem() == 0) {
+                continue;
+            }
+            System.out.printf("  %-30s %8d %8.1f %7.1f %7.1f %7.1f %8.1f%n", r.nome(), r.contagem(),
+                    r.mediaNanos() / 1000.0, r.p50Nanos() / 1000.0, r.p99Nanos() / 1000.0,
+                    r.p999Nanos() / 1000.0, r.maximoNanos() / 1000.0);
+        }
+        System.out.println("=============================================");
+    }
+
+    /**
+     * Para o relatório periódico, imprime o retrato final e remove os MBeans.
+     */
+    @Override
+    public void close() {
+        if (relatorio != null) {
+            relatorio.shutdownNow();
+            relatorio = null;
+        }
+        imprimirRetrato();
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName nome : publicados) {
+            try {
+                if (servidor.isRegistered(nome)) {
+                    servidor.unregisterMBean(nome);
+                }
+            } catch (JMException e) {
+                System.err.println("AVISO: Não foi possível remover o MBean " + nome + ": " + e.getMessage());
+            }
+        }
+        publicados.clear();
+    }
+
+    private List<HistogramaDeLatencia> histogramas() {
+        List<HistogramaDeLatencia> todos = new ArrayList<>(List.of(passo, notificacao, renderizacao, gravacaoImagem));
+        todos.addAll(observadores);
+        return todos;
+    }
+
+    public HistogramaDeLatencia getPasso() { return passo; }
+    public HistogramaDeLatencia getNotificacao() { return notificacao; }
+    public HistogramaDeLatencia getRenderizacao() { return renderizacao; }
+    public HistogramaDeLatencia getGravacaoImagem() { return gravacaoImagem; }
+
+    // --- Atributos JMX ---
+
+    @Override
+    public long getPassos() {
+        return passo.retrato().contagem();
+    }
+
+    @Override
+    public double getPassosPorSegundo() {
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+        return segundos > 0 ? getPassos() / segundos : 0.0;
+    }
+
+    @Override
+    public long getRenderizacoes() {
+        return renderizacao.retrato().contagem();
+    }
+
+    @Override
+    public long getImagensGravadas() {
+        return gravacaoImagem.retrato().contagem();
+    }
+
+    @Override
+    public int getProfundidadeFilaImagens() {
+        return profundidadeFilaImagens.getAsInt();
+    }
+
+    @Override
+    public long getLotesComAtraso() {
+        return lotesComAtraso.getAsLong();
+    }
+
+    @Override
+    public double getAtrasoAtualMillis() {
+        return atrasoAtualNanos.getAsLong() / 1_000_000.0;
+    }
+
+    @Override
+    public double getAtrasoMaximoMillis() {
+        return atrasoMaximoNanos.getAsLong() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.br.com.simulador.metricas;
+
+/**
+ * Interface de gerenciamento (JMX) dos contadores da simulação. As latências de cada caminho ficam em
+ * MBeans próprios, um por {@link HistogramaDeLatencia}.
+ */
+public interface MetricasDaSimulacaoMBean {
+
+    long getPassos();
+
+    /** Média de passos por segundo real desde o início da simulação. */
+    double getPassosPorSegundo();
+
+    long getRenderizacoes();
+
+    long getImagensGravadas();
+
+    /** Quantas imagens esperam na fila de gravação agora. */
+    int getProfundidadeFilaImagens();
+
+    /** Lotes do agendador de tempo real em que mais de um passo estava vencido (0 no modo headless). */
+    long getLotesComAtraso();
+
+    /** Atraso do agendador de tempo real em relação ao relógio de parede no último lote, em milissegundos. */
+    double getAtrasoAtualMillis();
+
+    /** Maior atraso do agendador de tempo real desde o início, em milissegundos. */
+    double getAtrasoMaximoMillis();
+}
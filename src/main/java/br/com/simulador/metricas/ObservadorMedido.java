@@ -0,0 +1,34 @@
+package main.java.br.com.simulador.metricas;
+
+import main.java.br.com.simulador.hidrometro.Medidor;
+import main.java.br.com.simulador.observer.Observador;
+
+/**
+ * Decorador que mede quanto tempo cada chamada a {@link Observador#atualizar} do observador real leva.
+ *
+ * Só é usado com as métricas ativas: sem elas, o {@code Controller} registra o observador original, e a
+ * medição não custa nada. Com o barramento assíncrono, o decorador roda na thread do canal do observador
+ * e mede o trabalho do próprio observador, e não o tempo de fila.
+ */
+public class ObservadorMedido implements Observador {
+
+    private final Observador observador;
+    private final HistogramaDeLatencia latencia;
+
+    public ObservadorMedido(Observador observador, HistogramaDeLatencia latencia) {
+        this.observador = observador;
+        this.latencia = latencia;
+    }
+
+    @Override
+    public void atualizar(Medidor medidor, int tempoSimulado) {
+        long inicio = System.nanoTime();
+        observador.atualizar(medidor, tempoSimulado);
+        latencia.registrar(System.nanoTime() - inicio);
+    }
+
+    @Override
+    public void simulacaoFinalizada(Medidor estadoFinal) {
+        observador.simulacaoFinalizada(estadoFinal);
+    }
+}
@@ -0,0 +1,94 @@
+package main.java.br.com.simulador.observer;
+
+import main.java.br.com.simulador.hidrometro.Medidor;
+
+/**
+ * Liga um {@link ObservadorEmLote} a um simulador que notifica passo a passo.
+ *
+ * Registrado como {@link Observador} no {@code HidrometroSimulator}, acumula cada leitura em um
+ * {@link LoteDeLeituras} reaproveitado e só entrega o lote quando ele enche, ou no fim da simulação.
+ *
+ * Em tempo real, um lote de milhares de leituras pode levar horas para encher. Com um intervalo máximo,
+ * o lote parcial também é entregue (e o destino, {@linkplain ObservadorEmLote#descarregar() descarregado})
+ * quando a entrega anterior ficou mais antiga que o intervalo.
+ */
+public class AcumuladorDeLote implements Observador {
+
+    private final ObservadorEmLote destino;
+    private final LoteDeLeituras lote;
+    private final int idMedidor;
+    /** Idade máxima do lote parcial, em nanossegundos; 0 para só entregar lotes cheios. */
+    private final long intervaloMaximoNanos;
+    private long ultimaEntregaNanos;
+
+    /**
+     * @param destino O observador em lote que receberá as leituras.
+     * @param capacidade Quantidade de leituras acumuladas antes de cada entrega.
+     */
+    public AcumuladorDeLote(ObservadorEmLote destino, int capacidade) {
+        this(destino, capacidade, 0);
+    }
+
+    /**
+     * @param destino O observador em lote que receberá as leituras.
+     * @param capacidade Quantidade de leituras acumuladas antes de cada entrega.
+     * @param idMedidor O id atribuído às leituras deste medidor no lote.
+     */
+    public AcumuladorDeLote(ObservadorEmLote destino, int capacidade, int idMedidor) {
+        this(destino, capacidade, idMedidor, 0);
+    }
+
+    /**
+     * @param destino O observador em lote que receberá as leituras.
+     * @param capacidade Quantidade de leituras acumuladas antes de cada entrega.
+     * @param idMedidor O id atribuído às leituras deste medidor no lote.
+     * @param intervaloMaximoMillis Tempo real máximo entre duas entregas, em milissegundos (0 = sem limite).
+     */
+    public AcumuladorDeLote(ObservadorEmLote destino, int capacidade, int idMedidor, long intervaloMaximoMillis) {
+        if (intervaloMaximoMillis < 0) {
+            throw new IllegalArgumentException("O intervalo máximo entre entregas não pode ser negativo: " + intervaloMaximoMillis);
+        }
+        this.destino = destino;
+        this.lote = new LoteDeLeituras(capacidade);
+        this.idMedidor = idMedidor;
+        this.intervaloMaximoNanos = intervaloMaximoMillis * 1_000_000L;
+        this.ultimaEntregaNanos = System.nanoTime();
+    }
+
+    @Override
+    public void atualizar(Medidor medidor, int tempoSimulado) {
+        lote.adicionar(idMedidor, tempoSimulado, medidor.getM3(), medidor.getPressao(), medidor.getFluxo(), medidor.getBitola());
+        if (lote.isCheio()) {
+            entregar();
+        } else if (intervaloMaximoNanos > 0 && System.nanoTime() - ultimaEntregaNanos >= intervaloMaximoNanos) {
+            descarregar();
+        }
+    }
+
+    /**
+     * Entrega o lote parcial e descarrega o destino. Deve ser chamado na thread que entrega as leituras
+     * (ou com ela parada).
+     */
+    public void descarregar() {
+        if (!lote.isVazio()) {
+            entregar();
+        }
+        ultimaEntregaNanos = System.nanoTime();
+        destino.descarregar();
+    }
+
+    @Override
+    public void simulacaoFinalizada(Medidor estadoFinal) {
+        // Entrega as leituras que ficaram no lote parcial antes de sinalizar o fim.
+        if (!lote.isVazio()) {
+            entregar();
+        }
+        destino.simulacaoFinalizada();
+    }
+
+    private void entregar() {
+        destino.atualizarLote(lote);
+        lote.limpar();
+        ultimaEntregaNanos = System.nanoTime();
+    }
+}
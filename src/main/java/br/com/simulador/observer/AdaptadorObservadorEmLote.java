@@ -0,0 +1,70 @@
+package main.java.br.com.simulador.observer;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.hidrometro.Medidor;
+
+/**
+ * Adapter (padrão Adaptador) que permite a um {@link Observador} tradicional receber lotes.
+ *
+ * Cada leitura do lote é copiada para um {@link Medidor} reaproveitado e entregue com
+ * {@link Observador#atualizar(Medidor, int)}, na ordem do lote. Como a bitola do {@link Medidor} é fixa,
+ * há uma cópia por bitola, criada na primeira leitura com aquela bitola. Opcionalmente, apenas as leituras
+ * de um medidor específico são repassadas, o que é útil para acompanhar um único hidrômetro de uma frota.
+ */
+public class AdaptadorObservadorEmLote implements ObservadorEmLote {
+
+    /** Valor de filtro que repassa as leituras de todos os medidores. */
+    public static final int TODOS_OS_MEDIDORES = -1;
+
+    private final Observador observador;
+    private final int idMedidor;
+    /** Cópia reaproveitada para cada bitola, indexada pelo ordinal. */
+    private final Medidor[] copias = new Medidor[Bitola.values().length];
+    /** Cópia entregue por último, repassada no fim da simulação. */
+    private Medidor copia;
+
+    /**
+     * @param observador O observador tradicional a ser adaptado.
+     */
+    public AdaptadorObservadorEmLote(Observador observador) {
+        this(observador, TODOS_OS_MEDIDORES);
+    }
+
+    /**
+     * @param observador O observador tradicional a ser adaptado.
+     * @param idMedidor O id do único medidor a ser repassado, ou {@link #TODOS_OS_MEDIDORES}.
+     */
+    public AdaptadorObservadorEmLote(Observador observador, int idMedidor) {
+        this.observador = observador;
+        this.idMedidor = idMedidor;
+    }
+
+    @Override
+    public void atualizarLote(LoteDeLeituras lote) {
+        int[] ids = lote.getIds();
+        for (int i = 0; i < lote.getTamanho(); i++) {
+            if (idMedidor != TODOS_OS_MEDIDORES && ids[i] != idMedidor) {
+                continue;
+            }
+            int bitola = lote.getOrdinaisBitola()[i];
+            copia = copias[bitola];
+            if (copia == null) {
+                copia = new Medidor(lote.getBitola(i));
+                copias[bitola] = copia;
+            }
+            copia.restaurarEstado(lote.getVolumes()[i], lote.getPressoes()[i], lote.getFluxos()[i]);
+            observador.atualizar(copia, lote.getTempos()[i]);
+        }
+    }
+
+    /**
+     * Repassa o fim da simulação com o último estado visto. Se nenhuma leitura foi recebida,
+     * o observador tradicional não é notificado, pois não há um estado final a entregar.
+     */
+    @Override
+    public void simulacaoFinalizada() {
+        if (copia != null) {
+            observador.simulacaoFinalizada(copia);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package main.java.br.com.simulador.observer;
+
+import main.java.br.com.simulador.hidrometro.Medidor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Barramento assíncrono que desacopla a simulação dos observadores.
+ *
+ * Sem o barramento, o {@code HidrometroSimulator} chama cada {@link Observador} diretamente na
+ * thread da simulação; um observador lento (como o {@code Display}, que desenha uma imagem de
+ * 800x500, ou a {@code Saida}, que faz vários {@code printf}) atrasa todos os passos.
+ *
+ * O barramento é ele próprio um {@link Observador}: registrado no simulador, ele apenas copia cada
+ * leitura para o {@link CanalDeObservador} de cada observador real, e cada canal entrega os eventos
+ * na sua própria thread, seguindo a sua {@link PoliticaDeEntrega}. Ao final da simulação, o barramento
+ * espera que todos os canais sejam esvaziados antes de retornar.
+ */
+public class BarramentoDeEventos implements Observador {
+
+    private final List<CanalDeObservador> canais = new ArrayList<>();
+
+    /**
+     * Registra um observador no barramento. Deve ser chamado antes do início da simulação.
+     *
+     * @param observador O observador a ser desacoplado da simulação.
+     * @param politica O que fazer quando o observador ficar para trás.
+     * @param capacidade Quantidade máxima de eventos pendentes para este observador.
+     * @return O canal criado, que expõe as métricas de fila do observador.
+     */
+    public CanalDeObservador registrar(Observador observador, PoliticaDeEntrega politica, int capacidade) {
+        CanalDeObservador canal = new CanalDeObservador(observador, politica, capacidade);
+        canais.add(canal);
+        return canal;
+    }
+
+    @Override
+    public void atualizar(Medidor medidor, int tempoSimulado) {
+        for (int i = 0; i < canais.size(); i++) {
+            canais.get(i).publicar(medidor, tempoSimulado);
+        }
+    }
+
+    @Override
+    public void simulacaoFinalizada(Medidor estadoFinal) {
+        for (CanalDeObservador canal : canais) {
+            canal.finalizar(estadoFinal);
+        }
+        // Garante que todos os observadores terminaram antes de a simulação ser dada como encerrada.
+        for (CanalDeObservador canal : canais) {
+            try {
+                canal.aguardarTermino();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return A soma de eventos pendentes em todos os canais.
+     */
+    public int getProfundidadeTotal() {
+        int total = 0;
+        for (CanalDeObservador canal : canais) {
+            total += canal.getProfundidade();
+        }
+        return total;
+    }
+
+    /**
+     * @return A soma de eventos descartados em todos os canais.
+     */
+    public long getDescartadosTotal() {
+        long total = 0;
+        for (CanalDeObservador canal : canais) {
+            total += canal.getDescartados();
+        }
+        return total;
+    }
+
+    public List<CanalDeObservador> getCanais() {
+        return Collections.unmodifiableList(canais);
+    }
+}
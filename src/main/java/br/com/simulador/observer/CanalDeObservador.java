@@ -0,0 +1,301 @@
+package main.java.br.com.simulador.observer;
+
+import main.java.br.com.simulador.config.Bitola;
+import main.java.br.com.simulador.hidrometro.Medidor;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Liga a simulação a um único {@link Observador} por meio de uma fila circular (ring buffer)
+ * pré-alocada e de uma thread consumidora exclusiva.
+ *
+ * Cada posição da fila guarda apenas valores primitivos (tempo, m³, pressão, fluxo) e a referência da
+ * {@link Bitola}, em arrays alocados uma única vez. Publicar um evento, portanto, não cria objetos.
+ * Do lado do consumidor, os valores são copiados para um {@link Medidor} reaproveitado, que é
+ * entregue ao observador pela interface {@link Observador} de sempre.
+ *
+ * Quando a fila enche, a {@link PoliticaDeEntrega} decide entre esperar, descartar o mais antigo
+ * ou ficar apenas com o mais recente. O evento de fim de simulação nunca é descartado: ele é
+ * entregue depois que a fila for totalmente esvaziada.
+ *
+ * Se o observador lançar um {@link Error} (ex: {@code OutOfMemoryError}), o canal é dado como morto:
+ * a thread consumidora termina e os eventos seguintes são descartados (e contados), em vez de a
+ * simulação ficar bloqueada para sempre esperando espaço numa fila que ninguém esvazia.
+ */
+public class CanalDeObservador {
+
+    private final Observador observador;
+    private final PoliticaDeEntrega politica;
+    private final int capacidade;
+
+    // --- Fila circular pré-alocada ---
+    private final int[] tempos;
+    private final float[] volumes;
+    private final float[] pressoes;
+    private final float[] fluxos;
+    private final Bitola[] bitolas;
+    /** Sequência da próxima posição a ser escrita. */
+    private long cabeca = 0;
+    /** Sequência da próxima posição a ser lida. */
+    private long cauda = 0;
+    /** Todos os eventos com sequência menor que esta já foram entregues (ou descartados). */
+    private long entregueAte = 0;
+    /** A thread consumidora saiu do laço de entrega. */
+    private boolean encerrado = false;
+    /** O observador falhou com um erro fatal: nada mais é entregue a ele. */
+    private volatile boolean morto = false;
+
+    // --- Fim de simulação ---
+    private boolean finalizado = false;
+    private float m3Final;
+    private float pressaoFinal;
+    private float fluxoFinal;
+    private Bitola bitolaFinal;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition naoVazio = lock.newCondition();
+    private final Condition naoCheio = lock.newCondition();
+    private final Condition entregue = lock.newCondition();
+
+    // --- Métricas ---
+    private volatile long entregues = 0;
+    private volatile long descartados = 0;
+    private volatile int profundidadeMaxima = 0;
+
+    private final Thread consumidor;
+
+    /**
+     * Cria o canal e já inicia a thread consumidora.
+     *
+     * @param observador O observador que receberá os eventos.
+     * @param politica O que fazer quando a fila estiver cheia.
+     * @param capacidade Quantidade máxima de eventos pendentes.
+     */
+    public CanalDeObservador(Observador observador, PoliticaDeEntrega politica, int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade do canal deve ser positiva: " + capacidade);
+        }
+        this.observador = observador;
+        this.politica = politica;
+        this.capacidade = capacidade;
+        this.tempos = new int[capacidade];
+        this.volumes = new float[capacidade];
+        this.pressoes = new float[capacidade];
+        this.fluxos = new float[capacidade];
+        this.bitolas = new Bitola[capacidade];
+
+        this.consumidor = new Thread(this::consumir, "observador-" + observador.getClass().getSimpleName());
+        this.consumidor.setDaemon(true);
+        this.consumidor.start();
+    }
+
+    /**
+     * Enfileira uma leitura. Chamado pela thread da simulação.
+     *
+     * @param medidor O medidor cujo estado será copiado.
+     * @param tempoSimulado O tempo simulado da leitura.
+     */
+    public void publicar(Medidor medidor, int tempoSimulado) {
+        lock.lock();
+        try {
+            if (morto) {
+                descartados++;
+                return;
+            }
+            int pendentes = (int) (cabeca - cauda);
+            if (politica == PoliticaDeEntrega.CONFLATAR && pendentes > 0) {
+                // Só o mais recente interessa: tudo que ainda não foi entregue é descartado.
+                descartados += pendentes;
+                cauda = cabeca;
+            } else if (pendentes == capacidade) {
+                if (politica == PoliticaDeEntrega.DESCARTAR_MAIS_ANTIGO) {
+                    cauda++;
+                    descartados++;
+                } else {
+                    while (cabeca - cauda == capacidade && !morto) {
+                        try {
+                            naoCheio.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            descartados++;
+                            return;
+                        }
+                    }
+                    if (morto) {
+                        descartados++;
+                        return;
+                    }
+                }
+            }
+
+            int posicao = (int) (cabeca % capacidade);
+            tempos[posicao] = tempoSimulado;
+            volumes[posicao] = medidor.getM3();
+            pressoes[posicao] = medidor.getPressao();
+            fluxos[posicao] = medidor.getFluxo();
+            bitolas[posicao] = medidor.getBitola();
+            cabeca++;
+
+            int profundidade = (int) (cabeca - cauda);
+            if (profundidade > profundidadeMaxima) {
+                profundidadeMaxima = profundidade;
+            }
+            naoVazio.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enfileira o evento de fim de simulação, que será entregue depois de todos os pendentes.
+     *
+     * @param estadoFinal O estado final do medidor.
+     */
+    public void finalizar(Medidor estadoFinal) {
+        lock.lock();
+        try {
+            m3Final = estadoFinal.getM3();
+            pressaoFinal = estadoFinal.getPressao();
+            fluxoFinal = estadoFinal.getFluxo();
+            bitolaFinal = estadoFinal.getBitola();
+            finalizado = true;
+            naoVazio.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que a thread consumidora entregue todos os eventos publicados até agora, sem encerrar o canal.
+     * Chamado pela thread da simulação, que não publica nada enquanto espera.
+     *
+     * @throws InterruptedException se a espera for interrompida.
+     */
+    public void aguardarEntrega() throws InterruptedException {
+        lock.lock();
+        try {
+            long alvo = cabeca;
+            while (entregueAte < alvo && !encerrado) {
+                entregue.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que a thread consumidora entregue todos os eventos e o fim de simulação.
+     *
+     * @throws InterruptedException se a espera for interrompida.
+     */
+    public void aguardarTermino() throws InterruptedException {
+        consumidor.join();
+    }
+
+    /**
+     * Laço da thread consumidora: retira eventos da fila e os entrega ao observador, fora do lock.
+     */
+    private void consumir() {
+        Medidor copia = null;
+        while (true) {
+            int tempo;
+            float m3;
+            float pressao;
+            float fluxo;
+            Bitola bitola;
+
+            lock.lock();
+            try {
+                // Tudo o que já foi retirado da fila foi entregue na volta anterior do laço.
+                entregueAte = cauda;
+                entregue.signalAll();
+                while (cabeca == cauda && !finalizado) {
+                    naoVazio.awaitUninterruptibly();
+                }
+                if (cabeca == cauda) {
+                    encerrado = true;
+                    break; // Fila vazia e simulação finalizada.
+                }
+                int posicao = (int) (cauda % capacidade);
+                tempo = tempos[posicao];
+                m3 = volumes[posicao];
+                pressao = pressoes[posicao];
+                fluxo = fluxos[posicao];
+                bitola = bitolas[posicao];
+                cauda++;
+                naoCheio.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            if (copia == null) {
+                copia = new Medidor(bitola);
+            }
+            copia.restaurarEstado(m3, pressao, fluxo);
+            try {
+                observador.atualizar(copia, tempo);
+            } catch (RuntimeException e) {
+                // Um observador com defeito não deve derrubar a thread e travar a fila.
+                System.err.println("ERRO no observador " + observador.getClass().getSimpleName());
+                e.printStackTrace();
+            } catch (Throwable t) {
+                matar(t);
+                return;
+            }
+            entregues++;
+        }
+
+        Medidor estadoFinal = new Medidor(bitolaFinal);
+        estadoFinal.restaurarEstado(m3Final, pressaoFinal, fluxoFinal);
+        try {
+            observador.simulacaoFinalizada(estadoFinal);
+        } catch (Throwable t) {
+            System.err.println("ERRO ao finalizar o observador " + observador.getClass().getSimpleName());
+            t.printStackTrace();
+        }
+    }
+
+    /**
+     * Marca o canal como morto depois de um erro fatal do observador: os eventos pendentes são descartados
+     * e quem estiver esperando (publicação bloqueada, entrega) é liberado.
+     */
+    private void matar(Throwable causa) {
+        System.err.println("ERRO fatal no observador " + observador.getClass().getSimpleName()
+                + "; os próximos eventos serão descartados.");
+        causa.printStackTrace();
+        lock.lock();
+        try {
+            morto = true;
+            encerrado = true;
+            // O evento que provocou o erro também não foi entregue.
+            descartados += cabeca - cauda + 1;
+            cauda = cabeca;
+            naoCheio.signalAll();
+            entregue.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A quantidade de eventos aguardando entrega neste momento.
+     */
+    public int getProfundidade() {
+        lock.lock();
+        try {
+            return (int) (cabeca - cauda);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Observador getObservador() { return observador; }
+    public PoliticaDeEntrega getPolitica() { return politica; }
+    public int getCapacidade() { return capacidade; }
+    public long getEntregues() { return entregues; }
+    public long getDescartados() { return descartados; }
+    public int getProfundidadeMaxima() { return profundidadeMaxima; }
+    /** @return {@code true} se o observador falhou com um erro fatal e o canal deixou de entregar eventos. */
+    public boolean isMorto() { return morto; }
+}
@@ -0,0 +1,91 @@
+package main.java.br.com.simulador.observer;
+
+import main.java.br.com.simulador.config.Bitola;
+
+/**
+ * Um lote de leituras em formato de arrays primitivos, entregue de uma só vez a um {@link ObservadorEmLote}.
+ *
+ * Cada posição {@code i} (de {@code 0} até {@link #getTamanho()} - 1) corresponde a uma leitura:
+ * o id do medidor, o tempo simulado, o volume acumulado, a pressão, o fluxo e a bitola.
+ * Os arrays são expostos diretamente para que consumidores possam processar milhares de leituras
+ * por chamada sem cópias nem objetos intermediários.
+ *
+ * O lote é reaproveitado por quem o produz: seu conteúdo só é válido durante a chamada a
+ * {@link ObservadorEmLote#atualizarLote(LoteDeLeituras)}. Quem precisar guardar os dados deve copiá-los.
+ */
+public final class LoteDeLeituras {
+
+    private static final Bitola[] BITOLAS = Bitola.values();
+
+    private final int[] ids;
+    private final int[] tempos;
+    private final float[] volumes;
+    private final float[] pressoes;
+    private final float[] fluxos;
+    /** Ordinal da {@link Bitola} de cada leitura. */
+    private final byte[] bitolas;
+    private int tamanho = 0;
+
+    /**
+     * @param capacidade Quantidade máxima de leituras por lote.
+     */
+    public LoteDeLeituras(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade do lote deve ser positiva: " + capacidade);
+        }
+        this.ids = new int[capacidade];
+        this.tempos = new int[capacidade];
+        this.volumes = new float[capacidade];
+        this.pressoes = new float[capacidade];
+        this.fluxos = new float[capacidade];
+        this.bitolas = new byte[capacidade];
+    }
+
+    /**
+     * Acrescenta uma leitura ao final do lote.
+     *
+     * @return {@code false} se o lote já estiver cheio (a leitura não é adicionada).
+     */
+    public boolean adicionar(int id, int tempo, float m3, float pressao, float fluxo, Bitola bitola) {
+        if (tamanho == ids.length) {
+            return false;
+        }
+        ids[tamanho] = id;
+        tempos[tamanho] = tempo;
+        volumes[tamanho] = m3;
+        pressoes[tamanho] = pressao;
+        fluxos[tamanho] = fluxo;
+        bitolas[tamanho] = (byte) bitola.ordinal();
+        tamanho++;
+        return true;
+    }
+
+    /**
+     * Define quantas posições dos arrays estão preenchidas. Usado por produtores que escrevem
+     * diretamente nos arrays (ex: cópia em bloco a partir do estado de uma frota).
+     */
+    public void setTamanho(int tamanho) {
+        if (tamanho < 0 || tamanho > ids.length) {
+            throw new IllegalArgumentException("Tamanho fora da capacidade do lote: " + tamanho);
+        }
+        this.tamanho = tamanho;
+    }
+
+    /** Esvazia o lote para reaproveitamento. Os arrays não são zerados. */
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public boolean isCheio() { return tamanho == ids.length; }
+    public boolean isVazio() { return tamanho == 0; }
+    public int getTamanho() { return tamanho; }
+    public int getCapacidade() { return ids.length; }
+
+    public int[] getIds() { return ids; }
+    public int[] getTempos() { return tempos; }
+    public float[] getVolumes() { return volumes; }
+    public float[] getPressoes() { return pressoes; }
+    public float[] getFluxos() { return fluxos; }
+    public byte[] getOrdinaisBitola() { return bitolas; }
+    public Bitola getBitola(int i) { return BITOLAS[bitolas[i]]; }
+}
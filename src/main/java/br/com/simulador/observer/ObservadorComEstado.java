@@ -0,0 +1,22 @@
+package main.java.br.com.simulador.observer;
+
+/**
+ * Observador que mantém um pequeno estado próprio que precisa sobreviver a um reinício da simulação.
+ *
+ * Exemplo: o {@code Display} guarda o último m³ inteiro para o qual uma imagem foi salva. Se esse valor
+ * se perdesse, a simulação retomada de um checkpoint salvaria de novo imagens que já existem.
+ * O estado é resumido a um único {@code long}, gravado junto com o checkpoint do simulador.
+ */
+public interface ObservadorComEstado {
+
+    /**
+     * @return O estado do observador, codificado em um {@code long}.
+     */
+    long exportarEstado();
+
+    /**
+     * Restaura o estado exportado anteriormente por {@link #exportarEstado()}.
+     * @param estado O valor salvo no checkpoint.
+     */
+    void restaurarEstado(long estado);
+}
@@ -0,0 +1,32 @@
+package main.java.br.com.simulador.observer;
+
+/**
+ * Contrato estendido do padrão Observer para consumidores que processam leituras em lote.
+ *
+ * Em vez de uma chamada por passo com um {@code Medidor} mutável (como em {@link Observador}),
+ * o observador recebe um {@link LoteDeLeituras} com muitas leituras em arrays primitivos. É a forma
+ * indicada para gravadores de arquivo, agregadores e para a simulação de frota, em que um único passo
+ * produz uma leitura por medidor.
+ *
+ * Observadores antigos continuam funcionando por meio de {@link AdaptadorObservadorEmLote}, e novos
+ * observadores em lote podem ser ligados ao simulador de um único medidor com {@link AcumuladorDeLote}.
+ */
+public interface ObservadorEmLote {
+
+    /**
+     * Recebe um lote de leituras. O lote só é válido durante esta chamada.
+     * @param lote As leituras, em arrays primitivos.
+     */
+    void atualizarLote(LoteDeLeituras lote);
+
+    /**
+     * Pede que o que estiver em buffers internos seja gravado agora, sem esperar que eles encham.
+     * Chamado na mesma thread que {@link #atualizarLote(LoteDeLeituras)}.
+     */
+    default void descarregar() {}
+
+    /**
+     * Chamado uma única vez quando a simulação é finalizada, depois do último lote.
+     */
+    default void simulacaoFinalizada() {}
+}
@@ -0,0 +1,47 @@
+package main.java.br.com.simulador.observer;
+
+/**
+ * Define o que o {@link BarramentoDeEventos} faz quando a fila de um observador está cheia,
+ * isto é, quando o observador está mais lento do que a simulação.
+ */
+public enum PoliticaDeEntrega {
+
+    /** A simulação espera até que o observador libere espaço. Nenhum evento é perdido. */
+    BLOQUEAR("bloquear"),
+
+    /** O evento mais antigo da fila é descartado para dar lugar ao novo. A simulação nunca espera. */
+    DESCARTAR_MAIS_ANTIGO("descartarMaisAntigo"),
+
+    /**
+     * Apenas o evento mais recente interessa: qualquer evento ainda não entregue é substituído
+     * pelo novo. Ideal para telas, que só precisam mostrar o estado atual.
+     */
+    CONFLATAR("conflatar");
+
+    /** O valor usado no arquivo de configuração. */
+    private final String chave;
+
+    PoliticaDeEntrega(String chave) {
+        this.chave = chave;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Converte o valor lido do arquivo de configuração em uma constante do enum.
+     *
+     * @param chave O valor em texto (ex: "bloquear", "descartarMaisAntigo", "conflatar").
+     * @return A constante {@link PoliticaDeEntrega} correspondente.
+     * @throws IllegalArgumentException se o valor não corresponder a nenhuma política.
+     */
+    public static PoliticaDeEntrega fromString(String chave) {
+        for (PoliticaDeEntrega politica : PoliticaDeEntrega.values()) {
+            if (politica.chave.equalsIgnoreCase(chave)) {
+                return politica;
+            }
+        }
+        throw new IllegalArgumentException("Política de entrega não suportada: " + chave);
+    }
+}
@@ -0,0 +1,114 @@
+package main.java.br.com.simulador.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabela compilada que indica qual perfil de consumo está ativo em cada minuto de cada tipo de dia.
+ *
+ * Antes, a cada passo, a lista de estratégias era percorrida até encontrar a que estava ativa na hora
+ * atual. Agora, essa decisão é tomada uma única vez, quando a agenda é montada: para cada tipo de dia
+ * ({@link TipoDeDia}) existe uma grade de 1440 posições (uma por minuto) com o índice do perfil ativo.
+ * A consulta durante a simulação é apenas aritmética e dois acessos a arrays, em tempo constante,
+ * independentemente de quantos perfis existam.
+ *
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads e entre vários medidores.
+ */
+public final class AgendaDeConsumo {
+
+    private static final int MINUTOS_POR_DIA = 1440;
+    private static final int SEGUNDOS_POR_DIA = 86_400;
+    private static final short SEM_PERFIL = -1;
+
+    private final CalendarioDeConsumo calendario;
+    private final PerfilDeConsumoStrategy[] perfis;
+    /** Índice do perfil em {@link #perfis} para cada posição {@code tipoDeDia * 1440 + minuto}. */
+    private final short[] grade;
+
+    private AgendaDeConsumo(CalendarioDeConsumo calendario, PerfilDeConsumoStrategy[] perfis, short[] grade) {
+        this.calendario = calendario;
+        this.perfis = perfis;
+        this.grade = grade;
+    }
+
+    /**
+     * Compila a agenda a partir dos perfis legados (resolução de horas) e dos perfis configuráveis.
+     *
+     * Os perfis legados mantêm a regra antiga: em cada hora vale o primeiro da lista que estiver ativo,
+     * em todos os tipos de dia. Os perfis configuráveis são aplicados em seguida, na ordem em que foram
+     * declarados, e sobrescrevem o que já estiver na grade; assim, o último declarado prevalece.
+     *
+     * @param legados Perfis com resolução de horas, que valem em qualquer dia.
+     * @param configuraveis Perfis com resolução de minutos e restrição de tipo de dia.
+     * @param calendario O calendário que classifica os dias simulados.
+     * @return A agenda compilada.
+     */
+    public static AgendaDeConsumo compilar(List<PerfilDeConsumoStrategy> legados,
+                                           List<PerfilConfiguravel> configuraveis,
+                                           CalendarioDeConsumo calendario) {
+        List<PerfilDeConsumoStrategy> perfis = new ArrayList<>();
+        short[] grade = new short[TipoDeDia.values().length * MINUTOS_POR_DIA];
+        Arrays.fill(grade, SEM_PERFIL);
+
+        for (PerfilDeConsumoStrategy legado : legados) {
+            short indice = registrar(perfis, legado);
+            for (int hora = 0; hora < 24; hora++) {
+                if (!legado.isAtivo(hora)) {
+                    continue;
+                }
+                for (TipoDeDia tipo : TipoDeDia.values()) {
+                    int base = tipo.ordinal() * MINUTOS_POR_DIA + hora * 60;
+                    for (int posicao = base; posicao < base + 60; posicao++) {
+                        // Só ocupa posições vazias: o primeiro perfil legado ativo vence.
+                        if (grade[posicao] == SEM_PERFIL) {
+                            grade[posicao] = indice;
+                        }
+                    }
+                }
+            }
+        }
+
+        for (PerfilConfiguravel perfil : configuraveis) {
+            short indice = registrar(perfis, perfil);
+            for (TipoDeDia tipo : TipoDeDia.values()) {
+                if (!perfil.valeNoDia(tipo)) {
+                    continue;
+                }
+                for (int minuto = 0; minuto < MINUTOS_POR_DIA; minuto++) {
+                    if (perfil.isAtivoNoMinuto(minuto)) {
+                        grade[tipo.ordinal() * MINUTOS_POR_DIA + minuto] = indice;
+                    }
+                }
+            }
+        }
+
+        return new AgendaDeConsumo(calendario, perfis.toArray(new PerfilDeConsumoStrategy[0]), grade);
+    }
+
+    private static short registrar(List<PerfilDeConsumoStrategy> perfis, PerfilDeConsumoStrategy perfil) {
+        if (perfis.size() >= Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Quantidade de perfis de consumo excede o limite de " + Short.MAX_VALUE);
+        }
+        perfis.add(perfil);
+        return (short) (perfis.size() - 1);
+    }
+
+    /**
+     * Retorna o perfil de consumo ativo no instante informado, em tempo constante.
+     *
+     * @param tempoSegundos O tempo simulado, em segundos desde t=0.
+     * @return O perfil ativo, ou {@code null} se nenhum perfil cobrir aquele minuto.
+     */
+    public PerfilDeConsumoStrategy buscar(int tempoSegundos) {
+        // floorDiv/floorMod mantêm a consulta válida mesmo se o relógio em segundos (int) der a volta.
+        int dia = Math.floorDiv(tempoSegundos, SEGUNDOS_POR_DIA);
+        int minuto = Math.floorMod(tempoSegundos, SEGUNDOS_POR_DIA) / 60;
+        short indice = grade[calendario.getOrdinalDoDia(dia) * MINUTOS_POR_DIA + minuto];
+        return indice == SEM_PERFIL ? null : perfis[indice];
+    }
+
+    public CalendarioDeConsumo getCalendario() {
+        return calendario;
+    }
+}
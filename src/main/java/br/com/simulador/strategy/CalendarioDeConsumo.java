@@ -0,0 +1,73 @@
+package main.java.br.com.simulador.strategy;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Set;
+
+/**
+ * Calendário que classifica cada dia simulado como dia útil, fim de semana ou feriado.
+ *
+ * O calendário gregoriano se repete exatamente a cada 400 anos (146.097 dias, um múltiplo de 7).
+ * Por isso a classificação de um ciclo inteiro é pré-calculada uma única vez em um array de bytes,
+ * e a consulta de qualquer dia da simulação é apenas um acesso a esse array, sem criar objetos
+ * de data a cada passo.
+ *
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads e entre várias agendas.
+ */
+public final class CalendarioDeConsumo {
+
+    /** Quantidade de dias em um ciclo completo do calendário gregoriano (400 anos). */
+    private static final int DIAS_NO_CICLO = 146_097;
+
+    private static final TipoDeDia[] TIPOS = TipoDeDia.values();
+
+    private final LocalDate dataInicial;
+    /** Ordinal do {@link TipoDeDia} de cada dia do ciclo, a partir de {@link #dataInicial}. */
+    private final byte[] tipoPorDia = new byte[DIAS_NO_CICLO];
+
+    /**
+     * Pré-calcula o tipo de cada dia do ciclo.
+     *
+     * @param dataInicial A data correspondente ao instante t=0 da simulação.
+     * @param feriadosFixos Feriados que se repetem todo ano (ex: 01-01, 12-25).
+     * @param feriadosDatados Feriados de um ano específico (ex: 2026-02-17).
+     */
+    public CalendarioDeConsumo(LocalDate dataInicial, Set<MonthDay> feriadosFixos, Set<LocalDate> feriadosDatados) {
+        this.dataInicial = dataInicial;
+        LocalDate data = dataInicial;
+        for (int dia = 0; dia < DIAS_NO_CICLO; dia++) {
+            TipoDeDia tipo;
+            if (feriadosFixos.contains(MonthDay.from(data)) || feriadosDatados.contains(data)) {
+                tipo = TipoDeDia.FERIADO;
+            } else if (data.getDayOfWeek() == DayOfWeek.SATURDAY || data.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                tipo = TipoDeDia.FIM_DE_SEMANA;
+            } else {
+                tipo = TipoDeDia.DIA_UTIL;
+            }
+            tipoPorDia[dia] = (byte) tipo.ordinal();
+            data = data.plusDays(1);
+        }
+    }
+
+    /**
+     * Retorna o tipo do dia simulado, em tempo constante.
+     *
+     * @param diaSimulado O índice do dia desde o início da simulação (0 = dia de {@link #getDataInicial()}).
+     * @return O tipo do dia.
+     */
+    public TipoDeDia getTipoDoDia(int diaSimulado) {
+        return TIPOS[getOrdinalDoDia(diaSimulado)];
+    }
+
+    /**
+     * Variante que devolve apenas o ordinal, usada no caminho quente da {@link AgendaDeConsumo}.
+     */
+    int getOrdinalDoDia(int diaSimulado) {
+        return tipoPorDia[Math.floorMod(diaSimulado, DIAS_NO_CICLO)];
+    }
+
+    public LocalDate getDataInicial() {
+        return dataInicial;
+    }
+}
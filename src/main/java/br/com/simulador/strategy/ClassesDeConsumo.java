@@ -0,0 +1,63 @@
+package main.java.br.com.simulador.strategy;
+
+import main.java.br.com.simulador.config.ConfigLoader;
+import main.java.br.com.simulador.config.SimulatorConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catálogo das classes de consumo usadas no manifesto da frota (ex: "residencial", "comercial").
+ *
+ * Cada classe é descrita por um arquivo {@code <nome>.txt} no diretório do catálogo, com as mesmas
+ * chaves de perfil e calendário do arquivo de configuração principal ({@code manha_*},
+ * {@code perfil.<nome>.*}, {@code calendario.*}). O arquivo é lido e a agenda é compilada uma única
+ * vez; todas as consultas seguintes devolvem a mesma instância imutável, compartilhada por todos os
+ * medidores da classe.
+ */
+public final class ClassesDeConsumo {
+
+    private final Path diretorio;
+    private final Map<String, AgendaDeConsumo> agendas = new HashMap<>();
+
+    /**
+     * @param diretorio O diretório com um arquivo {@code <nome>.txt} por classe de consumo.
+     */
+    public ClassesDeConsumo(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Devolve a agenda compilada da classe, carregando o arquivo dela na primeira consulta.
+     *
+     * @param nome O nome da classe, como aparece no manifesto.
+     * @return A agenda da classe, sempre a mesma instância para o mesmo nome.
+     * @throws IllegalArgumentException se o nome for inválido ou a classe não tiver arquivo.
+     */
+    public AgendaDeConsumo buscar(String nome) {
+        AgendaDeConsumo agenda = agendas.get(nome);
+        if (agenda == null) {
+            agenda = carregar(nome);
+            agendas.put(nome, agenda);
+        }
+        return agenda;
+    }
+
+    private AgendaDeConsumo carregar(String nome) {
+        // O nome vira parte de um caminho: apenas letras, dígitos, '_' e '-' são aceitos.
+        for (int i = 0; i < nome.length(); i++) {
+            char c = nome.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                throw new IllegalArgumentException("Nome de classe de consumo inválido: " + nome);
+            }
+        }
+        Path arquivo = diretorio.resolve(nome + ".txt");
+        if (!Files.isRegularFile(arquivo)) {
+            throw new IllegalArgumentException("Classe de consumo sem arquivo de perfis: " + arquivo);
+        }
+        SimulatorConfig config = new ConfigLoader().carregarDeArquivo(arquivo.toString());
+        return PerfilDeConsumoFactory.criarAgenda(config);
+    }
+}
@@ -0,0 +1,83 @@
+package main.java.br.com.simulador.strategy;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estratégia de consumo genérica, definida inteiramente pelo arquivo de configuração.
+ *
+ * Diferente dos perfis fixos (madrugada, manhã, tarde e noite), que trabalham com horas inteiras,
+ * este perfil tem uma janela com resolução de minutos e pode valer apenas em alguns tipos de dia.
+ * A janela pode atravessar a meia-noite (ex: das 22:00 às 05:59).
+ */
+public class PerfilConfiguravel implements PerfilDeConsumoStrategy {
+
+    private final String nome;
+    private final float minVelocidade;
+    private final float maxVelocidade;
+    /** Minuto do dia (0-1439) em que o perfil começa, inclusivo. */
+    private final int minutoInicio;
+    /** Minuto do dia (0-1439) em que o perfil termina, inclusivo. */
+    private final int minutoFim;
+    private final Set<TipoDeDia> dias;
+
+    /**
+     * @param nome          O nome do perfil, como aparece no arquivo de configuração.
+     * @param minVelocidade A velocidade mínima do fluxo em m/s.
+     * @param maxVelocidade A velocidade máxima do fluxo em m/s.
+     * @param minutoInicio  O minuto do dia de início do período (inclusivo).
+     * @param minutoFim     O minuto do dia de fim do período (inclusivo).
+     * @param dias          Os tipos de dia em que o perfil vale.
+     */
+    public PerfilConfiguravel(String nome, float minVelocidade, float maxVelocidade,
+                              int minutoInicio, int minutoFim, Set<TipoDeDia> dias) {
+        if (minutoInicio < 0 || minutoInicio >= 1440 || minutoFim < 0 || minutoFim >= 1440) {
+            throw new IllegalArgumentException("Janela inválida para o perfil " + nome + ": " + minutoInicio + "-" + minutoFim);
+        }
+        this.nome = nome;
+        this.minVelocidade = minVelocidade;
+        this.maxVelocidade = maxVelocidade;
+        this.minutoInicio = minutoInicio;
+        this.minutoFim = minutoFim;
+        this.dias = EnumSet.copyOf(dias);
+    }
+
+    @Override
+    public float getVelocidade(RandomGenerator random) {
+        return minVelocidade + random.nextFloat() * (maxVelocidade - minVelocidade);
+    }
+
+    /**
+     * Um perfil com resolução de minutos é considerado ativo na hora se cobrir qualquer minuto dela.
+     */
+    @Override
+    public boolean isAtivo(int horaDoDia) {
+        for (int minuto = horaDoDia * 60; minuto < horaDoDia * 60 + 60; minuto++) {
+            if (isAtivoNoMinuto(minuto)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param minutoDoDia O minuto do dia (0-1439).
+     * @return {@code true} se o minuto estiver dentro da janela do perfil.
+     */
+    public boolean isAtivoNoMinuto(int minutoDoDia) {
+        if (minutoInicio <= minutoFim) {
+            return minutoDoDia >= minutoInicio && minutoDoDia <= minutoFim;
+        }
+        // Janela que atravessa a meia-noite.
+        return minutoDoDia >= minutoInicio || minutoDoDia <= minutoFim;
+    }
+
+    public boolean valeNoDia(TipoDeDia tipo) {
+        return dias.contains(tipo);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
@@ -0,0 +1,217 @@
+package main.java.br.com.simulador.strategy;
+
+import main.java.br.com.simulador.config.SimulatorConfig;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fábrica responsável por instanciar as estratégias de consumo a partir da configuração.
+ *
+ * Antes esta lógica ficava dentro do {@code HidrometroSimulator}. Ela foi extraída para que
+ * outros motores de simulação (como a simulação de frota) possam montar exatamente as mesmas
+ * estratégias sem duplicar o código de leitura e conversão das propriedades.
+ *
+ * Além dos quatro perfis fixos, a fábrica entende perfis genéricos e um calendário:
+ * <pre>
+ * perfil.banho.inicio = 06:30
+ * perfil.banho.fim = 07:15
+ * perfil.banho.vel_min = 2.0
+ * perfil.banho.vel_max = 2.8
+ * perfil.banho.dias = util,fimDeSemana
+ * calendario.dataInicial = 2026-01-05
+ * calendario.feriados = 01-01, 12-25, 2026-02-17
+ * </pre>
+ */
+public final class PerfilDeConsumoFactory {
+
+    private static final String PREFIXO_PERFIL = "perfil.";
+    /** Data usada como t=0 quando o calendário não é configurado (uma segunda-feira). */
+    private static final LocalDate DATA_INICIAL_PADRAO = LocalDate.of(2024, 1, 1);
+    /** Quantos calendários diferentes ficam guardados para reaproveitamento. */
+    private static final int MAXIMO_CALENDARIOS = 8;
+
+    /**
+     * Calendários já pré-calculados (cada um ocupa cerca de 146 KB e leva milissegundos para montar),
+     * reaproveitados entre as classes de uma frota e entre recargas da configuração. Os mais antigos
+     * são descartados. Acesso sincronizado pela própria fábrica.
+     */
+    private static final Map<ChaveDoCalendario, CalendarioDeConsumo> CALENDARIOS =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ChaveDoCalendario, CalendarioDeConsumo> maisAntigo) {
+                    return size() > MAXIMO_CALENDARIOS;
+                }
+            };
+
+    private PerfilDeConsumoFactory() {}
+
+    /**
+     * Lê a configuração e instancia cada estratégia fixa com seus respectivos parâmetros.
+     * Perfis fixos cujas chaves não estejam no arquivo são simplesmente omitidos.
+     *
+     * @param config A configuração contendo as propriedades dos perfis de consumo.
+     * @return Uma nova lista com as estratégias madrugada, manhã, tarde e noite, nesta ordem.
+     */
+    public static List<PerfilDeConsumoStrategy> criarEstrategias(SimulatorConfig config) {
+        List<PerfilDeConsumoStrategy> estrategias = new ArrayList<>();
+
+        // Madrugada
+        if (config.getPerfilDeConsumoProperty("madrugada_inicio") != null) {
+            float madMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("madrugada_vel_min"));
+            float madMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("madrugada_vel_max"));
+            int madInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("madrugada_inicio"));
+            int madFim = Integer.parseInt(config.getPerfilDeConsumoProperty("madrugada_fim"));
+            estrategias.add(new PerfilMadrugada(madMinVel, madMaxVel, madInicio, madFim));
+        }
+
+        // Manhã
+        if (config.getPerfilDeConsumoProperty("manha_inicio") != null) {
+            float manhaMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("manha_vel_min"));
+            float manhaMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("manha_vel_max"));
+            int manhaInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("manha_inicio"));
+            int manhaFim = Integer.parseInt(config.getPerfilDeConsumoProperty("manha_fim"));
+            estrategias.add(new PerfilManha(manhaMinVel, manhaMaxVel, manhaInicio, manhaFim));
+        }
+
+        // Tarde
+        if (config.getPerfilDeConsumoProperty("tarde_inicio") != null) {
+            float tardeMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("tarde_vel_min"));
+            float tardeMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("tarde_vel_max"));
+            int tardeInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("tarde_inicio"));
+            int tardeFim = Integer.parseInt(config.getPerfilDeConsumoProperty("tarde_fim"));
+            estrategias.add(new PerfilTarde(tardeMinVel, tardeMaxVel, tardeInicio, tardeFim));
+        }
+
+        // Noite
+        if (config.getPerfilDeConsumoProperty("noite_inicio") != null) {
+            float noiteMinVel = Float.parseFloat(config.getPerfilDeConsumoProperty("noite_vel_min"));
+            float noiteMaxVel = Float.parseFloat(config.getPerfilDeConsumoProperty("noite_vel_max"));
+            int noiteInicio = Integer.parseInt(config.getPerfilDeConsumoProperty("noite_inicio"));
+            int noiteFim = Integer.parseInt(config.getPerfilDeConsumoProperty("noite_fim"));
+            estrategias.add(new PerfilNoite(noiteMinVel, noiteMaxVel, noiteInicio, noiteFim));
+        }
+
+        return estrategias;
+    }
+
+    /**
+     * Monta a agenda compilada com os perfis fixos, os perfis genéricos e o calendário da configuração.
+     *
+     * @param config A configuração da simulação.
+     * @return A agenda pronta para consultas em tempo constante.
+     */
+    public static AgendaDeConsumo criarAgenda(SimulatorConfig config) {
+        return AgendaDeConsumo.compilar(criarEstrategias(config), criarPerfisConfiguraveis(config), criarCalendario(config));
+    }
+
+    /**
+     * Lê o calendário ({@code calendario.dataInicial} e {@code calendario.feriados}). Um calendário com a
+     * mesma data inicial e os mesmos feriados de um criado antes é reaproveitado, em vez de recalculado.
+     *
+     * @param config A configuração da simulação.
+     * @return O calendário pré-calculado.
+     */
+    public static CalendarioDeConsumo criarCalendario(SimulatorConfig config) {
+        String dataInicialStr = config.getPerfilDeConsumoProperty("calendario.dataInicial");
+        LocalDate dataInicial = dataInicialStr == null ? DATA_INICIAL_PADRAO : LocalDate.parse(dataInicialStr);
+
+        Set<MonthDay> feriadosFixos = new HashSet<>();
+        Set<LocalDate> feriadosDatados = new HashSet<>();
+        String feriados = config.getPerfilDeConsumoProperty("calendario.feriados");
+        if (feriados != null) {
+            for (String feriado : feriados.split(",")) {
+                feriado = feriado.trim();
+                if (feriado.isEmpty()) {
+                    continue;
+                }
+                // "MM-dd" se repete todo ano; "yyyy-MM-dd" vale apenas naquela data.
+                if (feriado.length() == 5) {
+                    feriadosFixos.add(MonthDay.parse("--" + feriado));
+                } else {
+                    feriadosDatados.add(LocalDate.parse(feriado));
+                }
+            }
+        }
+        ChaveDoCalendario chave = new ChaveDoCalendario(dataInicial, Set.copyOf(feriadosFixos), Set.copyOf(feriadosDatados));
+        synchronized (CALENDARIOS) {
+            return CALENDARIOS.computeIfAbsent(chave,
+                    c -> new CalendarioDeConsumo(c.dataInicial(), c.feriadosFixos(), c.feriadosDatados()));
+        }
+    }
+
+    /**
+     * Lê todos os perfis genéricos ({@code perfil.<nome>.*}), na ordem em que aparecem no arquivo.
+     *
+     * @param config A configuração da simulação.
+     * @return A lista de perfis configuráveis.
+     */
+    public static List<PerfilConfiguravel> criarPerfisConfiguraveis(SimulatorConfig config) {
+        // 1. Descobre os nomes dos perfis, preservando a ordem de declaração.
+        Set<String> nomes = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entrada : config.getPerfilDeConsumoProperties().entrySet()) {
+            String chave = entrada.getKey();
+            if (chave.startsWith(PREFIXO_PERFIL)) {
+                int fimDoNome = chave.indexOf('.', PREFIXO_PERFIL.length());
+                if (fimDoNome > 0) {
+                    nomes.add(chave.substring(PREFIXO_PERFIL.length(), fimDoNome));
+                }
+            }
+        }
+
+        // 2. Lê os parâmetros de cada perfil.
+        List<PerfilConfiguravel> perfis = new ArrayList<>();
+        for (String nome : nomes) {
+            String prefixo = PREFIXO_PERFIL + nome + ".";
+            float minVel = Float.parseFloat(obrigatoria(config, prefixo + "vel_min"));
+            float maxVel = Float.parseFloat(obrigatoria(config, prefixo + "vel_max"));
+            int inicio = converterMinuto(obrigatoria(config, prefixo + "inicio"), false);
+            int fim = converterMinuto(obrigatoria(config, prefixo + "fim"), true);
+
+            Set<TipoDeDia> dias = EnumSet.allOf(TipoDeDia.class);
+            String diasStr = config.getPerfilDeConsumoProperty(prefixo + "dias");
+            if (diasStr != null) {
+                dias.clear();
+                for (String dia : diasStr.split(",")) {
+                    dias.add(TipoDeDia.fromString(dia.trim()));
+                }
+            }
+            perfis.add(new PerfilConfiguravel(nome, minVel, maxVel, inicio, fim, dias));
+        }
+        return perfis;
+    }
+
+    /**
+     * Converte "HH:MM" (ou apenas "H", no formato dos perfis fixos) em minuto do dia.
+     * Uma hora inteira no fim da janela cobre a hora toda (ex: fim = 5 vale até 05:59).
+     */
+    private static int converterMinuto(String valor, boolean fimDaJanela) {
+        int separador = valor.indexOf(':');
+        if (separador < 0) {
+            int hora = Integer.parseInt(valor.trim());
+            return hora * 60 + (fimDaJanela ? 59 : 0);
+        }
+        int hora = Integer.parseInt(valor.substring(0, separador).trim());
+        int minuto = Integer.parseInt(valor.substring(separador + 1).trim());
+        return hora * 60 + minuto;
+    }
+
+    private static String obrigatoria(SimulatorConfig config, String chave) {
+        String valor = config.getPerfilDeConsumoProperty(chave);
+        if (valor == null) {
+            throw new IllegalArgumentException("Propriedade obrigatória ausente: " + chave);
+        }
+        return valor;
+    }
+
+    /** O que define um calendário: dois iguais produzem a mesma classificação de todos os dias. */
+    private record ChaveDoCalendario(LocalDate dataInicial, Set<MonthDay> feriadosFixos, Set<LocalDate> feriadosDatados) {}
+}
@@ -1,6 +1,6 @@
 package main.java.br.com.simulador.strategy;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Interface para o padrão Strategy. Define o contrato para os diferentes
@@ -12,10 +12,12 @@ public interface PerfilDeConsumoStrategy {
      * Calcula e retorna uma velocidade de fluxo de água aleatória,
      * baseada nos limites mínimo e máximo do perfil.
      *
-     * @param random Uma instância de Random para garantir a aleatoriedade.
+     * @param random O gerador de números aleatórios de quem está chamando. Aceita tanto
+     *               {@code java.util.Random} quanto {@code SplittableRandom}, permitindo que
+     *               cada medidor (ou bloco de medidores) use seu próprio fluxo determinístico.
      * @return A velocidade do fluxo em m/s.
      */
-    float getVelocidade(Random random);
+    float getVelocidade(RandomGenerator random);
 
     /**
      * Verifica se este perfil de consumo está ativo para a hora do dia fornecida.
@@ -1,6 +1,6 @@
 package main.java.br.com.simulador.strategy;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Estratégia de consumo para o período da tarde.
@@ -29,7 +29,7 @@ public class PerfilTarde implements PerfilDeConsumoStrategy {
     }
 
     @Override
-    public float getVelocidade(Random random) {
+    public float getVelocidade(RandomGenerator random) {
         return minVelocidade + random.nextFloat() * (maxVelocidade - minVelocidade);
     }
 
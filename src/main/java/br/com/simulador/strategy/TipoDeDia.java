@@ -0,0 +1,37 @@
+package main.java.br.com.simulador.strategy;
+
+/**
+ * Classificação de um dia simulado, usada para escolher qual grade de perfis de consumo vale naquele dia.
+ */
+public enum TipoDeDia {
+    DIA_UTIL("util"),
+    FIM_DE_SEMANA("fimDeSemana"),
+    FERIADO("feriado");
+
+    /** O valor usado no arquivo de configuração. */
+    private final String chave;
+
+    TipoDeDia(String chave) {
+        this.chave = chave;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Converte o valor lido do arquivo de configuração em uma constante do enum.
+     *
+     * @param chave O valor em texto (ex: "util", "fimDeSemana", "feriado").
+     * @return A constante {@link TipoDeDia} correspondente.
+     * @throws IllegalArgumentException se o valor não corresponder a nenhum tipo de dia.
+     */
+    public static TipoDeDia fromString(String chave) {
+        for (TipoDeDia tipo : TipoDeDia.values()) {
+            if (tipo.chave.equalsIgnoreCase(chave)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de dia não suportado: " + chave);
+    }
+}